@@ -41,6 +41,10 @@ plugins {
     id("org.asciidoctor.jvm.pdf") version libs.versions.asciidoctor.get()
 
     id("org.cyclonedx.bom") version "1.8.1"
+
+    // https://github.com/melix/jmh-gradle-plugin
+    // Aufruf: gradle jmh
+    id("me.champeau.jmh") version libs.versions.jmhPlugin.get()
 }
 
 group = "com.omnixys"
@@ -59,6 +63,17 @@ configurations {
     }
 }
 
+// Stand-ins für Lasttests (Profil "loadtest"); nicht Teil des Produktions-JARs
+// Aufruf: gradle bootRunLoadtest
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+configurations[loadtest.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+configurations[loadtest.annotationProcessorConfigurationName].extendsFrom(configurations.annotationProcessor.get())
+
 repositories {
     mavenCentral()
     maven(url = "https://projectlombok.org/mavenrepo") // Nightly Repo
@@ -97,7 +112,7 @@ dependencies {
      * TEST
      * --------------------------------------------------------------------------------------------------------------------*/
     testImplementation("org.springframework.boot:spring-boot-starter-test:${libs.versions.springBootTest.get()}")
-    testImplementation("org.apache.httpcomponents.client5:httpclient5:${libs.versions.httpclient5.get()}")
+    implementation("org.apache.httpcomponents.client5:httpclient5:${libs.versions.httpclient5.get()}")
     implementation("org.apache.httpcomponents.core5:httpcore5:${libs.versions.httpcore5.get()}")
     testImplementation("org.springframework.boot:spring-boot-testcontainers")
     testImplementation("org.springframework.graphql:spring-graphql-test")
@@ -107,6 +122,7 @@ dependencies {
     testImplementation("org.testcontainers:junit-jupiter")
     testImplementation("org.testcontainers:mongodb")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    "loadtestImplementation"("com.squareup.okhttp3:mockwebserver:${libs.versions.okhttp.get()}")
 
 
     /**----------------------------------------------------------------
@@ -126,6 +142,7 @@ dependencies {
      * MESSANGER
      * --------------------------------------------------------------------------------------------------------------------*/
     implementation("org.springframework.kafka:spring-kafka")
+    implementation("org.apache.avro:avro:${libs.versions.avro.get()}")
 
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("com.fasterxml.jackson.module:jackson-module-parameter-names")
@@ -148,6 +165,8 @@ dependencies {
     testCompileOnly("com.github.spotbugs:spotbugs-annotations:${libs.versions.spotbugs.get()}")
     testImplementation("org.gaul:modernizer-maven-annotations:${libs.versions.modernizer.get()}")
     implementation("org.springframework.cloud:spring-cloud-starter-circuitbreaker-resilience4j")
+    implementation("io.github.resilience4j:resilience4j-bulkhead:${libs.versions.resilience4j.get()}")
+    implementation("io.github.resilience4j:resilience4j-micrometer:${libs.versions.resilience4j.get()}")
 
     /**------------------------------------------------------------------------------------------------------------------------
      * DOCKER
@@ -183,6 +202,10 @@ dependencies {
 
 tasks.withType<Test> {
     useJUnitPlatform()
+    // PersonWriteService verwendet StructuredTaskScope (Preview)
+    if (enablePreview != null) {
+        jvmArgs(enablePreview)
+    }
     finalizedBy(tasks.jacocoTestReport) // Nach Tests Coverage Report erstellen
 }
 
@@ -226,6 +249,47 @@ tasks.named<JavaCompile>("compileJava") {
     }
 }
 
+tasks.named<JavaCompile>("compileTestJava") {
+    if (enablePreview != null) {
+        options.compilerArgs.add(enablePreview)
+    }
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    if (enablePreview != null) {
+        jvmArgs = listOf(enablePreview)
+    }
+}
+
+tasks.named<JavaCompile>("compileJmhJava") {
+    if (enablePreview != null) {
+        options.compilerArgs.add(enablePreview)
+    }
+}
+
+tasks.named<JavaCompile>("compileLoadtestJava") {
+    if (enablePreview != null) {
+        options.compilerArgs.add(enablePreview)
+    }
+}
+
+tasks.register<org.springframework.boot.gradle.tasks.run.BootRun>("bootRunLoadtest") {
+    group = "application"
+    description = "Startet den Service mit dem Profil loadtest und den Stand-ins aus src/loadtest"
+    mainClass.set(tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun").flatMap { it.mainClass })
+    classpath = loadtest.runtimeClasspath
+    if (enablePreview != null) {
+        jvmArgs(enablePreview)
+    }
+    systemProperty("spring.profiles.active", "loadtest")
+    systemProperty("server.tomcat.basedir", "build/tomcat")
+}
+
 tasks.named("bootBuildImage", org.springframework.boot.gradle.tasks.bundling.BootBuildImage::class.java) {
     // statt "created xx years ago": https://medium.com/buildpacks/time-travel-with-pack-e0efd8bf05db
     createdDate = "now"
@@ -0,0 +1,158 @@
+package com.omnixys.person.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.ReflectionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_DELETE_PERSON;
+
+/**
+ * Misst den Versand eines Events von {@link KafkaPublisherService} bis zur Serialisierung im Producer.
+ * <p>
+ * Aufruf: {@code gradle jmh}. Der Producer serialisiert Schlüssel und Wert (JSON) und bestätigt sofort, ohne
+ * Netzwerk; gemessen werden damit Span, Header, Record, Zustellungs-Callback und Serialisierung. Der aufrufende
+ * Thread hat einen gültigen Trace-Kontext, sodass auch {@code traceparent} geschrieben wird.
+ * {@link #legacyHeaders} bildet zum Vergleich die frühere Header-Erzeugung nach.
+ * </p>
+ * <p>
+ * Auch der neue Pfad alloziert je Record: Header-Liste, {@code traceparent}, Record und Serialisierung.
+ * Erwartet wird nur ein geringerer Wert als bei {@link #legacyHeaders}; belastbar sind allein die Zahlen aus
+ * {@code gc.alloc.rate.norm} eines Laufs auf der Ziel-JVM.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KafkaPublishBenchmark {
+
+    private static final String OPERATION = "deleteAccount";
+
+    private KafkaPublisherService kafkaPublisherService;
+    private KafkaUtilService kafkaUtilService;
+    private SpanContext spanContext;
+    private io.opentelemetry.context.Scope traceScope;
+    private UUID id;
+
+    /**
+     * Serialisiert wie der echte Producer und bestätigt sofort, ohne die Records zu sammeln.
+     */
+    private static final class DiscardingProducer extends MockProducer<String, Object> {
+        private final StringSerializer keySerializer = new StringSerializer();
+        private final JsonSerializer<Object> valueSerializer = new JsonSerializer<Object>().noTypeInfo();
+
+        @Override
+        public Future<RecordMetadata> send(final ProducerRecord<String, Object> record, final Callback callback) {
+            final var key = keySerializer.serialize(record.topic(), record.headers(), record.key());
+            final var value = valueSerializer.serialize(record.topic(), record.headers(), record.value());
+            final var metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0,
+                System.currentTimeMillis(), key != null ? key.length : 0, value != null ? value.length : 0);
+            if (callback != null) {
+                callback.onCompletion(metadata, null);
+            }
+            return CompletableFuture.completedFuture(metadata);
+        }
+
+        @Override
+        public void close(final Duration timeout) {
+            // KafkaTemplate schließt nach jedem Versand; der Producer wird aber weiterverwendet
+        }
+    }
+
+    @Setup
+    public void setup() {
+        final var producer = new DiscardingProducer();
+        final var producerFactory = new MockProducerFactory<String, Object>(() -> producer);
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var kafkaSpool = new KafkaSpool(new ObjectMapper(), meterRegistry);
+        final var tracker = new KafkaDeliveryTracker(new KafkaTemplate<>(producerFactory), kafkaSpool, meterRegistry);
+
+        kafkaUtilService = new KafkaUtilService();
+        setField(kafkaUtilService, "serviceName", "person-benchmark");
+        setField(kafkaUtilService, "version", "25.05.01");
+        kafkaPublisherService = new KafkaPublisherService(tracker, OpenTelemetry.noop().getTracer("benchmark"), kafkaUtilService);
+
+        // Ein gültiger Parent: der No-op-Tracer übernimmt dessen Kontext für den Kafka-Span
+        spanContext = SpanContext.create(
+            "4bf92f3577b34da6a3ce929d0e0e4736",
+            "00f067aa0ba902b7",
+            TraceFlags.getSampled(),
+            TraceState.getDefault()
+        );
+        traceScope = Context.root().with(Span.wrap(spanContext)).makeCurrent();
+        id = UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        traceScope.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        kafkaPublisherService.deleteAccount(id, 3, "admin");
+    }
+
+    @Benchmark
+    public RecordHeaders standardHeaders() {
+        return kafkaUtilService.buildStandardHeaders(TOPIC_ACCOUNT_DELETE_PERSON, OPERATION, spanContext);
+    }
+
+    @Benchmark
+    public RecordHeaders legacyHeaders() {
+        final var headers = new RecordHeaders();
+        headers.add(header("x-service", "person-benchmark"));
+        headers.add(header("x-events-name", TOPIC_ACCOUNT_DELETE_PERSON));
+        headers.add(header("x-events-version", "v1"));
+        headers.add(header("x-events-type", OPERATION));
+        final var traceFlags = spanContext.isSampled() ? "01" : "00";
+        final var traceparent = String.format("00-%s-%s-%s", spanContext.getTraceId(), spanContext.getSpanId(), traceFlags);
+        headers.add(header("traceparent", traceparent));
+        return headers;
+    }
+
+    private static Header header(final String key, final String value) {
+        return new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void setField(final Object target, final String name, final Object value) {
+        final var field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,88 @@
+package com.omnixys.person.tracing;
+
+import ch.qos.logback.classic.Level;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.tracing.LogShipperProps.DropPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Aufwand von {@link LoggerPlus}, wenn das Level deaktiviert ist.
+ * <p>
+ * Aufruf: {@code gradle jmh}. Mit dem GC-Profiler (in {@code build.gradle.kts} aktiviert) zeigt
+ * {@code gc.alloc.rate.norm} die Allokation je Aufruf. Ziel ist, dass sie für die deaktivierten Level deutlich
+ * unter {@link #legacyFormat} liegt; ob der JIT dabei alle Objekte einspart, hängt von JVM und Escape-Analyse ab
+ * und ist nur mit einer Messung belegt, nicht durch diese Klasse.
+ * {@link #legacyFormat} bildet zum Vergleich die frühere, eager formatierende Implementierung nach.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerPlusBenchmark {
+
+    private LoggerPlusFactory factory;
+    private LoggerPlus logger;
+    private UUID id;
+    private String username;
+    private int version;
+
+    @Setup
+    public void setup() {
+        // Slf4j nur ab WARN, Versand nur ab ERROR: INFO und DEBUG sind vollständig deaktiviert
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LoggerPlusBenchmark.class)).setLevel(Level.WARN);
+
+        final var appProperties = new AppProperties();
+        appProperties.setName("person-benchmark");
+        final var props = new LogShipperProps(1024, 64, Duration.ofSeconds(1), "ERROR", DropPolicy.DROP_NEWEST, Map.of());
+        final var shipper = new LogShipper(null, appProperties, props, new SimpleMeterRegistry());
+        shipper.init();
+
+        factory = new LoggerPlusFactory(shipper, appProperties);
+        logger = factory.getLogger(LoggerPlusBenchmark.class);
+        id = UUID.randomUUID();
+        username = "admin";
+        version = 3;
+    }
+
+    @Benchmark
+    public void debugDisabledOneArg() {
+        logger.debug("findById: id={}", id);
+    }
+
+    @Benchmark
+    public void infoDisabledTwoArgs() {
+        logger.info("findById: id={}, user={}", id, username);
+    }
+
+    @Benchmark
+    public void infoDisabledVarargs() {
+        logger.info("update: id={}, version={}, user={}", id, version, username);
+    }
+
+    @Benchmark
+    public LoggerPlus factoryLookup() {
+        return factory.getLogger(LoggerPlusBenchmark.class);
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        final var format = "findById: id={}, user={}";
+        return String.format(format.replace("{}", "%s"), id, username);
+    }
+}
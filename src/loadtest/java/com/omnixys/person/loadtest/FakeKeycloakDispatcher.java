@@ -0,0 +1,239 @@
+package com.omnixys.person.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.dto.PartialImportResultDTO;
+import com.omnixys.person.security.dto.RoleDTO;
+import com.omnixys.person.security.dto.TokenDTO;
+import com.omnixys.person.security.dto.UserInfoDTO;
+import com.omnixys.person.security.dto.UserRepresentation;
+import com.omnixys.person.security.enums.RoleType;
+import com.omnixys.person.security.enums.ScopeType;
+import com.omnixys.person.security.enums.TokenType;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * In-Memory-Nachbildung der Keycloak-Endpunkte aus {@link KeycloakRepository} auf HTTP-Ebene für Lasttests.
+ * <p>
+ * Der Dispatcher beantwortet die Anfragen eines {@code MockWebServer}; das echte {@link KeycloakRepository}
+ * mit Verbindungspool, Circuit-Breaker, Bulkhead und Token-Verwaltung bleibt damit im Messpfad. Benutzer,
+ * Rollen und Rollenzuordnungen werden im Speicher gehalten. Jede Anfrage wartet die konfigurierte Latenz ab
+ * und schlägt mit der konfigurierten Fehlerquote mit {@code 503 Service Unavailable} fehl.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public class FakeKeycloakDispatcher extends Dispatcher {
+
+  private static final String REALM = "/auth/realms/camunda-platform";
+  private static final String ADMIN = "/auth/admin/realms/camunda-platform";
+  private static final String USERS_PATH = ADMIN + "/users";
+  private static final Pattern USER_PATH = Pattern.compile(USERS_PATH + "/([^/]+)(/.*)?");
+  private static final int DEFAULT_PAGE_SIZE = 100;
+
+  private final LoadTestProps props;
+  private final ObjectMapper objectMapper;
+  private final Map<String, UserRepresentation> users = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> roleMappings = new ConcurrentHashMap<>();
+  private final List<RoleDTO> roles = Arrays.stream(RoleType.values())
+    .map(role -> new RoleDTO(UUID.randomUUID().toString(), role.getRole()))
+    .toList();
+
+  public FakeKeycloakDispatcher(final LoadTestProps props, final ObjectMapper objectMapper) {
+    this.props = props;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public MockResponse dispatch(final RecordedRequest request) {
+    if (simulateFailure()) {
+      return new MockResponse().setResponseCode(503).setBody("Injected failure");
+    }
+    final var url = request.getRequestUrl();
+    final var path = url == null ? "" : url.encodedPath();
+    final var method = request.getMethod() == null ? "" : request.getMethod();
+    final var body = request.getBody().readUtf8();
+
+    if (path.equals(REALM + "/.well-known/openid-configuration")) {
+      return json(Map.of("issuer", "http://localhost" + REALM));
+    }
+    if (path.equals(REALM + "/protocol/openid-connect/token")) {
+      return json(token());
+    }
+    if (path.equals(REALM + "/protocol/openid-connect/userinfo")) {
+      return json(new UserInfoDTO(users.keySet().stream().findAny().orElse(UUID.randomUUID().toString())));
+    }
+    if (path.equals(ADMIN + "/roles")) {
+      return json(roles);
+    }
+    if (path.equals(ADMIN + "/partialImport")) {
+      return json(partialImport(parse(body)));
+    }
+    if (path.equals(USERS_PATH)) {
+      if ("POST".equals(method)) {
+        return signIn(parse(body));
+      }
+      final var username = url.queryParameter("username");
+      if (username != null) {
+        return json(users.values().stream().filter(user -> user.username().equals(username)).toList());
+      }
+      // Keycloak verwendet ohne Parameter first=0 und max=100
+      final var first = intParameter(url, "first", 0);
+      final var max = intParameter(url, "max", DEFAULT_PAGE_SIZE);
+      return json(users.values().stream().skip(first).limit(max).toList());
+    }
+
+    final var matcher = USER_PATH.matcher(path);
+    if (!matcher.matches()) {
+      return new MockResponse().setResponseCode(404);
+    }
+    final var userId = matcher.group(1);
+    final var existing = users.get(userId);
+    if (existing == null) {
+      return new MockResponse().setResponseCode(404).setBody("User not found");
+    }
+    final var subPath = matcher.group(2);
+    if ("/role-mappings/realm".equals(subPath)) {
+      final var roleIds = roleMappings.computeIfAbsent(userId, _ -> ConcurrentHashMap.newKeySet());
+      parse(body).forEach(role -> roleIds.add(role.path("id").asText()));
+      return new MockResponse().setResponseCode(204);
+    }
+    if ("/reset-password".equals(subPath)) {
+      return new MockResponse().setResponseCode(204);
+    }
+    return switch (method) {
+      case "PUT" -> {
+        final var json = parse(body);
+        users.put(userId, new UserRepresentation(
+          userId,
+          json.path("username").asText(existing.username()),
+          json.path("email").asText(existing.email()),
+          json.path("firstName").asText(existing.firstName()),
+          json.path("lastName").asText(existing.lastName())
+        ));
+        yield new MockResponse().setResponseCode(204);
+      }
+      case "DELETE" -> {
+        users.remove(userId);
+        roleMappings.remove(userId);
+        yield new MockResponse().setResponseCode(204);
+      }
+      default -> json(existing);
+    };
+  }
+
+  private MockResponse signIn(final JsonNode json) {
+    final var username = json.path("username").asText();
+    if (exists(username)) {
+      return new MockResponse().setResponseCode(409).setBody("User exists with same username");
+    }
+    final var id = UUID.randomUUID().toString();
+    users.put(id, user(id, json));
+    return new MockResponse().setResponseCode(201).setHeader(LOCATION, "http://localhost" + USERS_PATH + "/" + id);
+  }
+
+  private PartialImportResultDTO partialImport(final JsonNode importData) {
+    final var roleIdsByName = roles.stream().collect(Collectors.toMap(RoleDTO::name, RoleDTO::id));
+    final var results = new ArrayList<PartialImportResultDTO.Result>();
+    int added = 0;
+    for (final var json : importData.path("users")) {
+      final var username = json.path("username").asText();
+      if (exists(username)) {
+        results.add(new PartialImportResultDTO.Result("SKIPPED", "USER", username, null));
+        continue;
+      }
+      final var id = UUID.randomUUID().toString();
+      users.put(id, user(id, json));
+      final var roleIds = roleMappings.computeIfAbsent(id, _ -> ConcurrentHashMap.newKeySet());
+      json.path("realmRoles").forEach(role -> {
+        final var roleId = roleIdsByName.get(role.asText());
+        if (roleId != null) {
+          roleIds.add(roleId);
+        }
+      });
+      results.add(new PartialImportResultDTO.Result("ADDED", "USER", username, id));
+      added++;
+    }
+    return new PartialImportResultDTO(added, results.size() - added, 0, results);
+  }
+
+  private static int intParameter(final HttpUrl url, final String name, final int defaultValue) {
+    final var value = url.queryParameter(name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  private boolean exists(final String username) {
+    return users.values().stream().anyMatch(existing -> existing.username().equals(username));
+  }
+
+  private static UserRepresentation user(final String id, final JsonNode json) {
+    return new UserRepresentation(
+      id,
+      json.path("username").asText(),
+      json.path("email").asText(),
+      json.path("firstName").asText(),
+      json.path("lastName").asText()
+    );
+  }
+
+  private static TokenDTO token() {
+    return new TokenDTO(UUID.randomUUID().toString(), 300, 1800, UUID.randomUUID().toString(),
+      TokenType.BEARER, 0, UUID.randomUUID().toString(), null, ScopeType.EMAIL_PROFILE);
+  }
+
+  /**
+   * Simuliert Netzwerklatenz und liefert, ob die Anfrage als Ausfall beantwortet werden soll.
+   */
+  private boolean simulateFailure() {
+    final var random = ThreadLocalRandom.current();
+    final var jitter = props.keycloakLatencyJitter().toNanos();
+    final var latency = props.keycloakLatency().toNanos() + (jitter > 0 ? random.nextLong(jitter) : 0);
+    if (latency > 0) {
+      LockSupport.parkNanos(latency);
+    }
+    return random.nextDouble() < props.keycloakErrorRate();
+  }
+
+  private MockResponse json(final Object body) {
+    try {
+      return new MockResponse()
+        .setHeader(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+        .setBody(objectMapper.writeValueAsString(body));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private JsonNode parse(final String json) {
+    try {
+      return objectMapper.readTree(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.omnixys.person.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.function.Supplier;
+
+/**
+ * Konfiguration für Lasttests ohne laufendes Keycloak und ohne Kafka-Broker.
+ * <p>
+ * Die Klassen liegen im Source-Set {@code loadtest} und gelangen nicht in das Produktions-JAR; gestartet wird
+ * mit {@code gradle bootRunLoadtest}. Ein {@link MockWebServer} mit dem {@link FakeKeycloakDispatcher} lauscht
+ * auf dem Port, den das echte {@code KeycloakRepository} anspricht ({@code KC_SERVICE_PORT}, Host
+ * {@code localhost}). Kafka-Nachrichten gehen an einen {@link MockProducer}, der jede Nachricht sofort
+ * bestätigt; Schlüssel und Werte werden mit den Serializern der angepassten Producer-Factory serialisiert.
+ * Nur MongoDB wird noch benötigt.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile(LoadTestConfig.LOADTEST)
+@EnableConfigurationProperties(LoadTestProps.class)
+public class LoadTestConfig {
+  public static final String LOADTEST = "loadtest";
+
+  @Bean(destroyMethod = "shutdown")
+  MockWebServer keycloakMockServer(final LoadTestProps props, final ObjectMapper objectMapper) throws IOException {
+    final var server = new MockWebServer();
+    server.setDispatcher(new FakeKeycloakDispatcher(props, objectMapper));
+    server.start(InetAddress.getLoopbackAddress(), props.keycloakPort());
+    return server;
+  }
+
+  /**
+   * Ersetzt das {@code KafkaTemplate}, behält aber die Serialisierung des Betriebs bei.
+   *
+   * @param kafkaProducerFactory Die per {@code DefaultKafkaProducerFactoryCustomizer} angepasste Producer-Factory.
+   * @return Template, das an einen {@link MockProducer} sendet.
+   */
+  @Bean
+  KafkaTemplate<String, Object> kafkaTemplate(final ProducerFactory<?, ?> kafkaProducerFactory) {
+    @SuppressWarnings("unchecked")
+    final var producerFactory = (ProducerFactory<String, Object>) kafkaProducerFactory;
+    final var config = producerFactory.getConfigurationProperties();
+    final Serializer<String> keySerializer = serializer(producerFactory.getKeySerializerSupplier(), StringSerializer::new);
+    final Serializer<Object> valueSerializer = serializer(producerFactory.getValueSerializerSupplier(), null);
+    keySerializer.configure(config, true);
+    valueSerializer.configure(config, false);
+    return new KafkaTemplate<>(new MockProducerFactory<String, Object>(
+      () -> new MockProducer<>(true, keySerializer, valueSerializer)
+    ));
+  }
+
+  private static <T> Serializer<T> serializer(final Supplier<Serializer<T>> supplier, final Supplier<Serializer<T>> fallback) {
+    final var serializer = supplier == null ? null : supplier.get();
+    if (serializer != null) {
+      return serializer;
+    }
+    if (fallback == null) {
+      throw new IllegalStateException("Die Producer-Factory liefert keinen Serializer");
+    }
+    return fallback.get();
+  }
+}
@@ -0,0 +1,30 @@
+package com.omnixys.person.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen der Stand-ins für Lasttests.
+ * <p>
+ * Geladen aus {@code app.loadtest} in `application-loadtest.yaml`.
+ * </p>
+ *
+ * @param keycloakLatency       Simulierte Grundlatenz je Keycloak-Aufruf.
+ * @param keycloakLatencyJitter Zusätzliche, gleichverteilte Zufallslatenz je Aufruf.
+ * @param keycloakErrorRate     Anteil der Aufrufe (0.0 – 1.0), die mit 503 fehlschlagen.
+ * @param keycloakPort          Port des nachgebildeten Keycloak; muss dem Port des {@code KeycloakRepository} entsprechen.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.loadtest")
+public record LoadTestProps(
+  @DefaultValue("20ms") Duration keycloakLatency,
+  @DefaultValue("10ms") Duration keycloakLatencyJitter,
+  @DefaultValue("0") double keycloakErrorRate,
+  @DefaultValue("18080") int keycloakPort
+) {
+}
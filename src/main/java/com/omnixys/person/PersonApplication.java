@@ -3,7 +3,10 @@ package com.omnixys.person;
 import com.omnixys.person.config.AppProperties;
 import com.omnixys.person.config.ApplicationConfig;
 import com.omnixys.person.dev.DevConfig;
+import com.omnixys.person.security.KeycloakHttpProps;
 import com.omnixys.person.security.KeycloakProps;
+import com.omnixys.person.security.KeycloakResilienceProps;
+import com.omnixys.person.tracing.LogShipperProps;
 import com.omnixys.person.utils.Env;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -13,6 +16,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.graphql.data.federation.FederationSchemaFactory;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
@@ -21,10 +25,11 @@ import static com.omnixys.person.utils.Banner.TEXT;
 
 @SpringBootApplication(proxyBeanMethods = false)
 @Import({ApplicationConfig.class, DevConfig.class})
-@EnableConfigurationProperties({KeycloakProps.class, AppProperties.class})
+@EnableConfigurationProperties({KeycloakProps.class, KeycloakHttpProps.class, KeycloakResilienceProps.class, LogShipperProps.class, AppProperties.class})
 @EnableWebSecurity
 @EnableMethodSecurity
 @EnableAsync
+@EnableScheduling
 @SuppressWarnings({"ClassUnconnectedToPackage"})
 public class PersonApplication{
 
@@ -0,0 +1,41 @@
+package com.omnixys.person.config;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Übernimmt den HTTP-Header {@code Idempotency-Key} in den GraphQL-Kontext.
+ * <p>
+ * Resolver können den Key anschließend per {@code @ContextValue} auslesen.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+public class IdempotencyKeyInterceptor implements WebGraphQlInterceptor {
+
+  /** Name des HTTP-Headers. */
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+  /** Name des Eintrags im GraphQL-Kontext. */
+  public static final String IDEMPOTENCY_KEY = "idempotencyKey";
+
+  @Override
+  @NonNull
+  public Mono<WebGraphQlResponse> intercept(@NonNull final WebGraphQlRequest request, @NonNull final Chain chain) {
+    final var key = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+    if (key != null && !key.isBlank()) {
+      request.configureExecutionInput((input, builder) ->
+          builder.graphQLContext(Map.of(IDEMPOTENCY_KEY, key)).build());
+    }
+    return chain.next(request);
+  }
+}
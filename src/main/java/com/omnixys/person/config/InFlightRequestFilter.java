@@ -0,0 +1,135 @@
+package com.omnixys.person.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Zählt laufende Anfragen und weist neue ab, sobald der Service entleert wird.
+ * <p>
+ * Nach {@link #startDraining()} antworten alle Anfragen außer {@code /actuator/**} mit {@code 503} und
+ * {@code Retry-After}, damit der Client bzw. das Gateway eine andere Instanz wählt. Bereits laufende
+ * Anfragen werden zu Ende bearbeitet; {@link #inFlight()} liefert ihre Anzahl.
+ * </p>
+ * <p>
+ * Spring GraphQL beantwortet Anfragen asynchron: der Filter-Durchlauf endet, bevor die Antwort geschrieben ist,
+ * und der Async-Dispatch wird von {@link OncePerRequestFilter} übersprungen. Für solche Anfragen zählt ein
+ * {@link AsyncListener} erst herunter, wenn die Anfrage abgeschlossen, fehlgeschlagen oder abgelaufen ist.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile boolean draining;
+
+  /**
+   * Ab jetzt werden neue Anfragen abgewiesen.
+   */
+  public void startDraining() {
+    draining = true;
+  }
+
+  /**
+   * @return Anzahl der laufenden Anfragen.
+   */
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull final HttpServletRequest request) {
+    // Probes und Metriken müssen auch während des Entleerens erreichbar bleiben
+    return request.getRequestURI().startsWith("/actuator");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull final HttpServletRequest request,
+      @NonNull final HttpServletResponse response,
+      @NonNull final FilterChain filterChain
+  ) throws ServletException, IOException {
+    if (draining) {
+      reject(response);
+      return;
+    }
+    inFlight.incrementAndGet();
+    var async = false;
+    try {
+      // Erneut prüfen: startDraining() kann zwischen der Prüfung und dem Hochzählen erfolgt sein
+      if (draining) {
+        reject(response);
+        return;
+      }
+      filterChain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new CompletionListener());
+        async = true;
+      }
+    } finally {
+      if (!async) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Zählt eine asynchrone Anfrage genau einmal herunter; nach einem Timeout oder Fehler folgt meist noch
+   * {@code onComplete}.
+   */
+  private final class CompletionListener implements AsyncListener {
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    @Override
+    public void onComplete(final AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onTimeout(final AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onError(final AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onStartAsync(final AsyncEvent event) {
+      // Ein erneutes startAsync() liefert einen neuen AsyncContext ohne diesen Listener
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void release() {
+      if (done.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private static void reject(final HttpServletResponse response) {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setHeader(HttpHeaders.CONNECTION, "close");
+  }
+}
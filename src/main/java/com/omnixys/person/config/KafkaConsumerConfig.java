@@ -0,0 +1,73 @@
+package com.omnixys.person.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+
+/**
+ * Diese Schnittstelle definiert die Listener-Container für eingehende Kafka-Nachrichten in Batches.
+ * <p>
+ * Der Container {@code personUpsertContainerFactory} liefert bis zu {@code max-poll-records} Nachrichten
+ * je Aufruf und bestätigt Offsets nur manuell. Wirft der Listener, wiederholt der Error-Handler den Batch
+ * mit exponentiellem Backoff, ohne die Offsets weiterzuschieben.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+sealed interface KafkaConsumerConfig permits ApplicationConfig {
+
+  /**
+   * Container-Factory für den Batch-Listener auf {@code person.upsert}.
+   *
+   * @param kafkaProperties Die Kafka-Einstellungen aus {@code spring.kafka}.
+   * @param meterRegistry Registry für die Client-Metriken (u.a. {@code records-lag-max}).
+   * @param maxPollRecords {@code app.kafka.upsert.max-poll-records}: maximale Batch-Größe.
+   * @param concurrency {@code app.kafka.upsert.concurrency}: Anzahl der Consumer-Threads.
+   * @param backoffInitial {@code app.kafka.upsert.backoff-initial}: erste Wartezeit vor einer Wiederholung.
+   * @param backoffMax {@code app.kafka.upsert.backoff-max}: längste Wartezeit vor einer Wiederholung.
+   * @return Die Container-Factory.
+   */
+  @Bean
+  default ConcurrentKafkaListenerContainerFactory<String, String> personUpsertContainerFactory(
+      final KafkaProperties kafkaProperties,
+      final MeterRegistry meterRegistry,
+      @Value("${app.kafka.upsert.max-poll-records:500}") final int maxPollRecords,
+      @Value("${app.kafka.upsert.concurrency:3}") final int concurrency,
+      @Value("${app.kafka.upsert.backoff-initial:1s}") final Duration backoffInitial,
+      @Value("${app.kafka.upsert.backoff-max:30s}") final Duration backoffMax
+  ) {
+    final var properties = kafkaProperties.buildConsumerProperties(null);
+    properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+    final var consumerFactory = new DefaultKafkaConsumerFactory<String, String>(properties);
+    consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+    final var backOff = new ExponentialBackOff(backoffInitial.toMillis(), 2.0);
+    backOff.setMaxInterval(backoffMax.toMillis());
+
+    final var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    factory.setConcurrency(concurrency);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.getContainerProperties().setObservationEnabled(true);
+    factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+    return factory;
+  }
+}
@@ -0,0 +1,71 @@
+package com.omnixys.person.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.person.messaging.AvroEventSerializer;
+import com.omnixys.person.messaging.LocalSchemaRegistry;
+import com.omnixys.person.messaging.TopicRoutingSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_PERSON_SNAPSHOT;
+
+/**
+ * Diese Schnittstelle definiert die Serialisierung und Topics der ausgehenden Kafka-Nachrichten.
+ * <p>
+ * Der Producer erhält einen {@link TopicRoutingSerializer}, der je Topic zwischen JSON und Avro wählt.
+ * Außerdem wird das kompaktierte Topic {@code person.snapshot} angelegt.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+sealed interface KafkaProducerConfig permits ApplicationConfig {
+
+  /**
+   * Setzt den Serializer für die Werte der Kafka-Nachrichten.
+   *
+   * @param schemaRegistry Lokale Schema-Registry für die Avro-Topics.
+   * @param objectMapper Jackson-Mapper für die Umwandlung der Events.
+   * @param meterRegistry Registry für Größen- und Zeitmetriken.
+   * @param avroEnabled {@code app.kafka.avro.enabled}: Avro für die Topics aus {@code KafkaTopicProperties.TOPIC_ENCODINGS}.
+   * @param compareWithJson {@code app.kafka.avro.compare-with-json}: zusätzlich die JSON-Größe messen.
+   * @return Customizer für die Producer-Factory.
+   */
+  @Bean
+  default DefaultKafkaProducerFactoryCustomizer valueSerializerCustomizer(
+      final LocalSchemaRegistry schemaRegistry,
+      final ObjectMapper objectMapper,
+      final MeterRegistry meterRegistry,
+      @Value("${app.kafka.avro.enabled:false}") final boolean avroEnabled,
+      @Value("${app.kafka.avro.compare-with-json:false}") final boolean compareWithJson
+  ) {
+    final var avroSerializer = new AvroEventSerializer(schemaRegistry, objectMapper);
+    return producerFactory -> {
+      @SuppressWarnings("unchecked")
+      final var factory = (DefaultKafkaProducerFactory<String, Object>) producerFactory;
+      factory.setValueSerializerSupplier(
+          () -> new TopicRoutingSerializer(avroSerializer, avroEnabled, compareWithJson, meterRegistry)
+      );
+    };
+  }
+
+  /**
+   * Legt das kompaktierte Topic {@code person.snapshot} an, falls es noch nicht existiert.
+   *
+   * @param partitions {@code app.kafka.snapshot.partitions}: Anzahl der Partitionen.
+   * @return Die Topic-Definition für den {@code KafkaAdmin}.
+   */
+  @Bean
+  default NewTopic personSnapshotTopic(@Value("${app.kafka.snapshot.partitions:6}") final int partitions) {
+    return TopicBuilder.name(TOPIC_PERSON_SNAPSHOT)
+        .partitions(partitions)
+        .compact()
+        .build();
+  }
+}
@@ -1,14 +1,29 @@
 package com.omnixys.person.config;
 
+import com.omnixys.person.security.KeycloakHttpProps;
 import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.KeycloakResilienceProps;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.http.HttpClient;
+
 /**
  * Diese Schnittstelle definiert die Konfiguration für den Zugriff auf einen Keycloak-Server.
  * Sie stellt eine Methode zur Verfügung, um eine REST-Client-Schnittstelle für die Keycloak-Integration zu erzeugen.
@@ -28,10 +43,18 @@ sealed interface KeycloakClientConfig permits ApplicationConfig {
    * Erstellt und konfiguriert eine Instanz des Keycloak-Repository-Clients.
    *
    * @param clientBuilder Builder-Objekt für den REST-Client.
-   * @return Eine konfigurierte Instanz des `KeycloakRepository`.
+   * @param keycloakRequestFactory Request-Factory mit Verbindungspool.
+   * @param resilienceProps Einstellungen für Circuit-Breaker und Bulkhead.
+   * @param meterRegistry Registry für die Resilience-Metriken.
+   * @return Eine konfigurierte, per Circuit-Breaker und Bulkhead abgesicherte Instanz des `KeycloakRepository`.
    */
   @Bean
-  default KeycloakRepository keycloakRepository(final RestClient.Builder clientBuilder) {
+  default KeycloakRepository keycloakRepository(
+      final RestClient.Builder clientBuilder,
+      final ClientHttpRequestFactory keycloakRequestFactory,
+      final KeycloakResilienceProps resilienceProps,
+      final MeterRegistry meterRegistry
+  ) {
     final var kcDefaultPort = 18080;
     final var kcSchemaEnv = System.getenv("KC_SERVICE_SCHEMA");
     final var kcHostEnv = System.getenv("KC_SERVICE_HOST");
@@ -55,10 +78,65 @@ sealed interface KeycloakClientConfig permits ApplicationConfig {
 
     LOGGER.debug("KeycloakRepository: baseUri={}", baseUri);
 
-    final var restClient = clientBuilder.baseUrl(baseUri.toUriString()).build();
+    // Der vom Framework bereitgestellte Builder ist bereits mit der ObservationRegistry verbunden:
+    // Latenzen je Endpunkt erscheinen als http.client.requests mit dem URI-Template als Tag
+    final var restClient = clientBuilder
+        .baseUrl(baseUri.toUriString())
+        .requestFactory(keycloakRequestFactory)
+        .build();
     final var clientAdapter = RestClientAdapter.create(restClient);
     final var proxyFactory = HttpServiceProxyFactory.builderFor(clientAdapter).build();
 
-    return proxyFactory.createClient(KeycloakRepository.class);
+    final var client = proxyFactory.createClient(KeycloakRepository.class);
+    return new KeycloakResilience(resilienceProps, meterRegistry).decorate(client);
+  }
+
+  /**
+   * Erstellt die Request-Factory für Keycloak mit Verbindungspool, Timeouts und Pool-Metriken.
+   * <p>
+   * Standardmäßig wird ein Apache-Verbindungspool verwendet, damit Registrierungswellen warme
+   * (TLS-)Verbindungen wiederverwenden. Mit {@code app.keycloak.http.http2=true} wird stattdessen der
+   * JDK-HttpClient mit HTTP/2 verwendet, der alle Anfragen über eine Verbindung multiplext.
+   * </p>
+   *
+   * @param props         Einstellungen aus {@code app.keycloak.http}.
+   * @param meterRegistry Registry für die Pool-Metriken ({@code httpcomponents.httpclient.pool.*}).
+   * @return Die Request-Factory.
+   */
+  @Bean
+  default ClientHttpRequestFactory keycloakRequestFactory(final KeycloakHttpProps props, final MeterRegistry meterRegistry) {
+    if (props.http2()) {
+      final var httpClient = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_2)
+          .connectTimeout(props.connectTimeout())
+          .build();
+      final var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+      requestFactory.setReadTimeout(props.readTimeout());
+      LOGGER.debug("keycloakRequestFactory: JDK-HttpClient mit HTTP/2");
+      return requestFactory;
+    }
+
+    final var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(props.maxConnections())
+        .setMaxConnPerRoute(props.maxConnectionsPerRoute())
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(props.connectTimeout()))
+            .setSocketTimeout(Timeout.of(props.readTimeout()))
+            .setTimeToLive(TimeValue.of(props.timeToLive()))
+            .build())
+        .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "keycloak").bindTo(meterRegistry);
+
+    final var httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(props.connectionRequestTimeout()))
+            .setResponseTimeout(Timeout.of(props.readTimeout()))
+            .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(props.idleTimeout()))
+        .build();
+    LOGGER.debug("keycloakRequestFactory: Verbindungspool max={}, maxPerRoute={}", props.maxConnections(), props.maxConnectionsPerRoute());
+    return new HttpComponentsClientHttpRequestFactory(httpClient);
   }
 }
@@ -0,0 +1,96 @@
+package com.omnixys.person.config;
+
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.KeycloakResilienceProps;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+
+/**
+ * Umhüllt das {@link KeycloakRepository} mit einem Circuit-Breaker und einem Bulkhead je Operation.
+ * <p>
+ * Jede Methode des Repositories erhält eigene Instanzen mit dem Namen {@code keycloak-<methode>}.
+ * Ein langsames oder ausgefallenes Keycloak blockiert dadurch höchstens {@code maxConcurrentCalls}
+ * Threads je Operation und wird bei offenem Circuit sofort mit einer
+ * {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} abgewiesen.
+ * Client-Fehler (4xx) zählen nicht als Ausfall.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+final class KeycloakResilience {
+
+  private static final String NAME_PREFIX = "keycloak-";
+
+  private final CircuitBreakerRegistry circuitBreakerRegistry;
+  private final BulkheadRegistry bulkheadRegistry;
+
+  KeycloakResilience(final KeycloakResilienceProps props, final MeterRegistry meterRegistry) {
+    circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+        .failureRateThreshold(props.failureRateThreshold())
+        .slowCallRateThreshold(props.slowCallRateThreshold())
+        .slowCallDurationThreshold(props.slowCallDuration())
+        .slidingWindowSize(props.slidingWindowSize())
+        .minimumNumberOfCalls(props.minimumNumberOfCalls())
+        .waitDurationInOpenState(props.waitDurationInOpenState())
+        .automaticTransitionFromOpenToHalfOpenEnabled(true)
+        .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+        .build());
+    bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxConcurrentCalls(props.maxConcurrentCalls())
+        .maxWaitDuration(props.maxWaitDuration())
+        .build());
+
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+  }
+
+  /**
+   * Liefert einen Proxy, der jeden Aufruf durch Circuit-Breaker und Bulkhead der jeweiligen Operation leitet.
+   *
+   * @param delegate Das eigentliche Repository.
+   * @return Das abgesicherte Repository.
+   */
+  KeycloakRepository decorate(final KeycloakRepository delegate) {
+    return (KeycloakRepository) Proxy.newProxyInstance(
+        KeycloakRepository.class.getClassLoader(),
+        new Class<?>[]{KeycloakRepository.class},
+        (proxy, method, args) -> {
+          if (method.getDeclaringClass() == Object.class) {
+            return invoke(delegate, method, args);
+          }
+          final var name = NAME_PREFIX + method.getName();
+          final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+          final Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+          final Callable<Object> call = () -> invoke(delegate, method, args);
+          return CircuitBreaker.decorateCallable(circuitBreaker, Bulkhead.decorateCallable(bulkhead, call)).call();
+        }
+    );
+  }
+
+  private static Object invoke(final Object target, final Method method, final Object[] args) throws Exception {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -7,6 +7,8 @@ import org.bson.UuidRepresentation;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 
 /**
  * Diese Klasse enthält die Konfigurationseinstellungen für die MongoDB-Datenbankverbindung.
@@ -38,4 +40,19 @@ public class MongoConfig {
             .build();
         return MongoClients.create(settings);
     }
+
+    /**
+     * Transaktionsmanager für MongoDB-Transaktionen (setzt ein Replica-Set voraus).
+     * <p>
+     * Ermöglicht z.B. das Löschen einer Person, ihrer Kontakte und das Einreihen der
+     * Outbox-Aufgaben in einer einzigen Transaktion.
+     * </p>
+     *
+     * @param databaseFactory Die MongoDB-Datenbank-Factory.
+     * @return Der Transaktionsmanager.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(final MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
 }
@@ -0,0 +1,67 @@
+package com.omnixys.person.config;
+
+import com.omnixys.person.models.entities.IdempotencyRecord;
+import com.omnixys.person.models.entities.OutboxTask;
+import com.omnixys.person.models.entities.Person;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+
+/**
+ * Legt die Indizes an, auf die sich der Service verlässt.
+ * <p>
+ * Statt {@code spring.data.mongodb.auto-index-creation} stehen alle Indizes an einer Stelle und werden beim
+ * Start angelegt, bevor Anfragen angenommen werden. Ein vorhandener Index mit gleicher Definition bleibt
+ * unverändert. Die Namen entsprechen denen der früheren automatischen Anlage, damit bestehende Datenbanken
+ * keinen Konflikt melden.
+ * </p>
+ * <ul>
+ *   <li>{@code persons}: eindeutige Indizes auf {@code email} und {@code username}; sie ersetzen die
+ *   exists-Abfragen beim Anlegen.</li>
+ *   <li>{@code outbox_tasks}: {@code nextAttemptAt} für das Beanspruchen fälliger Aufgaben.</li>
+ *   <li>{@code idempotency_keys}: TTL von 24 Stunden auf {@code created}.</li>
+ * </ul>
+ * <p>
+ * {@code leases}, {@code change_stream_tokens} und {@code import_jobs} werden nur über {@code _id} gelesen.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+    /**
+     * Aufbewahrungsdauer der Idempotency-Keys.
+     */
+    private static final Duration IDEMPOTENCY_TTL = Duration.ofHours(24);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void ensureIndexes() {
+        final var persons = mongoTemplate.indexOps(Person.class);
+        persons.ensureIndex(new Index().on("email", ASC).unique().named("email"));
+        persons.ensureIndex(new Index().on("username", ASC).unique().named("username"));
+
+        mongoTemplate.indexOps(OutboxTask.class)
+            .ensureIndex(new Index().on("nextAttemptAt", ASC).named("nextAttemptAt"));
+
+        mongoTemplate.indexOps(IdempotencyRecord.class)
+            .ensureIndex(new Index().on("created", ASC).expire(IDEMPOTENCY_TTL).named("created"));
+
+        LOGGER.debug("ensureIndexes: Indizes für persons, outbox_tasks und idempotency_keys geprüft");
+    }
+}
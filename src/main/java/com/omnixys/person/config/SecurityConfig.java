@@ -55,6 +55,9 @@ sealed interface SecurityConfig permits ApplicationConfig {
               .requestMatchers(GET, "/v3/api-docs.yaml", "/v3/api-docs", "/graphiql").permitAll()
               .requestMatchers("/error", "/error/**").permitAll()
 
+              // Actuator: Endpunkte, die den Betrieb verändern, nur für Administratoren
+              .requestMatchers(EndpointRequest.to("personsnapshot", "logshipper", "keycloakroles")).hasRole("ADMIN")
+
               .anyRequest().authenticated();
         })
         //.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
@@ -0,0 +1,32 @@
+package com.omnixys.person.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn ein Idempotency-Key nicht wiederverwendet werden darf.
+ * <p>
+ * Das ist der Fall, wenn der Key mit einer abweichenden Anfrage verwendet wird oder die
+ * ursprüngliche Anfrage noch verarbeitet wird.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Getter
+public class IdempotencyConflictException extends RuntimeException {
+
+  /** Der betroffene Idempotency-Key. */
+  private final String idempotencyKey;
+
+  /**
+   * Erstellt eine neue `IdempotencyConflictException`.
+   *
+   * @param idempotencyKey Der betroffene Idempotency-Key.
+   * @param reason         Der Grund des Konflikts.
+   */
+  public IdempotencyConflictException(final String idempotencyKey, final String reason) {
+    super(String.format("Idempotency-Key '%s': %s", idempotencyKey, reason));
+    this.idempotencyKey = idempotencyKey;
+  }
+}
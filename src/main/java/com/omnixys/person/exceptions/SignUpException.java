@@ -1,5 +1,6 @@
 package com.omnixys.person.exceptions;
 
+import lombok.Getter;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -15,14 +16,31 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * @author Caleb Gyamfi
  */
 @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+@Getter
 public class SignUpException extends RuntimeException {
 
+  /**
+   * ID eines bereits angelegten Keycloak-Benutzers, der nicht wieder gelöscht werden konnte; sonst {@code null}.
+   */
+  private final String keycloakId;
+
   /**
    * Erstellt eine neue {@code SignUpException} mit einer bestimmten Fehlermeldung.
    *
    * @param message Die Detailnachricht, die den Grund der Ausnahme erklärt.
    */
   public SignUpException(final String message) {
+    this(message, null);
+  }
+
+  /**
+   * Erstellt eine neue {@code SignUpException} für einen Benutzer, der in Keycloak zurückgeblieben ist.
+   *
+   * @param message    Die Detailnachricht, die den Grund der Ausnahme erklärt.
+   * @param keycloakId ID des zurückgebliebenen Keycloak-Benutzers oder {@code null}.
+   */
+  public SignUpException(final String message, final String keycloakId) {
     super(message);
+    this.keycloakId = keycloakId;
   }
 }
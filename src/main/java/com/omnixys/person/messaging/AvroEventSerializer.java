@@ -0,0 +1,132 @@
+package com.omnixys.person.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialisiert Events im Avro-Binärformat mit dem Schema des Topics aus der {@link LocalSchemaRegistry}.
+ * <p>
+ * Das Event wird zunächst mit Jackson in eine Map überführt und dann anhand des Schemas in einen
+ * {@link GenericRecord} übertragen. Generierte Klassen sind dadurch nicht nötig; die DTOs bleiben
+ * unverändert. Format: Magic-Byte {@code 0}, Schema-ID (4 Byte, Big Endian), Avro-Binärdaten.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+public class AvroEventSerializer implements Serializer<Object> {
+
+    private static final byte MAGIC_BYTE = 0;
+
+    private final LocalSchemaRegistry schemaRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, GenericDatumWriter<GenericRecord>> writers = new ConcurrentHashMap<>();
+
+    public AvroEventSerializer(final LocalSchemaRegistry schemaRegistry, final ObjectMapper objectMapper) {
+        this.schemaRegistry = schemaRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Object data) {
+        if (data == null) {
+            return null;
+        }
+        final var registered = schemaRegistry.forTopic(topic)
+            .orElseThrow(() -> new SerializationException("Kein Avro-Schema für Topic " + topic));
+
+        final var out = new ByteArrayOutputStream(256);
+        out.write(MAGIC_BYTE);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(registered.id()).array());
+
+        // Direkt in den Puffer, ohne eigenen Encoder-Puffer: die Nachrichten sind klein
+        final var encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        try {
+            final var record = (GenericRecord) convert(objectMapper.convertValue(data, Map.class), registered.schema());
+            writers.computeIfAbsent(registered.id(), _ -> new GenericDatumWriter<>(registered.schema()))
+                .write(record, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Avro-Serialisierung für Topic " + topic + " fehlgeschlagen", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Überträgt einen mit Jackson erzeugten Wert in die Avro-Darstellung des Schemas.
+     */
+    private static Object convert(final Object value, final Schema schema) {
+        return switch (schema.getType()) {
+            case NULL -> null;
+            case UNION -> convertUnion(value, schema);
+            case RECORD -> {
+                final var map = (Map<?, ?>) value;
+                final var record = new GenericData.Record(schema);
+                schema.getFields().forEach(field -> record.put(field.pos(), convert(map.get(field.name()), field.schema())));
+                yield record;
+            }
+            case STRING -> String.valueOf(value);
+            case LONG -> schema.getLogicalType() instanceof LogicalTypes.TimestampMillis ? toEpochMillis(value) : ((Number) value).longValue();
+            case INT -> ((Number) value).intValue();
+            case DOUBLE -> ((Number) value).doubleValue();
+            case FLOAT -> ((Number) value).floatValue();
+            case BOOLEAN -> (Boolean) value;
+            case ENUM -> new GenericData.EnumSymbol(schema, String.valueOf(value));
+            case ARRAY -> {
+                final var items = new ArrayList<>();
+                ((Collection<?>) value).forEach(item -> items.add(convert(item, schema.getElementType())));
+                yield items;
+            }
+            case MAP -> {
+                final var entries = new HashMap<String, Object>();
+                ((Map<?, ?>) value).forEach((k, v) -> entries.put(String.valueOf(k), convert(v, schema.getValueType())));
+                yield entries;
+            }
+            default -> throw new IllegalArgumentException("Nicht unterstützter Avro-Typ: " + schema.getType());
+        };
+    }
+
+    private static Object convertUnion(final Object value, final Schema schema) {
+        for (final var branch : schema.getTypes()) {
+            if (value == null && branch.getType() == Schema.Type.NULL) {
+                return null;
+            }
+            if (value != null && branch.getType() != Schema.Type.NULL) {
+                return convert(value, branch);
+            }
+        }
+        throw new IllegalArgumentException("Kein passender Union-Zweig für " + value);
+    }
+
+    private static long toEpochMillis(final Object value) {
+        if (value instanceof Number number) {
+            // Jackson schreibt Instants je nach Konfiguration als Sekunden mit Nachkommastellen
+            return number instanceof Double || number instanceof Float
+                ? Math.round(number.doubleValue() * 1000)
+                : number.longValue();
+        }
+        final var text = String.valueOf(value);
+        return text.endsWith("Z") || text.contains("+")
+            ? Instant.parse(text).toEpochMilli()
+            : LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
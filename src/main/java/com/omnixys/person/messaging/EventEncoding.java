@@ -0,0 +1,20 @@
+package com.omnixys.person.messaging;
+
+/**
+ * Kodierung des Nachrichteninhalts eines Kafka-Topics.
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+public enum EventEncoding {
+
+    /**
+     * JSON über Springs {@code JsonSerializer}.
+     */
+    JSON,
+
+    /**
+     * Avro-Binärformat mit vorangestelltem Magic-Byte und Schema-ID aus der {@link LocalSchemaRegistry}.
+     */
+    AVRO
+}
@@ -1,12 +1,11 @@
 package com.omnixys.person.messaging;
 
+import com.omnixys.person.services.GracefulDrainService;
 import com.omnixys.person.tracing.LoggerPlus;
 import com.omnixys.person.tracing.LoggerPlusFactory;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
@@ -30,7 +29,7 @@ import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_PERSON_STA
 @Service
 @RequiredArgsConstructor
 public class KafkaConsumerService {
-    private final ApplicationContext context;
+    private final GracefulDrainService gracefulDrainService;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
@@ -77,18 +76,14 @@ public class KafkaConsumerService {
     }
 
     private void shutdown() {
-        try {
-            logger().info("→ Anwendung wird heruntergefahren (Shutdown-Kommando).");
-            ((ConfigurableApplicationContext) context).close();
-        } catch (Exception e) {
-            logger().error("Fehler beim Shutdown: {}", e.getMessage(), e);
-        }
+        logger().info("→ Anwendung wird heruntergefahren (Shutdown-Kommando).");
+        gracefulDrainService.drainAndClose("shutdown");
     }
 
 
     private void restart() {
         logger().info("→ Anwendung wird neugestartet (Restart-Kommando).");
-        ((ConfigurableApplicationContext) context).close();
+        gracefulDrainService.drainAndClose("restart");
         // Neustart durch externen Supervisor erwartet
     }
 }
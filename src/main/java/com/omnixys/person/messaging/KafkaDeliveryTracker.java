@@ -0,0 +1,153 @@
+package com.omnixys.person.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Versendet Kafka-Records und verfolgt deren Zustellung.
+ * <p>
+ * Für jeden Record wird asynchron auf die Bestätigung des Brokers gewartet. Die Dauer bis zur Bestätigung
+ * wird je Topic als {@code kafka.publish} (Tag {@code result} = {@code success} oder {@code failure})
+ * gemessen. Records, die mit einem vorübergehenden Fehler scheitern (z.B. {@code delivery.timeout.ms}
+ * überschritten), werden in den {@link KafkaSpool} auf der Platte geschrieben und vom
+ * {@link KafkaSpoolReplayer} zugestellt, sobald der Broker wieder erreichbar ist ({@code kafka.publish.spooled}).
+ * Ab dem ersten so gescheiterten Record und solange der Spool nicht leer ist, gehen auch neue Records direkt
+ * dorthin, sodass kein Request-Thread auf einen nicht erreichbaren Broker wartet.
+ * </p>
+ * <p>
+ * Die Zustellung ist mindestens einmal, die Reihenfolge je Schlüssel ist bei einem Ausfall nicht garantiert:
+ * Records, die beim Ausfall noch im Puffer des Producers lagen, scheitern erst nach {@code delivery.timeout.ms}
+ * und landen im Spool hinter Records, die in der Zwischenzeit bereits dort abgelegt wurden. Ebenso kann ein
+ * solcher Record doch noch zugestellt werden, während ältere aus dem Spool erneut gesendet werden. Konsumenten
+ * erkennen Duplikate an der Event-ID und veraltete Stände an der Version der Person.
+ * </p>
+ * <p>
+ * Verworfene Records (Spool voll oder nicht wiederholbarer Fehler) werden als {@code kafka.publish.dropped}
+ * gezählt und mit Topic und Schlüssel protokolliert.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KafkaDeliveryTracker {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaSpool kafkaSpool;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
+
+    private record TopicMeters(Timer success, Timer failure, Counter spooled, Counter dropped) {}
+
+    /**
+     * Sendet den Record und registriert den Callback für die Zustellung. Kehrt sofort zurück.
+     *
+     * @param record Der zu sendende Record.
+     */
+    public void send(final ProducerRecord<String, Object> record) {
+        final var topicMeters = meters(record.topic());
+        if (!kafkaSpool.isEmpty()) {
+            // Der Broker war zuletzt nicht erreichbar: hinter die wartenden Records einreihen
+            spool(record, topicMeters);
+            return;
+        }
+        final long start = System.nanoTime();
+
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // z.B. Serialisierungsfehler oder max.block.ms überschritten
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((result, ex) -> {
+            final var elapsed = System.nanoTime() - start;
+            if (ex == null) {
+                topicMeters.success().record(elapsed, NANOSECONDS);
+                final var metadata = result.getRecordMetadata();
+                log.debug("📤 Kafka-Event zugestellt: topic={}, partition={}, offset={}",
+                    metadata.topic(), metadata.partition(), metadata.offset());
+                return;
+            }
+            topicMeters.failure().record(elapsed, NANOSECONDS);
+            handleFailure(record, ex, topicMeters);
+        });
+    }
+
+    private void handleFailure(final ProducerRecord<String, Object> record, final Throwable ex, final TopicMeters topicMeters) {
+        if (!isRetriable(ex)) {
+            drop(record, topicMeters, "nicht wiederholbarer Fehler: " + ex.getMessage());
+            return;
+        }
+        if (spool(record, topicMeters)) {
+            log.warn("⚠️ Kafka send fehlgeschlagen, Event im Spool abgelegt: topic={}, key={}: {}",
+                record.topic(), record.key(), ex.getMessage());
+        }
+    }
+
+    private boolean spool(final ProducerRecord<String, Object> record, final TopicMeters topicMeters) {
+        if (!kafkaSpool.append(record)) {
+            drop(record, topicMeters, "Spool voll");
+            return false;
+        }
+        topicMeters.spooled().increment();
+        return true;
+    }
+
+    private static void drop(final ProducerRecord<String, Object> record, final TopicMeters topicMeters, final String reason) {
+        topicMeters.dropped().increment();
+        log.error("❌ Kafka-Event verworfen: topic={}, key={}, grund={}", record.topic(), record.key(), reason);
+    }
+
+    static boolean isRetriable(final Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TopicMeters meters(final String topic) {
+        return meters.computeIfAbsent(topic, t -> new TopicMeters(
+            timer(t, "success"),
+            timer(t, "failure"),
+            counter("kafka.publish.spooled", t, "Im Spool abgelegte Kafka-Records"),
+            counter("kafka.publish.dropped", t, "Verworfene Kafka-Records")
+        ));
+    }
+
+    private Timer timer(final String topic, final String result) {
+        return Timer.builder("kafka.publish")
+            .description("Dauer bis zur Bestätigung durch den Broker")
+            .tag("topic", topic)
+            .tag("result", result)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    private Counter counter(final String name, final String topic, final String description) {
+        return Counter.builder(name)
+            .description(description)
+            .tag("topic", topic)
+            .register(meterRegistry);
+    }
+}
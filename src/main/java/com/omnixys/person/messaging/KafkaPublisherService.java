@@ -1,13 +1,15 @@
 package com.omnixys.person.messaging;
 
-import com.omnixys.person.config.AppProperties;
 import com.omnixys.person.models.events.CreateAccountDTO;
 import com.omnixys.person.models.events.DeleteAccountDTO;
+import com.omnixys.person.models.events.KpiSummaryDTO;
 import com.omnixys.person.models.events.LogDTO;
+import com.omnixys.person.models.events.PersonChangedEvent;
+import com.omnixys.person.models.events.PersonSnapshot;
 import com.omnixys.person.models.events.SendMailEvent;
 import com.omnixys.person.models.events.ShoppingCartDTO;
 import com.omnixys.person.models.entities.Person;
-import com.omnixys.person.tracing.TraceContextUtil;
+import com.omnixys.person.models.enums.KpiType;
 import io.micrometer.observation.annotation.Observed;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
@@ -19,13 +21,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.Headers;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 import static com.omnixys.person.messaging.KafkaTopicProperties.*;
@@ -35,36 +34,37 @@ import static com.omnixys.person.messaging.KafkaTopicProperties.*;
 @RequiredArgsConstructor
 public class KafkaPublisherService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaDeliveryTracker kafkaDeliveryTracker;
     private final Tracer tracer;
     private final KafkaUtilService kafkaUtilService;
-    private final AppProperties appProperties;
 
     /**
-     * Versendet ein Logging-Event an das zentrale Logging-System via Kafka.
+     * Versendet mehrere Logging-Events an das zentrale Logging-System via Kafka.
+     * <p>
+     * Wird vom {@code LogShipper} im Hintergrund aufgerufen, nie auf dem Request-Thread. Jedes Event bleibt ein
+     * eigener Record auf {@code logstream.log.person}; gebündelt wird vom Producer ({@code linger.ms},
+     * {@code batch.size}), sodass sich für die Konsumenten nichts ändert. Alle Records teilen sich einen Span.
+     * </p>
      *
-     * @param level   z.B. INFO, WARN, DEBUG, ERROR
-     * @param message Die zu loggende Nachricht
-     * @param context Kontext wie Klassen- oder Methodenname
+     * @param entries Die Log-Events
      */
-    @Observed(name = "kafka-publisher.log")
-    public void log(String level, String message, String serviceName, String context) {
-        SpanContext spanContext = Span.current().getSpanContext();
-
-        final var event = new LogDTO(
-            UUID.randomUUID(),
-            Instant.now(),
-            level,
-            message,
-            serviceName,
-            context,
-            spanContext.isValid() ? spanContext.getTraceId() : null,
-            spanContext.isValid() ? spanContext.getSpanId() : null,
-            TraceContextUtil.getUsernameOrNull(), // eigene Util-Methode
-            appProperties.getEnv() // ← z.B. „dev“, „prod“
-        );
-
-        sendKafkaEvent(TOPIC_LOG_STREAM_LOG_PERSON, event, "log");
+    public void logBatch(List<LogDTO> entries) {
+        Span kafkaSpan = startSpan(TOPIC_LOG_STREAM_LOG_PERSON, "log");
+        try (Scope scope = kafkaSpan.makeCurrent()) {
+            assert scope != null;
+            final var spanContext = kafkaSpan.getSpanContext();
+            for (final var entry : entries) {
+                final var headers = kafkaUtilService.buildStandardHeaders(TOPIC_LOG_STREAM_LOG_PERSON, "log", spanContext);
+                kafkaDeliveryTracker.send(new ProducerRecord<>(TOPIC_LOG_STREAM_LOG_PERSON, null, null, null, entry, headers));
+            }
+            kafkaSpan.setAttribute("messaging.batch.message_count", entries.size());
+        } catch (Exception e) {
+            kafkaSpan.recordException(e);
+            kafkaSpan.setStatus(StatusCode.ERROR, "Kafka send failed");
+            throw e;
+        } finally {
+            kafkaSpan.end();
+        }
     }
 
     @Observed(name = "kafka-publisher.send-mail")
@@ -73,39 +73,86 @@ public class KafkaPublisherService {
             ? SendMailEvent.toDeleteEvent(person)
             : SendMailEvent.toCreateEvent(person, role);
 
-        sendKafkaEvent(topic, mailDTO, "sendMail");
+        sendKafkaEvent(topic, keyOf(person.getId()), mailDTO, "sendMail");
     }
 
+    /**
+     * Veröffentlicht die Zusammenfassung eines KPI-Intervalls.
+     *
+     * @param type    Der KPI-Typ, bestimmt das Topic.
+     * @param summary Die Zusammenfassung des {@code KpiAggregator}.
+     */
     @Observed(name = "kafka-publisher.kpi")
-    public void sendKPI(boolean isCreated) {
-        final var topic = isCreated
-            ? TOPIC_KPI_CREATE_PERSON
-            :  TOPIC_KPI_DELETE_PERSON;
+    public void sendKpiSummary(KpiType type, KpiSummaryDTO summary) {
+        final var topic = switch (type) {
+            case PERSON_CREATED -> TOPIC_KPI_CREATE_PERSON;
+            case PERSON_DELETED -> TOPIC_KPI_DELETE_PERSON;
+        };
 
-        sendKafkaEvent(topic, Map.of("createdAt", LocalDateTime.now().toString()), "sendKPI");
+        sendKafkaEvent(topic, type.name(), summary, "sendKpiSummary");
     }
 
     @Observed(name = "kafka-publisher.create-account")
     public void createAccount(UUID personId, String username) {
         final var accountDTO = new CreateAccountDTO(BigDecimal.ZERO, "CHECKING", 2, 50, 20, personId, 500, username);
-        sendKafkaEvent(TOPIC_ACCOUNT_CREATE_PERSON, accountDTO, "createAccount");
+        sendKafkaEvent(TOPIC_ACCOUNT_CREATE_PERSON, keyOf(personId), accountDTO, "createAccount");
     }
 
     @Observed(name = "kafka-publisher.delete-account")
     public void deleteAccount(UUID personId, int version, String username) {
         final var deleteAccountDTO = new DeleteAccountDTO(personId, version, username);
-        sendKafkaEvent(TOPIC_ACCOUNT_DELETE_PERSON, deleteAccountDTO, "deleteAccount");
+        sendKafkaEvent(TOPIC_ACCOUNT_DELETE_PERSON, keyOf(personId), deleteAccountDTO, "deleteAccount");
     }
 
     @Observed(name = "kafka-publisher.shopping-cart")
     public void createShoppingCart(UUID personId, String username) {
         final var shoppingCartDTO = new ShoppingCartDTO(personId, username, "");
-        sendKafkaEvent(TOPIC_SHOPPING_CART_CREATE_PERSON, shoppingCartDTO, "createShoppingCart");
+        sendKafkaEvent(TOPIC_SHOPPING_CART_CREATE_PERSON, keyOf(personId), shoppingCartDTO, "createShoppingCart");
     }
 
     @Observed(name = "kafka-publisher.shopping-cart")
     public void deleteShoppingCart(UUID personId) {
-        sendKafkaEvent(TOPIC_SHOPPING_CART_DELETE_PERSON, personId.toString(), "deleteShoppingCart");
+        sendKafkaEvent(TOPIC_SHOPPING_CART_DELETE_PERSON, keyOf(personId), personId.toString(), "deleteShoppingCart");
+    }
+
+    /**
+     * Veröffentlicht eine Änderung aus dem Change-Stream, mit der ID als Schlüssel.
+     * <p>
+     * Über den Schlüssel landen alle Änderungen eines Dokuments in derselben Partition und damit in Reihenfolge.
+     * </p>
+     *
+     * @param event Das Änderungsereignis.
+     */
+    @Observed(name = "kafka-publisher.person-changed")
+    public void personChanged(PersonChangedEvent event) {
+        sendKafkaEvent(TOPIC_PERSON_CHANGED, event.id().toString(), event, "personChanged");
+    }
+
+    /**
+     * Veröffentlicht den aktuellen Stand einer Person auf dem kompaktierten Topic {@code person.snapshot}.
+     *
+     * @param snapshot Die Projektion der Person.
+     */
+    @Observed(name = "kafka-publisher.person-snapshot")
+    public void personSnapshot(PersonSnapshot snapshot) {
+        sendKafkaEvent(TOPIC_PERSON_SNAPSHOT, keyOf(snapshot.id()), snapshot, "personSnapshot");
+    }
+
+    /**
+     * Veröffentlicht einen Tombstone auf {@code person.snapshot}, damit die Kompaktierung die Person entfernt.
+     *
+     * @param personId ID der gelöschten Person.
+     */
+    @Observed(name = "kafka-publisher.person-snapshot")
+    public void personSnapshotDeleted(UUID personId) {
+        sendKafkaEvent(TOPIC_PERSON_SNAPSHOT, keyOf(personId), null, "personSnapshotDeleted");
+    }
+
+    /**
+     * Schlüssel für Events einer Person: alle Events derselben Person landen in derselben Partition.
+     */
+    private static String keyOf(UUID personId) {
+        return personId != null ? personId.toString() : null;
     }
 
     /**
@@ -116,13 +163,19 @@ public class KafkaPublisherService {
      * @param operation Name der Aktion, z.B. 'createAccount'
      */
     private void sendKafkaEvent(String topic, Object payload, String operation) {
-        Span kafkaSpan = tracer.spanBuilder(String.format("kafka-publisher.%s", topic))
-            .setParent(Context.current())
-            .setAttribute("messaging.system", "kafka")
-            .setAttribute("messaging.destination", topic)
-            .setAttribute("messaging.destination_kind", "topic")
-            .setAttribute("messaging.operation", operation)
-            .startSpan();
+        sendKafkaEvent(topic, null, payload, operation);
+    }
+
+    /**
+     * Zentraler Kafka-Versand mit OpenTelemetry-Span und optionalem Nachrichtenschlüssel.
+     *
+     * @param topic     Ziel-Topic
+     * @param key       Nachrichtenschlüssel für die Partitionierung oder {@code null}
+     * @param payload   Event-Inhalt (DTO oder String), {@code null} für einen Tombstone
+     * @param operation Name der Aktion, z.B. 'createAccount'
+     */
+    private void sendKafkaEvent(String topic, String key, Object payload, String operation) {
+        Span kafkaSpan = startSpan(topic, operation);
         try (Scope scope = kafkaSpan.makeCurrent()) {
             assert scope != null;
             SpanContext spanContext = kafkaSpan.getSpanContext();
@@ -135,10 +188,11 @@ public class KafkaPublisherService {
 //                log.info("HEADER: {} = {}", header.key(), new String(header.value(), StandardCharsets.UTF_8))
 //            );
 
-            ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, null, null, payload, headers);
-            kafkaTemplate.send(record);
+            ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, null, key, payload, headers);
+            // Zustellung, Metriken und Wiederholung übernimmt der Callback im KafkaDeliveryTracker
+            kafkaDeliveryTracker.send(record);
 
-            kafkaSpan.setAttribute("messaging.kafka.message_type", payload.getClass().getSimpleName());
+            kafkaSpan.setAttribute("messaging.kafka.message_type", payload != null ? payload.getClass().getSimpleName() : "tombstone");
         } catch (Exception e) {
             kafkaSpan.recordException(e);
             kafkaSpan.setStatus(StatusCode.ERROR, "Kafka send failed");
@@ -146,7 +200,15 @@ public class KafkaPublisherService {
         } finally {
             kafkaSpan.end();
         }
+    }
 
-        log.info("📤 Kafka-Event '{}' an Topic '{}': {}", operation, topic, payload);
+    private Span startSpan(String topic, String operation) {
+        return tracer.spanBuilder(kafkaUtilService.spanName(topic))
+            .setParent(Context.current())
+            .setAttribute("messaging.system", "kafka")
+            .setAttribute("messaging.destination", topic)
+            .setAttribute("messaging.destination_kind", "topic")
+            .setAttribute("messaging.operation", operation)
+            .startSpan();
     }
 }
@@ -0,0 +1,524 @@
+package com.omnixys.person.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Persistente Warteschlange für Kafka-Records, die der Broker nicht angenommen hat.
+ * <p>
+ * Die Records werden an Segment-Dateien fester Größe angehängt, die per {@code mmap} eingeblendet sind.
+ * Jeder Eintrag besteht aus Länge, CRC32C und Nutzdaten (Topic, Schlüssel, Wert als JSON, Header).
+ * Eine Länge von {@code 0} markiert das Ende der geschriebenen Daten. Beim Start werden alle Segmente
+ * geprüft; der erste Eintrag mit falscher Prüfsumme beendet ein Segment, z.B. nach einem Absturz mitten
+ * im Schreiben. Die Leseposition steht in der Datei {@code checkpoint}; vollständig gelesene Segmente
+ * werden gelöscht.
+ * </p>
+ * <p>
+ * Schreiben kopiert nur in den Page-Cache und blockiert nicht auf die Platte. Ein Absturz des Prozesses
+ * verliert daher nichts; {@link #force()} sichert die Segmente auch gegen einen Ausfall des Knotens.
+ * </p>
+ * <p>
+ * Die Reihenfolge im Spool ist die Reihenfolge der Ablage, nicht die des ursprünglichen Versands: Records aus
+ * dem Puffer des Producers werden erst nach {@code delivery.timeout.ms} abgelegt und stehen dann hinter später
+ * erzeugten Records. Zusammen mit dem erneuten Senden nach einem Timeout ist die Zustellung mindestens einmal
+ * und je Schlüssel nicht zwingend geordnet (siehe {@link KafkaDeliveryTracker}).
+ * </p>
+ * <p>
+ * Metriken: {@code kafka.spool.depth} (Records), {@code kafka.spool.bytes}, {@code kafka.spool.age}
+ * (Alter des ältesten Records), {@code kafka.spool.appended} und {@code kafka.spool.corrupt}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaSpool {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * Länge und CRC32C vor den Nutzdaten.
+     */
+    private static final int ENTRY_HEADER_BYTES = Integer.BYTES * 2;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.spool.dir:${java.io.tmpdir}/person-service/kafka-spool}")
+    private Path dir;
+
+    @Value("${app.kafka.spool.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.kafka.spool.max-segments:16}")
+    private int maxSegments;
+
+    /**
+     * Ein gelesener Record.
+     *
+     * @param topic     Das Topic.
+     * @param key       Der Schlüssel oder {@code null}.
+     * @param value     Der Wert oder {@code null} für einen Tombstone.
+     * @param headers   Die ursprünglichen Header.
+     * @param spooledAt Zeitpunkt des Ablegens in Millisekunden seit der Epoche.
+     * @param size      Belegte Bytes im Segment.
+     * @param next      Leseposition direkt hinter diesem Record.
+     */
+    public record SpooledRecord(
+        String topic,
+        String key,
+        JsonNode value,
+        List<Header> headers,
+        long spooledAt,
+        int size,
+        Position next
+    ) {}
+
+    /**
+     * Position in der Warteschlange.
+     *
+     * @param segment Nummer des Segments.
+     * @param offset  Byte-Offset im Segment.
+     */
+    public record Position(long segment, int offset) {}
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(final Path file, final int size) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private final Object lock = new Object();
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private int segmentBytes;
+    private int writeOffset;
+    private Position readPosition;
+    private long depth;
+    private long bytes;
+    private volatile long oldestSpooledAt;
+
+    private Counter appended;
+    private Counter corrupt;
+
+    @PostConstruct
+    void init() throws IOException {
+        segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        appended = Counter.builder("kafka.spool.appended")
+            .description("In den Spool geschriebene Kafka-Records")
+            .register(meterRegistry);
+        corrupt = Counter.builder("kafka.spool.corrupt")
+            .description("Beschädigte Einträge im Spool")
+            .register(meterRegistry);
+
+        Files.createDirectories(dir);
+        try (var files = Files.list(dir)) {
+            for (final var file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                final var name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), new Segment(file, segmentBytes));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(1L, openSegment(1L));
+        }
+
+        readPosition = readCheckpoint();
+        while (segments.firstKey() < readPosition.segment()) {
+            deleteSegment(segments.pollFirstEntry().getValue());
+        }
+        if (!segments.containsKey(readPosition.segment())) {
+            readPosition = new Position(segments.firstKey(), 0);
+        }
+
+        // Gültige Einträge zählen und das Ende des letzten Segments bestimmen
+        for (final var entry : segments.entrySet()) {
+            var offset = entry.getKey() == readPosition.segment() ? readPosition.offset() : 0;
+            int length;
+            while ((length = validEntryLength(entry.getValue().buffer, offset)) > 0) {
+                depth++;
+                bytes += ENTRY_HEADER_BYTES + length;
+                offset += ENTRY_HEADER_BYTES + length;
+            }
+            if (length < 0) {
+                corruptAt(entry.getValue(), offset);
+            }
+            writeOffset = offset;
+        }
+        updateOldest();
+
+        Gauge.builder("kafka.spool.depth", this, KafkaSpool::depth)
+            .description("Records im Spool")
+            .register(meterRegistry);
+        Gauge.builder("kafka.spool.bytes", this, spool -> spool.bytes)
+            .description("Belegte Bytes im Spool")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        TimeGauge.builder("kafka.spool.age", this, TimeUnit.MILLISECONDS, KafkaSpool::ageMillis)
+            .description("Alter des ältesten Records im Spool")
+            .register(meterRegistry);
+
+        if (depth > 0) {
+            log.warn("init: {} Kafka-Records aus {} warten auf den Versand", depth, dir);
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn kein Record auf den Versand wartet.
+     */
+    public boolean isEmpty() {
+        synchronized (lock) {
+            return depth == 0;
+        }
+    }
+
+    /**
+     * @return Anzahl der wartenden Records.
+     */
+    public long depth() {
+        synchronized (lock) {
+            return depth;
+        }
+    }
+
+    /**
+     * Hängt einen Record an.
+     *
+     * @param record Der Record.
+     * @return {@code false}, wenn der Spool voll ist oder der Wert nicht serialisiert werden kann.
+     */
+    public boolean append(final ProducerRecord<String, Object> record) {
+        final byte[] payload;
+        try {
+            payload = encode(record, System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            log.error("append: Wert für topic={} nicht serialisierbar: {}", record.topic(), e.getOriginalMessage());
+            return false;
+        }
+        final var crc = new CRC32C();
+        crc.update(payload);
+
+        synchronized (lock) {
+            final var entryBytes = ENTRY_HEADER_BYTES + payload.length;
+            if (entryBytes >= segmentBytes) {
+                return false;
+            }
+            if (writeOffset + entryBytes + Integer.BYTES > segmentBytes && !roll()) {
+                return false;
+            }
+            final var buffer = segments.lastEntry().getValue().buffer;
+            // Länge zuletzt schreiben: ein halb geschriebener Eintrag endet so an einer Länge von 0
+            buffer.put(writeOffset + ENTRY_HEADER_BYTES, payload);
+            buffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(writeOffset, payload.length);
+            writeOffset += entryBytes;
+            depth++;
+            bytes += entryBytes;
+            if (depth == 1) {
+                updateOldest();
+            }
+        }
+        appended.increment();
+        return true;
+    }
+
+    /**
+     * Liest die nächsten Records ab der Leseposition, ohne sie zu entfernen.
+     *
+     * @param max Höchstzahl der Records.
+     * @return Die Records in Schreibreihenfolge.
+     */
+    public List<SpooledRecord> peek(final int max) {
+        synchronized (lock) {
+            final var result = new ArrayList<SpooledRecord>(Math.min(max, (int) Math.min(depth, Integer.MAX_VALUE)));
+            var segment = readPosition.segment();
+            var offset = readPosition.offset();
+            while (result.size() < max) {
+                final var current = segments.get(segment);
+                final var tail = segment == segments.lastKey();
+                if (tail && offset >= writeOffset) {
+                    break;
+                }
+                final var length = validEntryLength(current.buffer, offset);
+                if (length > 0) {
+                    final var size = ENTRY_HEADER_BYTES + length;
+                    final var next = new Position(segment, offset + size);
+                    result.add(decode(current.buffer, offset + ENTRY_HEADER_BYTES, length, size, next));
+                    offset = next.offset();
+                    continue;
+                }
+                if (length < 0) {
+                    corruptAt(current, offset);
+                }
+                if (tail) {
+                    break;
+                }
+                final var following = segments.higherKey(segment);
+                if (result.isEmpty()) {
+                    // Nichts mehr zu lesen: Segment sofort freigeben, damit es nicht erneut geprüft wird
+                    deleteSegment(segments.remove(segment));
+                    readPosition = new Position(following, 0);
+                    writeCheckpoint();
+                }
+                segment = following;
+                offset = 0;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Entfernt versendete Records.
+     *
+     * @param sent Die versendeten Records, ein Anfang des Ergebnisses von {@link #peek(int)}.
+     */
+    public void commit(final List<SpooledRecord> sent) {
+        if (sent.isEmpty()) {
+            return;
+        }
+        final var next = sent.getLast().next();
+        synchronized (lock) {
+            while (segments.firstKey() < next.segment()) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+            readPosition = next;
+            depth = Math.max(0, depth - sent.size());
+            bytes = Math.max(0, bytes - sent.stream().mapToLong(SpooledRecord::size).sum());
+            writeCheckpoint();
+            updateOldest();
+        }
+    }
+
+    /**
+     * Schreibt alle Segmente auf die Platte.
+     */
+    public void force() {
+        synchronized (lock) {
+            segments.values().forEach(segment -> segment.buffer.force());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        synchronized (lock) {
+            for (final var segment : segments.values()) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    log.warn("close: Segment {} konnte nicht geschlossen werden: {}", segment.file, e.getMessage());
+                }
+            }
+            segments.clear();
+        }
+        if (depth > 0) {
+            log.warn("close: {} Kafka-Records bleiben im Spool und werden nach dem Neustart versendet", depth);
+        }
+    }
+
+    private long ageMillis() {
+        final var oldest = oldestSpooledAt;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    private boolean roll() {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        final var seq = segments.lastKey() + 1;
+        segments.put(seq, openSegment(seq));
+        writeOffset = 0;
+        return true;
+    }
+
+    private Segment openSegment(final long seq) {
+        try {
+            return new Segment(dir.resolve("%020d%s".formatted(seq, SEGMENT_SUFFIX)), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSegment(final Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            log.warn("deleteSegment: {} konnte nicht gelöscht werden: {}", segment.file, e.getMessage());
+        }
+    }
+
+    /**
+     * Der Rest eines Segments hinter einem ungültigen Eintrag wird nicht mehr gelesen. Im letzten Segment
+     * setzt das Schreiben dort fort; der Rest wird dafür genullt.
+     */
+    private void corruptAt(final Segment segment, final int offset) {
+        log.error("Spool-Segment {} ab Offset {} beschädigt, Rest wird übersprungen", segment.file, offset);
+        corrupt.increment();
+        if (segment == segments.lastEntry().getValue()) {
+            segment.buffer.put(offset, new byte[segmentBytes - offset]);
+        }
+    }
+
+    /**
+     * @return Länge der Nutzdaten, {@code 0} am Ende der Daten oder {@code -1} bei einem ungültigen Eintrag.
+     */
+    private int validEntryLength(final ByteBuffer buffer, final int offset) {
+        if (offset + ENTRY_HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        final var length = buffer.getInt(offset);
+        if (length == 0) {
+            return 0;
+        }
+        if (length < 0 || length > buffer.capacity() - offset - ENTRY_HEADER_BYTES) {
+            return -1;
+        }
+        final var crc = new CRC32C();
+        crc.update(buffer.slice(offset + ENTRY_HEADER_BYTES, length));
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    private void updateOldest() {
+        if (depth == 0) {
+            oldestSpooledAt = 0;
+            return;
+        }
+        final var first = peek(1);
+        oldestSpooledAt = first.isEmpty() ? 0 : first.getFirst().spooledAt();
+    }
+
+    private Position readCheckpoint() throws IOException {
+        final var file = dir.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return new Position(segments.firstKey(), 0);
+        }
+        final var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new Position(buffer.getLong(), buffer.getInt());
+    }
+
+    private void writeCheckpoint() {
+        final var buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+            .putLong(readPosition.segment())
+            .putInt(readPosition.offset());
+        try {
+            final var tmp = dir.resolve(CHECKPOINT + ".tmp");
+            Files.write(tmp, buffer.array());
+            Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Schlimmstenfalls werden die Records nach einem Neustart ein zweites Mal versendet
+            log.warn("writeCheckpoint: {}", e.getMessage());
+        }
+    }
+
+    private byte[] encode(final ProducerRecord<String, Object> record, final long spooledAt) throws JsonProcessingException {
+        final var value = record.value() != null ? objectMapper.writeValueAsBytes(record.value()) : null;
+        final var out = new ByteArrayOutputStream(128 + (value != null ? value.length : 0));
+        try (var data = new DataOutputStream(out)) {
+            data.writeLong(spooledAt);
+            data.writeUTF(record.topic());
+            writeBytes(data, record.key() != null ? record.key().getBytes(StandardCharsets.UTF_8) : null);
+            writeBytes(data, value);
+            final var headers = record.headers().toArray();
+            data.writeShort(headers.length);
+            for (final var header : headers) {
+                data.writeUTF(header.key());
+                writeBytes(data, header.value());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private SpooledRecord decode(final ByteBuffer buffer, final int offset, final int length, final int size, final Position next) {
+        final var payload = new byte[length];
+        buffer.get(offset, payload);
+        try (var data = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final var spooledAt = data.readLong();
+            final var topic = data.readUTF();
+            final var key = readBytes(data);
+            final var value = readBytes(data);
+            final var headerCount = data.readShort();
+            final var headers = new ArrayList<Header>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new RecordHeader(data.readUTF(), readBytes(data)));
+            }
+            return new SpooledRecord(
+                topic,
+                key != null ? new String(key, StandardCharsets.UTF_8) : null,
+                value != null ? objectMapper.readTree(value) : null,
+                headers,
+                spooledAt,
+                size,
+                next
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream data, final byte[] bytes) throws IOException {
+        if (bytes == null) {
+            data.writeInt(-1);
+            return;
+        }
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static byte[] readBytes(final DataInputStream data) throws IOException {
+        final var length = data.readInt();
+        return length < 0 ? null : data.readNBytes(length);
+    }
+}
@@ -0,0 +1,138 @@
+package com.omnixys.person.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Versendet die Records aus dem {@link KafkaSpool} in der Reihenfolge, in der sie abgelegt wurden.
+ * <p>
+ * Pro Durchlauf werden Batches von bis zu {@code batch-size} Records gesendet und erst nach der
+ * Bestätigung durch den Broker aus dem Spool entfernt. Scheitert ein Record mit einem vorübergehenden
+ * Fehler, ist der Broker noch nicht wieder erreichbar: der Durchlauf endet und der nächste beginnt bei
+ * diesem Record. Records mit einem nicht wiederholbaren Fehler werden verworfen, damit sie den Spool nicht
+ * blockieren. Die Zustellung ist damit mindestens einmal; Konsumenten erkennen Duplikate an der Event-ID.
+ * </p>
+ * <p>
+ * Metriken: {@code kafka.spool.replayed} und {@code kafka.spool.dropped}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KafkaSpoolReplayer {
+
+    private final KafkaSpool kafkaSpool;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.spool.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.kafka.spool.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    private Counter replayed;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        replayed = Counter.builder("kafka.spool.replayed")
+            .description("Aus dem Spool zugestellte Kafka-Records")
+            .register(meterRegistry);
+        dropped = Counter.builder("kafka.spool.dropped")
+            .description("Aus dem Spool verworfene Kafka-Records")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Leert den Spool, solange der Broker Records annimmt.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka.spool.replay-interval:2s}")
+    public void replay() {
+        if (kafkaSpool.isEmpty()) {
+            return;
+        }
+        try {
+            int total = 0;
+            while (true) {
+                final var batch = kafkaSpool.peek(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                final var sent = sendBatch(batch);
+                kafkaSpool.commit(batch.subList(0, sent));
+                total += sent;
+                if (sent < batch.size()) {
+                    break;
+                }
+            }
+            kafkaSpool.force();
+            if (total > 0) {
+                log.info("replay: {} Kafka-Records aus dem Spool zugestellt, {} verbleiben", total, kafkaSpool.depth());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Anzahl der Records vom Anfang des Batches, die zugestellt oder verworfen wurden.
+     */
+    private int sendBatch(final List<KafkaSpool.SpooledRecord> batch) throws InterruptedException {
+        final var futures = new ArrayList<CompletableFuture<SendResult<String, Object>>>(batch.size());
+        for (final var spooled : batch) {
+            try {
+                futures.add(kafkaTemplate.send(new ProducerRecord<>(
+                    spooled.topic(), null, null, spooled.key(), spooled.value(), spooled.headers())));
+            } catch (RuntimeException e) {
+                // z.B. max.block.ms überschritten: die übrigen Records gar nicht erst senden
+                futures.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+
+        final long deadline = System.nanoTime() + sendTimeout.toNanos();
+        int done = 0;
+        for (final var future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+                replayed.increment();
+            } catch (ExecutionException e) {
+                if (KafkaDeliveryTracker.isRetriable(e)) {
+                    log.warn("replay: Broker nicht erreichbar, nächster Versuch folgt: {}", e.getCause().getMessage());
+                    return done;
+                }
+                final var spooled = batch.get(done);
+                dropped.increment();
+                log.error("❌ Kafka-Event aus dem Spool verworfen: topic={}, key={}, grund={}",
+                    spooled.topic(), spooled.key(), e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                log.warn("replay: keine Bestätigung innerhalb von {}", sendTimeout);
+                return done;
+            }
+            done++;
+        }
+        return done;
+    }
+}
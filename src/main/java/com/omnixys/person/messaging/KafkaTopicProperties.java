@@ -2,11 +2,16 @@ package com.omnixys.person.messaging;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.Map;
+
 /**
  * Zentrale Konfiguration der Kafka-Topic-Namen.
  * <p>
  * Die Namen folgen dem Schema: {@code <service>.<events>.<service>}.
  * </p>
+ * <p>
+ * {@link #TOPIC_ENCODINGS} legt fest, welche Topics binär (Avro) kodiert werden können; alle übrigen bleiben JSON.
+ * </p>
  *
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
  * @since 07.05.2025
@@ -37,4 +42,36 @@ public final class KafkaTopicProperties {
     public static final String TOPIC_KPI_CREATE_PERSON = "kpi.create.person";
     public static final String TOPIC_KPI_DELETE_PERSON = "all.delete.person";
 
+    public static final String TOPIC_PERSON_CHANGED = "person.changed";
+
+    /**
+     * Kompaktiertes Topic mit dem letzten Stand jeder Person, Schlüssel = Personen-ID.
+     */
+    public static final String TOPIC_PERSON_SNAPSHOT = "person.snapshot";
+
+    /**
+     * Eingehende Personen aus Umsystemen, Schlüssel = Personen-ID.
+     */
+    public static final String TOPIC_PERSON_UPSERT = "person.upsert";
+
+    /**
+     * Abweichende Kodierung je Topic. Wirksam nur mit {@code app.kafka.avro.enabled=true}, damit die
+     * Umstellung erst erfolgt, wenn die Konsumenten Avro lesen können.
+     */
+    public static final Map<String, EventEncoding> TOPIC_ENCODINGS = Map.of(
+        TOPIC_LOG_STREAM_LOG_PERSON, EventEncoding.AVRO,
+        TOPIC_KPI_CREATE_PERSON, EventEncoding.AVRO,
+        TOPIC_KPI_DELETE_PERSON, EventEncoding.AVRO
+    );
+
+    /**
+     * Liefert die Kodierung eines Topics.
+     *
+     * @param topic Das Topic.
+     * @return Die Kodierung, standardmäßig {@link EventEncoding#JSON}.
+     */
+    public static EventEncoding encodingFor(final String topic) {
+        return TOPIC_ENCODINGS.getOrDefault(topic, EventEncoding.JSON);
+    }
+
 }
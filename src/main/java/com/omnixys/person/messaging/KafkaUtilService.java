@@ -9,24 +9,44 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Hilfsklasse zum Erstellen standardisierter Kafka-Headers.
  * Kapselt Metadaten und unterstützt optional OpenTelemetry-Trace-Kontext.
+ * <p>
+ * Die konstanten Header (Service, Event-Name, -Version und -Typ) werden je Topic und Aktion nur einmal
+ * UTF-8-kodiert und danach von allen Records geteilt; Kafka liest die Header-Werte nur. Je Record entstehen
+ * nur noch die Header-Liste und der {@code traceparent}, der ohne Zwischen-Strings direkt in ein Byte-Array
+ * passender Länge geschrieben wird.
+ * </p>
  *
  * @author Caleb
  * @since 20.04.2025
- * @version 2.0
+ * @version 2.1
  */
 @Service
 @RequiredArgsConstructor
 public class KafkaUtilService {
 
+    private static final String TRACEPARENT = "traceparent";
+
+    /**
+     * Länge von {@code 00-<trace-id>-<span-id>-<flags>} nach W3C Trace Context.
+     */
+    private static final int TRACEPARENT_LENGTH = 55;
+
     @Value("${app.name}")
     private String serviceName;
 
     @Value("${app.version}")
     private String version;
+
+    private final Map<String, Map<String, Header[]>> templates = new ConcurrentHashMap<>();
+    private final Map<String, String> spanNames = new ConcurrentHashMap<>();
+
     /**
      * Erstellt Standard-Kafka-Header mit optionalem OpenTelemetry-Tracing.
      *
@@ -36,22 +56,61 @@ public class KafkaUtilService {
      * @return Kafka-RecordHeaders mit Metadaten
      */
     public RecordHeaders buildStandardHeaders(String topic, String operation, SpanContext spanContext) {
-        RecordHeaders headers = new RecordHeaders();
-
-        // ✨ Meta-Header
-        headers.add(header("x-service", serviceName));
-        headers.add(header("x-events-name", topic));
-        headers.add(header("x-events-version", "v1"));
-        headers.add(header("x-events-type", operation));
+        final var template = template(topic, operation);
 
         // ✨ W3C TraceContext Header für Tempo
-        if (spanContext != null && spanContext.isValid()) {
-            String traceFlags = spanContext.isSampled() ? "01" : "00";
-            String traceparent = String.format("00-%s-%s-%s", spanContext.getTraceId(), spanContext.getSpanId(), traceFlags);
-            headers.add(header("traceparent", traceparent));
+        if (spanContext == null || !spanContext.isValid()) {
+            return new RecordHeaders(template);
         }
+        final var headers = Arrays.copyOf(template, template.length + 1);
+        headers[template.length] = new RecordHeader(TRACEPARENT, traceparent(spanContext));
+        return new RecordHeaders(headers);
+    }
+
+    /**
+     * Liefert den Span-Namen für den Versand auf ein Topic.
+     *
+     * @param topic Ziel-Topic
+     * @return {@code kafka-publisher.<topic>}
+     */
+    public String spanName(String topic) {
+        return spanNames.computeIfAbsent(topic, t -> "kafka-publisher." + t);
+    }
+
+    private Header[] template(String topic, String operation) {
+        return templates
+            .computeIfAbsent(topic, _ -> new ConcurrentHashMap<>())
+            .computeIfAbsent(operation, _ -> new Header[] {
+                // ✨ Meta-Header
+                header("x-service", serviceName),
+                header("x-events-name", topic),
+                header("x-events-version", "v1"),
+                header("x-events-type", operation)
+            });
+    }
 
-        return headers;
+    /**
+     * Schreibt {@code 00-<trace-id>-<span-id>-<flags>}; Trace- und Span-ID sind bereits Hex-Strings.
+     */
+    static byte[] traceparent(SpanContext spanContext) {
+        final var bytes = new byte[TRACEPARENT_LENGTH];
+        bytes[0] = '0';
+        bytes[1] = '0';
+        bytes[2] = '-';
+        final var afterTraceId = writeAscii(spanContext.getTraceId(), bytes, 3);
+        bytes[afterTraceId] = '-';
+        final var afterSpanId = writeAscii(spanContext.getSpanId(), bytes, afterTraceId + 1);
+        bytes[afterSpanId] = '-';
+        bytes[afterSpanId + 1] = '0';
+        bytes[afterSpanId + 2] = spanContext.isSampled() ? (byte) '1' : (byte) '0';
+        return bytes;
+    }
+
+    private static int writeAscii(String value, byte[] target, int offset) {
+        for (int i = 0; i < value.length(); i++) {
+            target[offset + i] = (byte) value.charAt(i);
+        }
+        return offset + value.length();
     }
 
     private static Header header(String key, String value) {
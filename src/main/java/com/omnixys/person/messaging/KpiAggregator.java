@@ -0,0 +1,129 @@
+package com.omnixys.person.messaging;
+
+import com.omnixys.person.models.enums.KpiType;
+import com.omnixys.person.models.events.KpiSummaryDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fasst KPI-Ereignisse lokal zusammen und veröffentlicht je Intervall eine Nachricht pro Typ.
+ * <p>
+ * {@link #record(KpiType)} zählt nur in einen {@link LongAdder} und merkt sich ersten und letzten Zeitpunkt
+ * in je einem {@link LongAccumulator}. Beide verteilen gleichzeitige Schreiber auf eigene Zellen, sodass
+ * parallele Anlagen nicht um eine Variable konkurrieren. Alle {@code app.kpi.interval} werden die Zähler
+ * gelesen und zurückgesetzt ({@code sumThenReset}); Ereignisse, die dabei eintreffen, fallen in das nächste
+ * Intervall und gehen nicht verloren. Typen ohne Ereignisse erzeugen keine Nachricht.
+ * </p>
+ * <p>
+ * Beim Herunterfahren wird das laufende Intervall noch veröffentlicht, bevor der Producer geschlossen wird.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KpiAggregator implements SmartLifecycle {
+
+    private final KafkaPublisherService kafkaPublisherService;
+
+    private final Map<KpiType, Window> windows = new EnumMap<>(KpiType.class);
+    private volatile Instant windowStart = Instant.now();
+    private volatile boolean running;
+
+    /**
+     * Zähler eines Typs für das laufende Intervall.
+     */
+    private static final class Window {
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator firstAt = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator lastAt = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+
+    {
+        for (final var type : KpiType.values()) {
+            windows.put(type, new Window());
+        }
+    }
+
+    /**
+     * Zählt ein Ereignis. Kehrt ohne Sperre und ohne Kafka-Aufruf zurück.
+     *
+     * @param type Der KPI-Typ.
+     */
+    public void record(final KpiType type) {
+        final var window = windows.get(type);
+        final var now = System.currentTimeMillis();
+        window.count.increment();
+        window.firstAt.accumulate(now);
+        window.lastAt.accumulate(now);
+    }
+
+    /**
+     * Veröffentlicht die Zusammenfassung des abgelaufenen Intervalls.
+     */
+    @Scheduled(fixedRateString = "${app.kpi.interval:10s}", initialDelayString = "${app.kpi.interval:10s}")
+    public synchronized void flush() {
+        final var start = windowStart;
+        final var end = Instant.now();
+        windowStart = end;
+
+        windows.forEach((type, window) -> {
+            final var count = window.count.sumThenReset();
+            final var firstAt = window.firstAt.getThenReset();
+            final var lastAt = window.lastAt.getThenReset();
+            if (count == 0) {
+                return;
+            }
+            final var summary = new KpiSummaryDTO(
+                type.name(),
+                count,
+                start.toString(),
+                end.toString(),
+                // Ein Ereignis zwischen sumThenReset und getThenReset hat keine Zeitpunkte: Intervallgrenzen
+                (firstAt == Long.MAX_VALUE ? start : Instant.ofEpochMilli(firstAt)).toString(),
+                (lastAt == Long.MIN_VALUE ? end : Instant.ofEpochMilli(lastAt)).toString(),
+                end.toString()
+            );
+            try {
+                kafkaPublisherService.sendKpiSummary(type, summary);
+            } catch (RuntimeException e) {
+                log.error("❌ KPI-Zusammenfassung {} ({} Ereignisse) nicht versendet: {}", type, count, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Vor dem {@code LogShipper} stoppen, aber nach allen Komponenten, die noch KPI-Ereignisse erzeugen.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 2000;
+    }
+}
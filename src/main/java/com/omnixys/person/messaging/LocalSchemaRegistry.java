@@ -0,0 +1,106 @@
+package com.omnixys.person.messaging;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Dateibasierter Ersatz für eine Schema-Registry.
+ * <p>
+ * Die Zuordnung Topic → Schema-ID → Avro-Schema steht in {@code app.kafka.avro.registry}
+ * (Standard: {@code classpath:avro/registry.properties}); die {@code .avsc}-Dateien liegen im selben
+ * Verzeichnis. Das Nachrichtenformat entspricht dem einer Confluent-Registry (Magic-Byte {@code 0},
+ * 4 Byte Schema-ID, Avro-Binärdaten), sodass eine echte Registry später ohne Formatwechsel
+ * eingesetzt werden kann.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalSchemaRegistry {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${app.kafka.avro.registry:classpath:avro/registry.properties}")
+    private String registryLocation;
+
+    private final Map<String, RegisteredSchema> byTopic = new HashMap<>();
+    private final Map<Integer, Schema> byId = new HashMap<>();
+
+    /**
+     * Ein registriertes Schema.
+     *
+     * @param id     Die Schema-ID, die jeder Nachricht vorangestellt wird.
+     * @param schema Das Avro-Schema.
+     */
+    public record RegisteredSchema(int id, Schema schema) {}
+
+    @PostConstruct
+    void load() {
+        final var index = resourceLoader.getResource(registryLocation);
+        if (!index.exists()) {
+            log.warn("load: Schema-Registry {} nicht gefunden, Avro ist nicht verfügbar", registryLocation);
+            return;
+        }
+
+        final var entries = new Properties();
+        try (InputStream in = index.getInputStream()) {
+            entries.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Schema-Registry " + registryLocation + " kann nicht gelesen werden", e);
+        }
+
+        entries.stringPropertyNames().forEach(topic -> {
+            final var value = entries.getProperty(topic).trim();
+            final var separator = value.indexOf(':');
+            final var id = Integer.parseInt(value.substring(0, separator));
+            final var schema = byId.computeIfAbsent(id, _ -> parse(index, value.substring(separator + 1)));
+            byTopic.put(topic, new RegisteredSchema(id, schema));
+        });
+        log.info("load: {} Schemas für {} Topics geladen", byId.size(), byTopic.size());
+    }
+
+    /**
+     * Liefert das Schema eines Topics.
+     *
+     * @param topic Das Topic.
+     * @return Das registrierte Schema oder {@code Optional.empty()}.
+     */
+    public Optional<RegisteredSchema> forTopic(final String topic) {
+        return Optional.ofNullable(byTopic.get(topic));
+    }
+
+    /**
+     * Liefert das Schema zu einer Schema-ID, z.B. zum Dekodieren.
+     *
+     * @param id Die Schema-ID.
+     * @return Das Schema oder {@code Optional.empty()}.
+     */
+    public Optional<Schema> byId(final int id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    private static Schema parse(final Resource index, final String file) {
+        try (InputStream in = index.createRelative(file).getInputStream()) {
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Avro-Schema " + file + " kann nicht gelesen werden", e);
+        }
+    }
+}
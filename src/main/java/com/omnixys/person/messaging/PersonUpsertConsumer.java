@@ -0,0 +1,140 @@
+package com.omnixys.person.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.person.models.events.PersonUpsertDTO;
+import com.omnixys.person.services.PersonUpsertService;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_PERSON_UPSERT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Kafka-Consumer für Personen, die Umsysteme (z.B. CRM) gesammelt übertragen.
+ * <p>
+ * Die Nachrichten auf {@code person.upsert} werden in Batches von bis zu {@code max-poll-records} gelesen.
+ * Innerhalb eines Batches gilt je ID nur die letzte Nachricht; alle übrigen werden mit einem einzigen
+ * {@code bulkWrite} geschrieben. Der Offset wird erst nach erfolgreichem Schreiben bestätigt. Schlägt der
+ * Schreibvorgang wegen MongoDB fehl, wird der ganze Batch vom Error-Handler mit Backoff wiederholt.
+ * </p>
+ * <p>
+ * Metriken: {@code person.upsert.records} (Tag {@code result} = {@code applied}, {@code duplicate},
+ * {@code invalid}, {@code failed}), {@code person.upsert.batch.size}, {@code person.upsert.batch} (Dauer)
+ * und {@code person.upsert.lag} (Zeit zwischen Produktion und Verarbeitung einer Nachricht). Der Offset-Lag
+ * kommt aus den Kafka-Client-Metriken {@code kafka.consumer.fetch.manager.records.lag.max}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonUpsertConsumer {
+
+    private final PersonUpsertService personUpsertService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    private Counter applied;
+    private Counter duplicates;
+    private Counter invalid;
+    private Counter failed;
+    private DistributionSummary batchSize;
+    private Timer batchDuration;
+    private Timer lag;
+
+    @PostConstruct
+    void init() {
+        applied = records("applied");
+        duplicates = records("duplicate");
+        invalid = records("invalid");
+        failed = records("failed");
+        batchSize = DistributionSummary.builder("person.upsert.batch.size")
+            .description("Anzahl der Nachrichten je Batch")
+            .register(meterRegistry);
+        batchDuration = Timer.builder("person.upsert.batch")
+            .description("Verarbeitungsdauer je Batch")
+            .register(meterRegistry);
+        lag = Timer.builder("person.upsert.lag")
+            .description("Zeit zwischen Produktion und Verarbeitung einer Nachricht")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(
+        topics = TOPIC_PERSON_UPSERT,
+        groupId = "${app.groupId}",
+        containerFactory = "personUpsertContainerFactory"
+    )
+    public void onBatch(final List<ConsumerRecord<String, String>> records, final Acknowledgment acknowledgment) {
+        final long start = System.nanoTime();
+        batchSize.record(records.size());
+
+        // Letzte Nachricht je ID gewinnt; Nachrichten mit gleichem Schlüssel liegen in derselben Partition
+        final var latest = new LinkedHashMap<UUID, PersonUpsertDTO>();
+        final var now = System.currentTimeMillis();
+        for (final var record : records) {
+            lag.record(Math.max(0, now - record.timestamp()), MILLISECONDS);
+            final var person = parse(record);
+            if (person == null) {
+                invalid.increment();
+                continue;
+            }
+            if (latest.put(person.id(), person) != null) {
+                duplicates.increment();
+            }
+        }
+
+        final var result = personUpsertService.upsertAll(latest.values());
+        acknowledgment.acknowledge();
+
+        applied.increment(result.applied());
+        failed.increment(result.failed());
+        batchDuration.record(System.nanoTime() - start, NANOSECONDS);
+        logger().debug("onBatch: {} Nachrichten, {} geschrieben, {} abgelehnt", records.size(), result.applied(), result.failed());
+    }
+
+    private PersonUpsertDTO parse(final ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            final var person = objectMapper.readValue(record.value(), PersonUpsertDTO.class);
+            if (!person.isComplete()) {
+                logger().warn("parse: unvollständige Person auf {}-{}@{}", record.topic(), record.partition(), record.offset());
+                return null;
+            }
+            return person;
+        } catch (JsonProcessingException e) {
+            logger().warn("parse: ungültige Nachricht auf {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private Counter records(final String result) {
+        return Counter.builder("person.upsert.records")
+            .description("Verarbeitete Nachrichten auf person.upsert")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,116 @@
+package com.omnixys.person.messaging;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Wählt den Serializer je Topic anhand von {@link KafkaTopicProperties#encodingFor(String)}.
+ * <p>
+ * Für jede Nachricht werden Größe ({@code kafka.serialized.size}) und Dauer ({@code kafka.serialize}) mit den
+ * Tags {@code topic} und {@code encoding} gemessen. Mit {@code compareWithJson} wird für Avro-Topics zusätzlich
+ * die JSON-Größe als {@code encoding=json-shadow} erfasst, damit beide Formate direkt verglichen werden können.
+ * </p>
+ * <p>
+ * Der Producer ruft {@link #serialize(String, Headers, Object)} auf. Die Header werden an den
+ * {@link JsonSerializer} weitergereicht, damit JSON-Topics wie bisher die Typ-Header ({@code __TypeId__})
+ * erhalten.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+public class TopicRoutingSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final AvroEventSerializer avroSerializer;
+    private final boolean avroEnabled;
+    private final boolean compareWithJson;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    private record Meters(DistributionSummary size, Timer duration) {}
+
+    public TopicRoutingSerializer(
+        final AvroEventSerializer avroSerializer,
+        final boolean avroEnabled,
+        final boolean compareWithJson,
+        final MeterRegistry meterRegistry
+    ) {
+        this.avroSerializer = avroSerializer;
+        this.avroEnabled = avroEnabled;
+        this.compareWithJson = compareWithJson;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        // spring.json.* aus spring.kafka.producer.properties gilt weiterhin für die JSON-Topics
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Headers headers, final Object data) {
+        final var encoding = avroEnabled ? KafkaTopicProperties.encodingFor(topic) : EventEncoding.JSON;
+
+        final long start = System.nanoTime();
+        final byte[] bytes;
+        if (encoding == EventEncoding.AVRO) {
+            bytes = avroSerializer.serialize(topic, data);
+        } else if (headers == null) {
+            bytes = jsonSerializer.serialize(topic, data);
+        } else {
+            bytes = jsonSerializer.serialize(topic, headers, data);
+        }
+        final var topicMeters = meters(topic, encoding.name().toLowerCase());
+        topicMeters.duration().record(System.nanoTime() - start, NANOSECONDS);
+        if (bytes != null) {
+            topicMeters.size().record(bytes.length);
+        }
+
+        if (compareWithJson && encoding == EventEncoding.AVRO && data != null) {
+            final long shadowStart = System.nanoTime();
+            // Ohne Header: der Avro-Record soll keine JSON-Typ-Header bekommen
+            final var json = jsonSerializer.serialize(topic, data);
+            final var shadowMeters = meters(topic, "json-shadow");
+            shadowMeters.duration().record(System.nanoTime() - shadowStart, NANOSECONDS);
+            shadowMeters.size().record(json.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+        avroSerializer.close();
+    }
+
+    private Meters meters(final String topic, final String encoding) {
+        return meters.computeIfAbsent(topic + '|' + encoding, _ -> new Meters(
+            DistributionSummary.builder("kafka.serialized.size")
+                .description("Größe der serialisierten Nachricht")
+                .baseUnit("bytes")
+                .tag("topic", topic)
+                .tag("encoding", encoding)
+                .register(meterRegistry),
+            Timer.builder("kafka.serialize")
+                .description("Dauer der Serialisierung")
+                .tag("topic", topic)
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+        ));
+    }
+}
@@ -0,0 +1,46 @@
+package com.omnixys.person.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Zuletzt verarbeiteter Resume-Token eines Change-Streams.
+ * <p>
+ * Nach einem Neustart wird der Stream ab diesem Token fortgesetzt, sodass keine Änderung verloren geht.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "change_stream_tokens")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeStreamToken {
+
+    /**
+     * Name der beobachteten Collection.
+     */
+    @Id
+    private String id;
+
+    /**
+     * Resume-Token als JSON.
+     */
+    private String resumeToken;
+
+    /**
+     * Zeitpunkt der letzten Aktualisierung.
+     */
+    private Instant updated;
+}
@@ -0,0 +1,66 @@
+package com.omnixys.person.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Gespeichertes Ergebnis einer idempotenten Mutation.
+ * <p>
+ * Die Dokumente werden über einen TTL-Index automatisch von MongoDB entfernt.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "idempotency_keys")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    /**
+     * Kombination aus Operation und Idempotency-Key.
+     */
+    @Id
+    private String id;
+
+    /**
+     * SHA-256-Fingerabdruck der ursprünglichen Anfrage.
+     */
+    private String fingerprint;
+
+    /**
+     * Ergebnis der Mutation (z.B. die ID des erstellten Kunden bzw. Kontakts).
+     */
+    private UUID resultId;
+
+    /**
+     * Gibt an, ob die Mutation bereits abgeschlossen ist.
+     */
+    private boolean completed;
+
+    /**
+     * Ende der Reservierung einer noch nicht abgeschlossenen Mutation. Danach darf eine Wiederholung die
+     * Reservierung übernehmen, z.B. wenn die erste Instanz während der Ausführung abgestürzt ist.
+     */
+    private Instant reservedUntil;
+
+    /**
+     * Zeitstempel der Erstellung; nach Ablauf der TTL (24 Stunden, siehe {@code MongoIndexInitializer}) wird das
+     * Dokument gelöscht.
+     */
+    private Instant created;
+}
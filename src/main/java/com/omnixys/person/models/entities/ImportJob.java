@@ -0,0 +1,68 @@
+package com.omnixys.person.models.entities;
+
+import com.omnixys.person.models.enums.ImportJobStatus;
+import com.omnixys.person.models.payload.ImportReport.ImportFailure;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fortschritt eines asynchronen Kundenimports.
+ * <p>
+ * Das Dokument wird nach jedem Block aktualisiert, damit jede Instanz den Stand über {@code importJob(id)}
+ * liefern kann. Passwörter werden nicht gespeichert.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "import_jobs")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+
+    /**
+     * ID des Imports; wird von {@code importCustomers} zurückgegeben.
+     */
+    @Id
+    private UUID id;
+
+    private ImportJobStatus status;
+
+    /**
+     * Anzahl der übergebenen Kunden.
+     */
+    private int total;
+
+    /**
+     * Anzahl der bisher erfolgreich angelegten Kunden.
+     */
+    private int imported;
+
+    /**
+     * Bisher fehlgeschlagene Kunden mit Begründung.
+     */
+    private List<ImportFailure> failures;
+
+    /**
+     * Fehlermeldung, falls der Import abgebrochen wurde.
+     */
+    private String error;
+
+    private Instant created;
+    private Instant finished;
+}
@@ -0,0 +1,46 @@
+package com.omnixys.person.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Zeitlich begrenzte Zuständigkeit einer Instanz für eine Aufgabe, die nur einmal im Cluster laufen darf.
+ * <p>
+ * Die Instanz verlängert die Lease regelmäßig; läuft sie ab, kann eine andere Instanz übernehmen.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "leases")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Lease {
+
+    /**
+     * Name der Aufgabe, z.B. {@code change-feed-persons}.
+     */
+    @Id
+    private String id;
+
+    /**
+     * Instanz, die die Lease hält.
+     */
+    private String owner;
+
+    /**
+     * Ablaufzeitpunkt; danach darf eine andere Instanz übernehmen.
+     */
+    private Instant expiresAt;
+}
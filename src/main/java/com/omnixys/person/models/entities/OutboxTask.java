@@ -0,0 +1,135 @@
+package com.omnixys.person.models.entities;
+
+import com.omnixys.person.models.enums.OutboxTaskType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Dauerhaft gespeicherte Aufgabe für asynchron auszuführende Seiteneffekte.
+ * <p>
+ * Die Aufgabe enthält einen kompakten Schnappschuss der betroffenen Person, damit sie auch nach dem
+ * Löschen des Personendokuments noch ausgeführt werden kann.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "outbox_tasks")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxTask {
+
+    /**
+     * Eindeutige ID der Aufgabe.
+     */
+    @Id
+    private UUID id;
+
+    /**
+     * Art der Aufgabe.
+     */
+    private OutboxTaskType type;
+
+    /**
+     * ID der betroffenen Person.
+     */
+    private UUID personId;
+
+    /**
+     * Version der Person zum Zeitpunkt der Änderung.
+     */
+    private int personVersion;
+
+    private String username;
+
+    /**
+     * ID des Benutzers in Keycloak; fehlt bei Personen, die vor dem Backfill angelegt wurden.
+     */
+    private String keycloakId;
+
+    private String email;
+    private String firstName;
+    private String lastName;
+
+    /**
+     * Anzahl der bisherigen Ausführungsversuche.
+     */
+    private int attempts;
+
+    /**
+     * Frühester Zeitpunkt des nächsten Versuchs; dient gleichzeitig als Lease während der Ausführung.
+     * Fehlt bei Aufgaben in der Dead-Letter-Ablage.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Fehlermeldung des letzten fehlgeschlagenen Versuchs.
+     */
+    private String lastError;
+
+    /**
+     * Zeitpunkt, zu dem die Aufgabe nach {@code app.outbox.max-attempts} Versuchen aufgegeben wurde;
+     * {@code null}, solange sie noch ausgeführt wird.
+     */
+    private Instant deadLetteredAt;
+
+    /**
+     * Zeitstempel der Erstellung.
+     */
+    private Instant created;
+
+    /**
+     * Erstellt eine neue Aufgabe für die übergebene Person.
+     *
+     * @param type   Art der Aufgabe.
+     * @param person Die betroffene Person.
+     * @return Die sofort ausführbare Aufgabe.
+     */
+    public static OutboxTask of(final OutboxTaskType type, final Person person) {
+        final var now = Instant.now();
+        return OutboxTask.builder()
+            .id(UUID.randomUUID())
+            .type(type)
+            .personId(person.getId())
+            .personVersion(person.getVersion())
+            .username(person.getUsername())
+            .keycloakId(person.getKeycloakId())
+            .email(person.getEmail())
+            .firstName(person.getFirstName())
+            .lastName(person.getLastName())
+            .nextAttemptAt(now)
+            .created(now)
+            .build();
+    }
+
+    /**
+     * Baut aus dem Schnappschuss wieder eine (unvollständige) Person auf.
+     *
+     * @return Person mit ID, Version, Benutzername, Keycloak-ID, E-Mail und Namen.
+     */
+    public Person toPerson() {
+        return Person.builder()
+            .id(personId)
+            .version(personVersion)
+            .username(username)
+            .keycloakId(keycloakId)
+            .email(email)
+            .firstName(firstName)
+            .lastName(lastName)
+            .build();
+    }
+}
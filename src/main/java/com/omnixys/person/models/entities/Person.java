@@ -13,7 +13,6 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.Version;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -40,7 +39,7 @@ import java.util.UUID;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Person {
 
     /**
@@ -73,9 +72,8 @@ public class Person {
     private PersonType personType;
 
     /**
-     * E-Mail-Adresse des Kunden (einzigartig und validiert).
+     * E-Mail-Adresse des Kunden (einzigartig und validiert, siehe {@code MongoIndexInitializer}).
      */
-    @Indexed(unique = true)
     private String email;
 
     /**
@@ -84,11 +82,15 @@ public class Person {
     private String phoneNumber;
 
     /**
-     * Benutzername des Kunden (einzigartig und validiert).
+     * Benutzername des Kunden (einzigartig und validiert, siehe {@code MongoIndexInitializer}).
      */
-    @Indexed(unique = true)
     private String username;
 
+    /**
+     * ID des zugehörigen Benutzers in Keycloak, wird bei der Registrierung gesetzt.
+     */
+    private String keycloakId;
+
     /**
      * Geburtsdatum des Kunden (muss in der Vergangenheit liegen).
      */
@@ -0,0 +1,26 @@
+package com.omnixys.person.models.enums;
+
+/**
+ * Zustände eines asynchronen Kundenimports.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum ImportJobStatus {
+
+    /**
+     * Der Import läuft; {@code imported} und {@code failures} wachsen mit jedem abgeschlossenen Block.
+     */
+    RUNNING,
+
+    /**
+     * Alle Blöcke wurden verarbeitet.
+     */
+    COMPLETED,
+
+    /**
+     * Der Import wurde durch einen unerwarteten Fehler abgebrochen.
+     */
+    FAILED
+}
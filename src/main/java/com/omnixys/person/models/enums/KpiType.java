@@ -0,0 +1,21 @@
+package com.omnixys.person.models.enums;
+
+/**
+ * Arten von KPI-Ereignissen, die der {@code KpiAggregator} je Intervall zusammenfasst.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum KpiType {
+
+    /**
+     * Ein Kunde wurde angelegt; wird auf {@code kpi.create.person} gemeldet.
+     */
+    PERSON_CREATED,
+
+    /**
+     * Ein Kunde wurde gelöscht; wird auf {@code all.delete.person} gemeldet.
+     */
+    PERSON_DELETED
+}
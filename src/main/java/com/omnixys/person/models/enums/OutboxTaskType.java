@@ -0,0 +1,30 @@
+package com.omnixys.person.models.enums;
+
+/**
+ * Arten von Aufgaben, die über die Outbox asynchron abgearbeitet werden.
+ * <p>
+ * Die Aufgaben werden innerhalb derselben MongoDB-Transaktion wie die eigentliche Änderung gespeichert
+ * und anschließend vom {@code OutboxProcessor} ausgeführt.
+ * </p>
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum OutboxTaskType {
+
+    /**
+     * Entfernt den Benutzer einer gelöschten Person aus Keycloak.
+     */
+    KEYCLOAK_DELETE_USER,
+
+    /**
+     * Überträgt Profiländerungen nach Keycloak, die wegen eines offenen Circuits zurückgestellt wurden.
+     */
+    KEYCLOAK_UPDATE_USER,
+
+    /**
+     * Benachrichtigt die nachgelagerten Services (Konto, Warenkorb, Mail, KPI) über einen gelöschten Kunden.
+     */
+    CUSTOMER_DELETED
+}
@@ -0,0 +1,25 @@
+package com.omnixys.person.models.events;
+
+/**
+ * Zusammenfassung aller KPI-Ereignisse eines Typs innerhalb eines Intervalls.
+ * <p>
+ * {@code createdAt} bleibt aus dem bisherigen Einzel-Event erhalten und entspricht dem Ende des Intervalls.
+ * </p>
+ *
+ * @param type        Der KPI-Typ (z.B. "PERSON_CREATED")
+ * @param count       Anzahl der Ereignisse im Intervall
+ * @param windowStart Beginn des Intervalls (ISO-8601)
+ * @param windowEnd   Ende des Intervalls (ISO-8601)
+ * @param firstAt     Zeitpunkt des ersten Ereignisses im Intervall (ISO-8601)
+ * @param lastAt      Zeitpunkt des letzten Ereignisses im Intervall (ISO-8601)
+ * @param createdAt   Zeitpunkt der Zusammenfassung (ISO-8601)
+ */
+public record KpiSummaryDTO(
+    String type,
+    long count,
+    String windowStart,
+    String windowEnd,
+    String firstAt,
+    String lastAt,
+    String createdAt
+) {}
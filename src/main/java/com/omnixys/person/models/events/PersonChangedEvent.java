@@ -0,0 +1,23 @@
+package com.omnixys.person.models.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Kompaktes Änderungsereignis aus dem Change-Stream der Collections {@code persons} und {@code contacts}.
+ * <p>
+ * Wird als Kafka-Event auf {@code person.changed} (Schlüssel = ID) und lokal als Spring-Event veröffentlicht.
+ * Empfänger laden bei Bedarf den aktuellen Stand nach.
+ * </p>
+ *
+ * @param id         ID des geänderten Dokuments.
+ * @param entity     Betroffene Entität, {@code person} oder {@code contact}.
+ * @param operation  Art der Änderung, z.B. {@code insert}, {@code update}, {@code replace}, {@code delete}.
+ * @param changedAt  Zeitpunkt der Änderung laut Oplog.
+ */
+public record PersonChangedEvent(
+    UUID id,
+    String entity,
+    String operation,
+    Instant changedAt
+) {}
@@ -0,0 +1,61 @@
+package com.omnixys.person.models.events;
+
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.models.enums.StatusType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Kompakte Projektion einer Person für das kompaktierte Topic {@code person.snapshot}.
+ * <p>
+ * Schlüssel ist die Personen-ID; nach der Kompaktierung bleibt je Person nur der letzte Stand. Andere Services
+ * können damit ihren lokalen Cache aus Kafka aufbauen, statt die GraphQL-API abzufragen. Eine gelöschte Person
+ * wird durch einen Tombstone (Wert {@code null}) entfernt.
+ * </p>
+ *
+ * @param id            ID der Person.
+ * @param version       Versionsnummer; Empfänger können ältere Stände verwerfen.
+ * @param personType    {@code CUSTOMER} oder {@code EMPLOYEE}.
+ * @param username      Benutzername.
+ * @param email         E-Mail-Adresse.
+ * @param firstName     Vorname.
+ * @param lastName      Nachname.
+ * @param tierLevel     Kundenstufe, nur bei Kunden.
+ * @param customerState Kundenstatus, nur bei Kunden.
+ * @param role          Rolle, nur bei Mitarbeitern.
+ * @param updated       Zeitpunkt der letzten Änderung.
+ */
+public record PersonSnapshot(
+    UUID id,
+    int version,
+    PersonType personType,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    Integer tierLevel,
+    StatusType customerState,
+    String role,
+    LocalDateTime updated
+) {
+
+    public static PersonSnapshot of(final Person person) {
+        final var customer = person.getCustomer();
+        final var employee = person.getEmployee();
+        return new PersonSnapshot(
+            person.getId(),
+            person.getVersion(),
+            person.getPersonType(),
+            person.getUsername(),
+            person.getEmail(),
+            person.getFirstName(),
+            person.getLastName(),
+            customer != null ? customer.getTierLevel() : null,
+            customer != null ? customer.getCustomerState() : null,
+            employee != null ? employee.getRole() : null,
+            person.getUpdated()
+        );
+    }
+}
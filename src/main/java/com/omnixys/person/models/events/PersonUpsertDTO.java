@@ -0,0 +1,81 @@
+package com.omnixys.person.models.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.omnixys.person.models.entities.Address;
+import com.omnixys.person.models.entities.Employee;
+import com.omnixys.person.models.enums.ContactOptionsType;
+import com.omnixys.person.models.enums.GenderType;
+import com.omnixys.person.models.enums.InterestType;
+import com.omnixys.person.models.enums.MaritalStatusType;
+import com.omnixys.person.models.enums.PersonType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Eingehende Person aus einem Umsystem (z.B. CRM) auf {@code person.upsert}.
+ * <p>
+ * Enthält nur die Felder, die das Umsystem verwaltet. Felder dieses Services wie {@code keycloakId},
+ * {@code customer.contactIds}, {@code created} und {@code version} werden beim Lesen ignoriert und beim
+ * Upsert nicht überschrieben. Fehlende optionale Felder ({@code null}) lassen den gespeicherten Wert unverändert.
+ * </p>
+ *
+ * @param id          ID der Person (Pflicht).
+ * @param username    Benutzername (Pflicht).
+ * @param email       E-Mail-Adresse (Pflicht).
+ * @param personType  Kunde oder Mitarbeiter (Pflicht).
+ * @param lastName    Nachname.
+ * @param firstName   Vorname.
+ * @param phoneNumber Telefonnummer.
+ * @param birthdate   Geburtsdatum.
+ * @param gender      Geschlecht.
+ * @param address     Adresse.
+ * @param customer    Kundendaten aus dem Umsystem.
+ * @param employee    Mitarbeiterdaten.
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PersonUpsertDTO(
+    UUID id,
+    String username,
+    String email,
+    PersonType personType,
+    String lastName,
+    String firstName,
+    String phoneNumber,
+    LocalDate birthdate,
+    GenderType gender,
+    Address address,
+    CustomerUpsertDTO customer,
+    Employee employee
+) {
+
+    /**
+     * Kundendaten aus dem Umsystem, ohne die Kontakte dieses Services.
+     *
+     * @param tierLevel      Kundenstufe.
+     * @param subscribed     Ist der Kunde abonniert?
+     * @param maritalStatus  Familienstand.
+     * @param interests      Interessen.
+     * @param contactOptions Bevorzugte Kontaktoptionen.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CustomerUpsertDTO(
+        Integer tierLevel,
+        Boolean subscribed,
+        MaritalStatusType maritalStatus,
+        List<InterestType> interests,
+        List<ContactOptionsType> contactOptions
+    ) {
+    }
+
+    /**
+     * @return {@code true}, wenn alle Pflichtfelder gesetzt sind.
+     */
+    public boolean isComplete() {
+        return id != null && username != null && email != null && personType != null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.omnixys.person.models.payload;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Massenimports von Kunden.
+ *
+ * @param total    Anzahl der übergebenen Kunden.
+ * @param imported Anzahl der erfolgreich angelegten Kunden.
+ * @param failures Fehlgeschlagene Kunden mit Begründung.
+ */
+public record ImportReport(
+    int total,
+    int imported,
+    List<ImportFailure> failures
+) {
+
+  /**
+   * Ein fehlgeschlagener Kunde im Import.
+   *
+   * @param username Benutzername des Kunden.
+   * @param reason   Grund des Fehlschlags.
+   */
+  public record ImportFailure(String username, String reason) {
+  }
+}
@@ -27,6 +27,15 @@ public interface ContactRepository extends MongoRepository<Contact, UUID> {
      */
     List<Contact> findByLastName(String lastName);
 
+    /**
+     * Löscht einen Kontakt nur dann, wenn seine Version noch aktuell ist.
+     *
+     * @param id      ID des Kontakts.
+     * @param version Erwartete Version des Kontakts.
+     * @return Anzahl der gelöschten Kontakte (0 bei unbekannter ID oder veralteter Version).
+     */
+    long deleteByIdAndVersion(UUID id, int version);
+
     // Optional: Weitere Methoden bei Bedarf
     // z. B. findByFirstName, findByRelationship etc.
 }
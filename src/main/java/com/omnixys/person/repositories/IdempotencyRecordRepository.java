@@ -0,0 +1,15 @@
+package com.omnixys.person.repositories;
+
+import com.omnixys.person.models.entities.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository für die gespeicherten Ergebnisse idempotenter Mutationen.
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String> {
+}
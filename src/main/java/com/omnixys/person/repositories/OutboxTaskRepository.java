@@ -0,0 +1,17 @@
+package com.omnixys.person.repositories;
+
+import com.omnixys.person.models.entities.OutboxTask;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository für die dauerhaft gespeicherten {@link OutboxTask}-Dokumente.
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Repository
+public interface OutboxTaskRepository extends MongoRepository<OutboxTask, UUID> {
+}
@@ -2,6 +2,8 @@ package com.omnixys.person.repositories;
 
 import com.omnixys.person.models.entities.Person;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -50,4 +52,47 @@ public interface PersonRepository extends MongoRepository<Person, UUID> {
      * @return true, wenn eine Person mit diesem Benutzernamen existiert.
      */
     boolean existsByUsername(String username);
+
+    /**
+     * Hängt atomar eine Kontakt-ID an die Kontaktliste eines Kunden an.
+     * <p>
+     * Die Änderung greift nur, wenn die übergebene Version noch aktuell ist, und erhöht die Version, damit
+     * ein zweiter Aufruf mit derselben Version scheitert.
+     * </p>
+     *
+     * @param id        Die ID des Kunden.
+     * @param version   Die erwartete Version des Kunden.
+     * @param contactId Die anzuhängende Kontakt-ID.
+     * @return Anzahl der geänderten Dokumente (0 bei veralteter Version).
+     */
+    @Query("{ '_id': ?0, 'version': ?1 }")
+    @Update("{ '$push': { 'customer.contactIds': ?2 }, '$inc': { 'version': 1 } }")
+    long pushContactId(UUID id, int version, UUID contactId);
+
+    /**
+     * Entfernt atomar eine Kontakt-ID aus der Kontaktliste eines Kunden.
+     * <p>
+     * Die Änderung greift nur, wenn die übergebene Version noch aktuell ist
+     * und der Kontakt dem Kunden zugeordnet ist. Die Version wird erhöht.
+     * </p>
+     *
+     * @param id        Die ID des Kunden.
+     * @param version   Die erwartete Version des Kunden.
+     * @param contactId Die zu entfernende Kontakt-ID.
+     * @return Anzahl der geänderten Dokumente (0 bei veralteter Version oder fremdem Kontakt).
+     */
+    @Query("{ '_id': ?0, 'version': ?1, 'customer.contactIds': ?2 }")
+    @Update("{ '$pull': { 'customer.contactIds': ?2 }, '$inc': { 'version': 1 } }")
+    long pullContactId(UUID id, int version, UUID contactId);
+
+    /**
+     * Speichert die Keycloak-ID einer Person, ohne das restliche Dokument zu überschreiben.
+     *
+     * @param id         Die ID der Person.
+     * @param keycloakId Die ID des Benutzers in Keycloak.
+     * @return Anzahl der geänderten Dokumente.
+     */
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'keycloakId': ?1 } }")
+    long setKeycloakId(UUID id, String keycloakId);
 }
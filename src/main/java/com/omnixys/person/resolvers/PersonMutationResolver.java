@@ -4,6 +4,7 @@ import com.omnixys.person.exceptions.AccessForbiddenException;
 import com.omnixys.person.exceptions.ConstraintViolationsException;
 import com.omnixys.person.exceptions.ContactExistsException;
 import com.omnixys.person.exceptions.EmailExistsException;
+import com.omnixys.person.exceptions.IdempotencyConflictException;
 import com.omnixys.person.exceptions.NotFoundException;
 import com.omnixys.person.exceptions.PasswordInvalidException;
 import com.omnixys.person.exceptions.UsernameExistsException;
@@ -17,7 +18,11 @@ import com.omnixys.person.models.inputs.CreateCustomerInput;
 import com.omnixys.person.models.inputs.CreateEmployeeInput;
 import com.omnixys.person.models.mapper.ContactMapper;
 import com.omnixys.person.models.mapper.PersonMapper;
+import com.omnixys.person.models.payload.ImportReport.ImportFailure;
 import com.omnixys.person.security.CustomUserDetails;
+import com.omnixys.person.services.IdempotencyService;
+import com.omnixys.person.services.PersonImportService;
+import com.omnixys.person.services.PersonImportService.CustomerImport;
 import com.omnixys.person.services.PersonWriteService;
 import com.omnixys.person.tracing.LoggerPlus;
 import com.omnixys.person.tracing.LoggerPlusFactory;
@@ -29,6 +34,7 @@ import jakarta.annotation.security.PermitAll;
 import jakarta.validation.ConstraintViolation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -44,6 +50,7 @@ import java.util.UUID;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static com.omnixys.person.config.IdempotencyKeyInterceptor.IDEMPOTENCY_KEY;
 import static com.omnixys.person.exceptions.CustomErrorType.CONFLICT;
 import static com.omnixys.person.exceptions.CustomErrorType.PRECONDITION_FAILED;
 import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
@@ -65,6 +72,8 @@ public class PersonMutationResolver {
     private final PersonMapper personMapper;
     private final ValidationService validation;
     private final ContactMapper contactMapper;
+    private final IdempotencyService idempotencyService;
+    private final PersonImportService personImportService;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
@@ -73,14 +82,23 @@ public class PersonMutationResolver {
     /**
      * Erstellt einen neuen Kunden im System und gibt dessen UUID zurück.
      *
+     * <p>
+     * Mit einem Idempotency-Key (Argument oder HTTP-Header {@code Idempotency-Key}) liefert eine
+     * Wiederholung die UUID des bereits erstellten Kunden, statt einen zweiten anzulegen.
+     * </p>
+     *
      * @param createCustomerInput Eingabedaten für neuen Kunden
+     * @param idempotencyKey Optionaler Idempotency-Key als Argument
+     * @param headerKey Optionaler Idempotency-Key aus dem HTTP-Header
      * @return UUID des neu erstellten Kunden
      */
 
     @MutationMapping("createCustomer")
     @PermitAll
     UUID createCustomer(
-        @Argument("input") final CreateCustomerInput createCustomerInput
+        @Argument("input") final CreateCustomerInput createCustomerInput,
+        @Argument("idempotencyKey") final String idempotencyKey,
+        @ContextValue(name = IDEMPOTENCY_KEY, required = false) final String headerKey
     ) {
         logger().debug("createCustomer: personDTO={}, customerDTO={}", createCustomerInput.personInput(), createCustomerInput.customerInput());
         logger().debug("Starte Erstellung eines neuen Kunden: Person={}, Customer={}, User={}",
@@ -91,13 +109,49 @@ public class PersonMutationResolver {
         // DTO-Validierung
         validation.validateDTO(createCustomerInput);
 
-        // Mapping auf Entität
-        final var customerInput = personMapper.toPerson(createCustomerInput);
-        final var user = createCustomerInput.userInput();
-        final var customer = personWriteService.createCustomer(customerInput, user.password() );
+        final var key = idempotencyKey != null ? idempotencyKey : headerKey;
+        final var customerId = idempotencyService.execute(key, "createCustomer", createCustomerInput, () -> {
+            // Mapping auf Entität
+            final var customerInput = personMapper.toPerson(createCustomerInput);
+            final var user = createCustomerInput.userInput();
+            final var customer = personWriteService.createCustomer(customerInput, user.password() );
+            logger().debug("createCustomer: customer={}", customer);
+            return customer.getId();
+        });
+
+        logger().debug("createCustomer: customerId={}", customerId);
+        return customerId;
+    }
 
-        logger().debug("createCustomer: customer={}", customer);
-        return customer.getId();
+    /**
+     * Startet den Import vieler Kunden; ungültige Einträge erscheinen im Job statt den Import abzubrechen.
+     * <p>
+     * Der Import läuft asynchron, der Stand ist über die Query {@code importJob} abrufbar.
+     * </p>
+     *
+     * @param inputs Eingabedaten der Kunden
+     * @return ID des Import-Jobs
+     */
+    @MutationMapping("importCustomers")
+    @PreAuthorize("hasRole('ADMIN')")
+    UUID importCustomers(
+        @Argument("input") final List<CreateCustomerInput> inputs
+    ) {
+        logger().debug("importCustomers: {} Kunden", inputs.size());
+        final var customers = new ArrayList<CustomerImport>(inputs.size());
+        final var invalid = new ArrayList<ImportFailure>();
+        for (final var input : inputs) {
+            try {
+                validation.validateDTO(input);
+                customers.add(new CustomerImport(personMapper.toPerson(input), input.userInput().password()));
+            } catch (ConstraintViolationsException e) {
+                invalid.add(new ImportFailure(input.userInput().username(), e.getMessage()));
+            }
+        }
+
+        final var job = personImportService.startImport(customers, invalid);
+        logger().debug("importCustomers: jobId={}", job.getId());
+        return job.getId();
     }
 
     @MutationMapping("updateCustomer")
@@ -190,6 +244,8 @@ public class PersonMutationResolver {
     UUID addContact(
         @Argument("id") final UUID id,
         @Argument("input") final ContactDTO contactDTO,
+        @Argument("idempotencyKey") final String idempotencyKey,
+        @ContextValue(name = IDEMPOTENCY_KEY, required = false) final String headerKey,
         final Authentication authentication
     ) {
         logger().debug("addContact: id={}, contactDTO={}", id, contactDTO);
@@ -197,8 +253,11 @@ public class PersonMutationResolver {
         validation.validateDTO(contactDTO);
         logger().trace("addContact: No constraints violated");
 
-        final var customerInput = contactMapper.toContact(contactDTO);
-        final var newContactId = personWriteService.addContact(id, customerInput, user);
+        final var key = idempotencyKey != null ? idempotencyKey : headerKey;
+        // Kunde und Benutzer gehören zum Fingerabdruck, damit ein Key nicht fremde Ergebnisse liefert
+        final var request = List.of(id, user.getUsername(), contactDTO);
+        final var newContactId = idempotencyService.execute(key, "addContact", request, () ->
+            personWriteService.addContact(id, contactMapper.toContact(contactDTO), user));
 
         logger().debug("addContact: newContactId={}", newContactId);
         return newContactId;
@@ -333,6 +392,24 @@ public class PersonMutationResolver {
             .build();
     }
 
+    /**
+     * Behandelt eine `IdempotencyConflictException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
+     *
+     * @param ex Die ausgelöste Ausnahme.
+     * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+     * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+     */
+    @GraphQlExceptionHandler
+    GraphQLError onIdempotencyConflict(final IdempotencyConflictException ex, DataFetchingEnvironment env) {
+        logger().warn("onIdempotencyConflict: {}", ex.getMessage());
+        return GraphQLError.newError()
+            .errorType(CONFLICT)
+            .message(ex.getMessage())
+            .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+            .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+            .build();
+    }
+
     /**
      * Behandelt eine `AccessForbiddenException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
      *
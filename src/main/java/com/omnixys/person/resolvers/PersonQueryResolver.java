@@ -3,12 +3,14 @@ package com.omnixys.person.resolvers;
 import com.omnixys.person.exceptions.AccessForbiddenException;
 import com.omnixys.person.exceptions.NotFoundException;
 import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.entities.ImportJob;
 import com.omnixys.person.models.entities.Person;
 import com.omnixys.person.models.inputs.FilterInput;
 import com.omnixys.person.models.inputs.PaginationInput;
 import com.omnixys.person.models.inputs.SortInput;
 import com.omnixys.person.security.CustomUserDetails;
 import com.omnixys.person.services.ContactReadService;
+import com.omnixys.person.services.PersonImportService;
 import com.omnixys.person.services.PersonReadService;
 import com.omnixys.person.services.PersonWriteService;
 import com.omnixys.person.tracing.LoggerPlus;
@@ -48,6 +50,7 @@ public class PersonQueryResolver {
 
     private final PersonReadService personReadService;
     private final ContactReadService contactReadService;
+    private final PersonImportService personImportService;
     private final LoggerPlusFactory factory;
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
@@ -81,6 +84,18 @@ public class PersonQueryResolver {
         return getPerson(id, authentication);
     }
 
+    /**
+     * Liefert den Stand eines Kundenimports.
+     *
+     * @param id Die ID des Import-Jobs.
+     * @return Der Import-Job.
+     */
+    @QueryMapping("importJob")
+    @PreAuthorize("hasRole('ADMIN')")
+    ImportJob getImportJob(@Argument final UUID id) {
+        return personImportService.findJob(id).orElseThrow(() -> new NotFoundException(id));
+    }
+
     /**
      * GraphQL-Query für `customers`.
      *
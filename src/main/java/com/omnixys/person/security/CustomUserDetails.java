@@ -1,16 +1,23 @@
 package com.omnixys.person.security;
 
+import com.omnixys.person.security.enums.RoleType;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Repräsentiert benutzerdefinierte Benutzerinformationen für die Authentifizierung.
  * <p>
  * Diese Klasse wird für OAuth2-Authentifizierung verwendet und enthält keine Passwortinformationen.
+ * Die Rollen liegen zusätzlich als {@link EnumSet} vor, sodass Rollenprüfungen Bit-Tests statt
+ * String-Vergleiche sind.
  * </p>
  *
  * @since 14.02.2025
@@ -22,16 +29,22 @@ public class CustomUserDetails implements UserDetails {
     private final String username;
     private final Collection<? extends GrantedAuthority> authorities;
     private final Jwt jwt;
+    private final Set<RoleType> roles;
 
     /**
      * Erstellt eine Instanz von `CustomUserDetails`.
      *
-     * @param username    Der Benutzername.
-     * @param authorities Die zugewiesenen Berechtigungen.
+     * @param username Der Benutzername.
+     * @param roles    Die zugewiesenen Rollen.
+     * @param jwt      Das JWT des Benutzers.
      */
-    public CustomUserDetails(String username, Collection<? extends GrantedAuthority> authorities, final Jwt jwt) {
+    public CustomUserDetails(String username, Set<RoleType> roles, final Jwt jwt) {
         this.username = username;
-        this.authorities = authorities;
+        final var roleSet = roles.isEmpty() ? EnumSet.noneOf(RoleType.class) : EnumSet.copyOf(roles);
+        this.roles = Collections.unmodifiableSet(roleSet);
+        this.authorities = roleSet.stream()
+            .map(role -> new SimpleGrantedAuthority(RoleType.ROLE_PREFIX + role.name()))
+            .toList();
         this.jwt = jwt;
     }
 
@@ -43,4 +56,33 @@ public class CustomUserDetails implements UserDetails {
     public String getToken() {
         return jwt.getTokenValue();
     }
+
+    /**
+     * Prüft, ob der Benutzer die Rolle besitzt.
+     *
+     * @param role Die Rolle.
+     * @return {@code true}, wenn der Benutzer die Rolle besitzt.
+     */
+    public boolean hasRole(final RoleType role) {
+        return roles.contains(role);
+    }
+
+    /**
+     * Liefert die Rollen eines beliebigen `UserDetails`-Objekts.
+     *
+     * @param user Der Benutzer.
+     * @return Die Rollen; unbekannte Berechtigungen werden ignoriert.
+     */
+    public static Set<RoleType> rolesOf(final UserDetails user) {
+        if (user instanceof CustomUserDetails customUserDetails) {
+            return customUserDetails.getRoles();
+        }
+        final var roles = EnumSet.noneOf(RoleType.class);
+        user.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith(RoleType.ROLE_PREFIX))
+            .map(authority -> authority.substring(RoleType.ROLE_PREFIX.length()))
+            .forEach(name -> RoleType.lookup(name).ifPresent(roles::add));
+        return roles;
+    }
 }
@@ -0,0 +1,38 @@
+package com.omnixys.person.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Konfigurationseigenschaften für den HTTP-Client zur Keycloak-Admin-API.
+ * <p>
+ * Geladen aus {@code app.keycloak.http} in `application.yml`.
+ * </p>
+ *
+ * @param http2                    Verwendet den JDK-HttpClient mit HTTP/2 statt des Apache-Verbindungspools.
+ * @param maxConnections           Maximale Anzahl Verbindungen im Pool.
+ * @param maxConnectionsPerRoute   Maximale Anzahl Verbindungen pro Route (Host/Port).
+ * @param connectTimeout           Timeout für den Verbindungsaufbau.
+ * @param readTimeout              Timeout für die Antwort (Socket-Timeout).
+ * @param connectionRequestTimeout Wartezeit auf eine freie Verbindung aus dem Pool.
+ * @param timeToLive               Maximale Lebensdauer einer Verbindung.
+ * @param idleTimeout              Leerlaufzeit, nach der eine Verbindung geschlossen wird.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.keycloak.http")
+public record KeycloakHttpProps(
+  @DefaultValue("false") boolean http2,
+  @DefaultValue("50") int maxConnections,
+  @DefaultValue("50") int maxConnectionsPerRoute,
+  @DefaultValue("2s") Duration connectTimeout,
+  @DefaultValue("5s") Duration readTimeout,
+  @DefaultValue("1s") Duration connectionRequestTimeout,
+  @DefaultValue("5m") Duration timeToLive,
+  @DefaultValue("30s") Duration idleTimeout
+) {
+}
@@ -1,9 +1,11 @@
 package com.omnixys.person.security;
 
+import com.omnixys.person.security.dto.PartialImportResultDTO;
 import com.omnixys.person.security.dto.RoleDTO;
 import com.omnixys.person.security.dto.TokenDTO;
 import com.omnixys.person.security.dto.UserInfoDTO;
 import com.omnixys.person.security.dto.UserRepresentation;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -49,13 +51,26 @@ public interface KeycloakRepository {
       @RequestHeader(CONTENT_TYPE) String contentType
   );
 
+  /**
+   * Legt einen Benutzer an; die ID des neuen Benutzers steht im {@code Location}-Header der Antwort.
+   */
   @PostExchange("auth/admin/realms/camunda-platform/users")
-  void signIn(
+  ResponseEntity<Void> signIn(
     @RequestBody String customer,
     @RequestHeader(AUTHORIZATION) String authorization,
     @RequestHeader(CONTENT_TYPE) String contentType
   );
 
+  /**
+   * Legt viele Benutzer inkl. Realm-Rollen mit einem einzigen Aufruf an; vorhandene Benutzer werden übersprungen.
+   */
+  @PostExchange("auth/admin/realms/camunda-platform/partialImport")
+  PartialImportResultDTO partialImport(
+    @RequestBody String importData,
+    @RequestHeader(AUTHORIZATION) String authorization,
+    @RequestHeader(CONTENT_TYPE) String contentType
+  );
+
   @PostExchange("auth/admin/realms/camunda-platform/users/{userId}/role-mappings/realm")
   void assignRoleToUser(
     @RequestBody String roleData,
@@ -98,7 +113,14 @@ public interface KeycloakRepository {
     @PathVariable("userId") String userId
   );
 
-  @GetExchange("auth/admin/realms/camunda-platform/users?username={username}")
+  @GetExchange("auth/admin/realms/camunda-platform/users?first={first}&max={max}&briefRepresentation=true")
+  List<UserRepresentation> getUsers(
+    @RequestHeader(AUTHORIZATION) String authorization,
+    @PathVariable("first") int first,
+    @PathVariable("max") int max
+  );
+
+  @GetExchange("auth/admin/realms/camunda-platform/users?username={username}&exact=true")
   List<UserRepresentation> getUserByUsername(
     @RequestHeader(AUTHORIZATION) String authorization,
     @PathVariable("username") String username
@@ -0,0 +1,38 @@
+package com.omnixys.person.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen für Circuit-Breaker und Bulkhead je Keycloak-Operation.
+ * <p>
+ * Geladen aus {@code app.keycloak.resilience} in `application.yml`.
+ * </p>
+ *
+ * @param failureRateThreshold   Fehlerquote in Prozent, ab der der Circuit öffnet.
+ * @param slowCallRateThreshold  Quote langsamer Aufrufe in Prozent, ab der der Circuit öffnet.
+ * @param slowCallDuration       Dauer, ab der ein Aufruf als langsam gilt.
+ * @param slidingWindowSize      Anzahl der Aufrufe im Bewertungsfenster.
+ * @param minimumNumberOfCalls   Mindestanzahl Aufrufe, bevor bewertet wird.
+ * @param waitDurationInOpenState Wartezeit im Zustand OPEN bis zum Übergang nach HALF_OPEN.
+ * @param maxConcurrentCalls     Maximale Anzahl gleichzeitiger Aufrufe je Operation.
+ * @param maxWaitDuration        Maximale Wartezeit auf einen freien Platz im Bulkhead.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.keycloak.resilience")
+public record KeycloakResilienceProps(
+  @DefaultValue("50") float failureRateThreshold,
+  @DefaultValue("50") float slowCallRateThreshold,
+  @DefaultValue("2s") Duration slowCallDuration,
+  @DefaultValue("20") int slidingWindowSize,
+  @DefaultValue("10") int minimumNumberOfCalls,
+  @DefaultValue("10s") Duration waitDurationInOpenState,
+  @DefaultValue("20") int maxConcurrentCalls,
+  @DefaultValue("100ms") Duration maxWaitDuration
+) {
+}
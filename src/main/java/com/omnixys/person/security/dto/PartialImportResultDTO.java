@@ -0,0 +1,39 @@
+package com.omnixys.person.security.dto;
+
+import java.util.List;
+
+/**
+ * Antwort des Keycloak-Endpunkts {@code partialImport}.
+ *
+ * @param added       Anzahl neu angelegter Ressourcen.
+ * @param skipped     Anzahl übersprungener (bereits vorhandener) Ressourcen.
+ * @param overwritten Anzahl überschriebener Ressourcen.
+ * @param results     Ergebnis je Ressource.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public record PartialImportResultDTO(
+    int added,
+    int skipped,
+    int overwritten,
+    List<Result> results
+) {
+
+  /**
+   * Ergebnis für eine einzelne Ressource.
+   *
+   * @param action       {@code ADDED}, {@code SKIPPED} oder {@code OVERWRITTEN}.
+   * @param resourceType Art der Ressource, z.B. {@code USER}.
+   * @param resourceName Name der Ressource, bei Benutzern der Benutzername.
+   * @param id           ID der Ressource in Keycloak.
+   */
+  public record Result(
+      String action,
+      String resourceType,
+      String resourceName,
+      String id
+  ) {
+  }
+}
@@ -5,6 +5,10 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Definiert verschiedene Benutzerrollen in der Anwendung.
@@ -27,6 +31,12 @@ public enum RoleType {
 
   public static final String ROLE_PREFIX = "ROLE_";
 
+  /**
+   * Rollen nach Enum-Namen, damit unbekannte Rollen aus einem JWT ohne {@code valueOf}-Ausnahme erkannt werden.
+   */
+  private static final Map<String, RoleType> BY_NAME = Arrays.stream(values())
+      .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
   private final String role;
 
   /**
@@ -65,4 +75,14 @@ public enum RoleType {
   public String getPrefixedRole() {
     return ROLE_PREFIX + role.toUpperCase();
   }
+
+  /**
+   * Sucht eine Rolle anhand ihres Enum-Namens, z.B. {@code ADMIN}.
+   *
+   * @param name der Enum-Name der Rolle.
+   * @return die Rolle oder {@code Optional.empty()}, wenn es keine solche Rolle gibt.
+   */
+  public static Optional<RoleType> lookup(final String name) {
+    return Optional.ofNullable(BY_NAME.get(name));
+  }
 }
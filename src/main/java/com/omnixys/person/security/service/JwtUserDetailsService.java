@@ -1,23 +1,30 @@
 package com.omnixys.person.security.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import com.omnixys.person.messaging.KafkaPublisherService;
 import com.omnixys.person.security.CustomUserDetails;
 import com.omnixys.person.security.enums.RoleType;
-import com.omnixys.person.tracing.LoggerPlus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Service zur Verarbeitung von JWTs und Erstellung von `UserDetails`.
@@ -25,6 +32,11 @@ import java.util.stream.Collectors;
  * Dieser Service analysiert ein JWT, extrahiert Benutzerinformationen und erstellt
  * ein entsprechendes `UserDetails`-Objekt für die Authentifizierung.
  * </p>
+ * <p>
+ * Da derselbe Token bei jeder Anfrage erneut vorgelegt wird, werden die Ergebnisse in einem begrenzten
+ * Cache gehalten. Schlüssel ist der SHA-256-Hash des Tokens, nicht der Token selbst. Ein Eintrag wird
+ * höchstens bis zum Ablauf ({@code exp}) des Tokens verwendet.
+ * </p>
  *
  * @since 14.02.2025
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
@@ -35,6 +47,28 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtUserDetailsService {
     private final KafkaPublisherService kafkaPublisherService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.user-details-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /**
+     * Obergrenze der Verweildauer; die tatsächliche Gültigkeit begrenzt {@code exp} des Tokens.
+     */
+    @Value("${app.security.user-details-cache.max-ttl:5m}")
+    private Duration cacheMaxTtl;
+
+    private Cache<String, CustomUserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheMaxTtl)
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "jwt.user-details");
+    }
 
     /**
      * Erstellt ein `UserDetails`-Objekt aus einem JWT.
@@ -44,8 +78,23 @@ public class JwtUserDetailsService {
      */
     @Observed(name = "jwt-load-user")
     public UserDetails loadUserDetailsFromJwt(Jwt jwt) {
-        log.debug("Extrahiere UserDetails aus JWT: {}", jwt.getTokenValue());
+        final var key = Hashing.sha256().hashString(jwt.getTokenValue(), StandardCharsets.UTF_8).toString();
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isValid(cached.getJwt())) {
+                return cached;
+            }
+            cache.invalidate(key);
+        }
 
+        final var userDetails = createUserDetails(jwt);
+        if (isValid(jwt)) {
+            cache.put(key, userDetails);
+        }
+        return userDetails;
+    }
+
+    private CustomUserDetails createUserDetails(Jwt jwt) {
         // ✅ Extrahiere Benutzername aus JWT (z. B. `preferred_username`)
         String username = jwt.getClaimAsString("preferred_username");
         if (username == null) {
@@ -54,72 +103,44 @@ public class JwtUserDetailsService {
         }
 
         // ✅ Extrahiere Realm-Rollen aus `realm_access.roles`
-        List<String> roles = extractRoles(jwt);
+        final var roles = extractRoles(jwt);
+        log.debug("Benutzer '{}' hat Rollen: {}", username, roles);
 
-        Collection<GrantedAuthority> authorities = roles.stream()
-            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-            .collect(Collectors.toList());
-
-        log.debug("Benutzer '{}' hat Rollen: {}", username, authorities);
-
-        return new CustomUserDetails(username, authorities,jwt);
+        return new CustomUserDetails(username, roles, jwt);
     }
 
     public List<RoleType> getUserRoles(final UserDetails user) {
-        return user.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .map(str -> str.substring(RoleType.ROLE_PREFIX.length()))
-            .map(RoleType::valueOf)
-            .toList();
+        return List.copyOf(CustomUserDetails.rolesOf(user));
     }
 
     /**
      * Extrahiert die Rollen aus `realm_access.roles`, auch wenn sie verschachtelt sind.
+     * Unbekannte Rollen werden ignoriert.
      *
      * @param jwt Das JWT-Token
-     * @return Eine Liste der extrahierten Rollen
+     * @return Die bekannten Rollen
      */
-    private List<String> extractRoles(Jwt jwt) {
-        List<String> roles = jwt.getClaimAsStringList("realm_access.roles");
+    private Set<RoleType> extractRoles(Jwt jwt) {
+        Collection<?> roles = jwt.getClaimAsStringList("realm_access.roles");
 
         if (roles == null) {
             // Falls `roles` null ist, versuche, sie aus einer verschachtelten Struktur zu extrahieren
             Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-            if (realmAccess != null && realmAccess.containsKey("roles")) {
-                @SuppressWarnings("unchecked")
-                List<String> extractedRoles = (List<String>) realmAccess.get("roles");
-                // logger.debug("Extracted roles: {}", extractedRoles);
-                return extractedRoles != null
-                    ? extractedRoles.stream()
-                    .map(role -> role.replace(" ", "_").toUpperCase()) // Ersetzt Leerzeichen mit Unterstrichen
-                    .filter(this::isValidRole) // Überprüft, ob die Rolle existiert
-                    .toList()
-
-                    : new ArrayList<>();
+            if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> extractedRoles) {
+                roles = extractedRoles;
             }
         }
-        return roles != null
-            // ✅ Entferne Leerzeichen und konvertiere in Uppercase
-            ? roles.stream()
-                .map(role -> role.replace(" ", "_").toUpperCase()) // Ersetzt Leerzeichen mit Unterstrichen
-                .filter(this::isValidRole) // Überprüft, ob die Rolle existiert
-                .toList()
-            : new ArrayList<>();
-    }
 
-    /**
-     * Überprüft, ob eine Rolle in der `RoleType`-Enum existiert.
-     *
-     * @param role Der Rollenname
-     * @return `true`, wenn die Rolle existiert, sonst `false`
-     */
-    private boolean isValidRole(String role) {
-        try {
-            RoleType.valueOf(role);
-            return true;
-        } catch (IllegalArgumentException e) {
-            // logger.warn("Unbekannte Rolle: {}", role);
-            return false;
+        final var result = EnumSet.noneOf(RoleType.class);
+        if (roles != null) {
+            roles.forEach(role -> RoleType.lookup(String.valueOf(role).replace(" ", "_").toUpperCase())
+                .ifPresent(result::add));
         }
+        return result;
+    }
+
+    private static boolean isValid(final Jwt jwt) {
+        final var expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && Instant.now().isBefore(expiresAt);
     }
 }
@@ -0,0 +1,244 @@
+package com.omnixys.person.security.service;
+
+import com.omnixys.person.security.KeycloakProps;
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.dto.TokenDTO;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+
+/**
+ * Verwaltet das Admin-Token für die Keycloak-Admin-API.
+ * <p>
+ * Das Token wird bis kurz vor Ablauf von {@code expires_in} zwischengespeichert und danach über den
+ * {@code refresh_token} erneuert. Nur wenn das nicht möglich ist, erfolgt ein neuer Password-Grant.
+ * Gleichzeitige Aufrufer warten auf dieselbe laufende Erneuerung (Single-Flight), statt jeweils selbst
+ * ein Token anzufordern.
+ * </p>
+ * <p>
+ * Aufrufe der Admin-API laufen über {@link #withAccessToken(Function)}: Lehnt Keycloak das Token mit
+ * {@code 401} ab, obwohl es laut {@code expires_in} noch gültig ist (z.B. nach einem Neustart von Keycloak
+ * oder einer beendeten Sitzung), wird es verworfen und der Aufruf einmal mit einem neuen Token wiederholt.
+ * </p>
+ * <p>
+ * Metriken: {@code keycloak.admin-token} mit dem Tag {@code result} = {@code hit}, {@code refresh},
+ * {@code login}, {@code rejected} oder {@code failure}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class KeycloakAdminTokenManager {
+
+  private final KeycloakRepository keycloakRepository;
+  private final KeycloakProps keycloakProps;
+  private final MeterRegistry meterRegistry;
+  private final LoggerPlusFactory factory;
+  private LoggerPlus logger() {
+    return factory.getLogger(getClass());
+  }
+
+  @Value("${app.keycloak.admin-username:admin}")
+  private String adminUsername;
+
+  @Value("${app.keycloak.admin-password:p}")
+  private String adminPassword;
+
+  /**
+   * Sicherheitsabstand vor dem Ablauf, ab dem ein Token nicht mehr verwendet wird.
+   */
+  @Value("${app.keycloak.token-expiry-skew:10s}")
+  private Duration expirySkew;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile CachedToken cached;
+  private String clientAndSecretEncoded;
+
+  private Counter hits;
+  private Counter refreshes;
+  private Counter logins;
+  private Counter rejections;
+  private Counter failures;
+
+  /**
+   * Zwischengespeichertes Token mit den berechneten Ablaufzeitpunkten.
+   */
+  private record CachedToken(String accessToken, Instant expiresAt, String refreshToken, Instant refreshExpiresAt) {}
+
+  @PostConstruct
+  void init() {
+    final var clientAndSecret = keycloakProps.clientId() + ':' + keycloakProps.clientSecret();
+    clientAndSecretEncoded = Base64.getEncoder().encodeToString(clientAndSecret.getBytes(StandardCharsets.UTF_8));
+    hits = counter("hit");
+    refreshes = counter("refresh");
+    logins = counter("login");
+    rejections = counter("rejected");
+    failures = counter("failure");
+  }
+
+  /**
+   * Liefert ein gültiges Admin-Zugriffstoken.
+   *
+   * @return Das Zugriffstoken (ohne {@code Bearer}-Präfix).
+   */
+  public String getAccessToken() {
+    var current = cached;
+    if (isUsable(current)) {
+      hits.increment();
+      return current.accessToken();
+    }
+
+    lock.lock();
+    try {
+      // Ein anderer Thread hat das Token eventuell gerade erneuert
+      current = cached;
+      if (isUsable(current)) {
+        hits.increment();
+        return current.accessToken();
+      }
+      current = fetch(current);
+      cached = current;
+      return current.accessToken();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Führt einen Aufruf der Admin-API mit dem Admin-Token aus.
+   * <p>
+   * Bei {@code 401 Unauthorized} wird das verwendete Token verworfen und der Aufruf genau einmal mit einem
+   * neuen Token wiederholt. Schlägt auch die Wiederholung fehl, erhält der Aufrufer diesen Fehler.
+   * </p>
+   *
+   * @param call Der Aufruf; erhält das Zugriffstoken ohne {@code Bearer}-Präfix.
+   * @param <T>  Typ des Ergebnisses.
+   * @return Das Ergebnis des Aufrufs.
+   */
+  public <T> T withAccessToken(final Function<String, T> call) {
+    final var token = getAccessToken();
+    try {
+      return call.apply(token);
+    } catch (HttpClientErrorException.Unauthorized e) {
+      rejections.increment();
+      logger().warn("withAccessToken: Admin-Token von Keycloak abgelehnt, erneuter Versuch mit neuem Token");
+      invalidate(token);
+      return call.apply(getAccessToken());
+    }
+  }
+
+  /**
+   * Wie {@link #withAccessToken(Function)} für Aufrufe ohne Ergebnis.
+   *
+   * @param call Der Aufruf; erhält das Zugriffstoken ohne {@code Bearer}-Präfix.
+   */
+  public void runWithAccessToken(final Consumer<String> call) {
+    withAccessToken(token -> {
+      call.accept(token);
+      return null;
+    });
+  }
+
+  /**
+   * Verwirft das zwischengespeicherte Token, z.B. nach einer 401-Antwort von Keycloak.
+   */
+  public void invalidate() {
+    cached = null;
+  }
+
+  /**
+   * Verwirft das Token nur, wenn es noch das zwischengespeicherte ist. Hat ein anderer Thread nach derselben
+   * 401-Antwort bereits ein neues Token geholt, bleibt dieses erhalten.
+   */
+  private void invalidate(final String accessToken) {
+    lock.lock();
+    try {
+      final var current = cached;
+      if (current != null && current.accessToken().equals(accessToken)) {
+        cached = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private CachedToken fetch(final CachedToken previous) {
+    final var now = Instant.now();
+    if (previous != null && previous.refreshToken() != null && now.isBefore(previous.refreshExpiresAt())) {
+      try {
+        final var token = keycloakRepository.refreshToken(
+            "grant_type=refresh_token&refresh_token=" + previous.refreshToken()
+                + "&client_id=" + keycloakProps.clientId()
+                + "&client_secret=" + keycloakProps.clientSecret(),
+            "Basic " + clientAndSecretEncoded,
+            APPLICATION_FORM_URLENCODED_VALUE
+        );
+        refreshes.increment();
+        logger().debug("fetch: Admin-Token per refresh_token erneuert");
+        return toCached(token, now);
+      } catch (RuntimeException e) {
+        logger().warn("fetch: refresh fehlgeschlagen, neuer Login: {}", e.getMessage());
+      }
+    }
+
+    try {
+      final var token = keycloakRepository.login(
+          "grant_type=password&username=" + adminUsername
+              + "&password=" + adminPassword
+              + "&client_id=" + keycloakProps.clientId()
+              + "&client_secret=" + keycloakProps.clientSecret()
+              + "&scope=openid",
+          "Basic " + clientAndSecretEncoded,
+          APPLICATION_FORM_URLENCODED_VALUE
+      );
+      logins.increment();
+      logger().debug("fetch: Admin-Token per Login angefordert");
+      return toCached(token, now);
+    } catch (RuntimeException e) {
+      failures.increment();
+      throw e;
+    }
+  }
+
+  private CachedToken toCached(final TokenDTO token, final Instant issuedAt) {
+    // refresh_expires_in = 0 bedeutet: der Refresh-Token läuft nicht ab (Offline-Token)
+    final var refreshExpiresAt = token.refresh_expires_in() > 0
+        ? issuedAt.plusSeconds(token.refresh_expires_in()).minus(expirySkew)
+        : Instant.MAX;
+    return new CachedToken(
+        token.access_token(),
+        issuedAt.plusSeconds(token.expires_in()).minus(expirySkew),
+        token.refresh_token(),
+        refreshExpiresAt
+    );
+  }
+
+  private static boolean isUsable(final CachedToken token) {
+    return token != null && Instant.now().isBefore(token.expiresAt());
+  }
+
+  private Counter counter(final String result) {
+    return Counter.builder("keycloak.admin-token")
+        .description("Anforderungen des Keycloak-Admin-Tokens")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
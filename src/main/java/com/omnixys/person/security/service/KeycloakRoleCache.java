@@ -0,0 +1,95 @@
+package com.omnixys.person.security.service;
+
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.dto.RoleDTO;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Zwischenspeicher für die Zuordnung Realm-Rollenname → Rollen-ID.
+ * <p>
+ * Die Rollen werden beim Start geladen, regelmäßig aktualisiert und bei einem unbekannten Namen sofort
+ * nachgeladen. Die Rollenzuweisung bei der Registrierung benötigt dadurch nur noch einen einzigen POST.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class KeycloakRoleCache {
+
+  private final KeycloakRepository keycloakRepository;
+  private final KeycloakAdminTokenManager adminTokenManager;
+  private final LoggerPlusFactory factory;
+  private LoggerPlus logger() {
+    return factory.getLogger(getClass());
+  }
+
+  private volatile Map<String, String> roleIds = Map.of();
+
+  /**
+   * Liefert die ID einer Realm-Rolle; bei einem Cache-Miss werden die Rollen einmal neu geladen.
+   *
+   * @param roleName Name der Rolle.
+   * @return Die ID der Rolle.
+   * @throws IllegalStateException wenn die Rolle auch nach dem Neuladen unbekannt ist.
+   */
+  public String getRoleId(final String roleName) {
+    var roleId = roleIds.get(roleName);
+    if (roleId == null) {
+      logger().debug("getRoleId: Cache-Miss für {}", roleName);
+      roleId = refresh().get(roleName);
+    }
+    if (roleId == null) {
+      throw new IllegalStateException("RoleDTO not found: " + roleName);
+    }
+    return roleId;
+  }
+
+  /**
+   * Lädt alle Realm-Rollen neu und ersetzt die bisherige Zuordnung.
+   *
+   * @return Die neue Zuordnung Rollenname → Rollen-ID.
+   */
+  @Scheduled(fixedDelayString = "${app.keycloak.role-cache-refresh:10m}", initialDelayString = "${app.keycloak.role-cache-refresh:10m}")
+  public synchronized Map<String, String> refresh() {
+    final var roles = adminTokenManager.withAccessToken(
+        token -> keycloakRepository.getRoles("Bearer " + token, APPLICATION_JSON_VALUE)
+    );
+    // Unveränderlicher Snapshot: Leser greifen ohne Sperre auf die volatile Referenz zu
+    roleIds = roles.stream()
+        .collect(Collectors.toUnmodifiableMap(RoleDTO::name, RoleDTO::id, (first, second) -> first));
+    logger().debug("refresh: {} Rollen geladen", roleIds.size());
+    return roleIds;
+  }
+
+  /**
+   * Aktuelle Zuordnung Rollenname → Rollen-ID.
+   *
+   * @return Unveränderliche Sicht auf den Cache.
+   */
+  public Map<String, String> getRoleIds() {
+    return roleIds;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void loadOnStartup() {
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      // Keycloak ist evtl. noch nicht erreichbar; der erste Cache-Miss lädt die Rollen nach
+      logger().warn("loadOnStartup: Rollen konnten nicht geladen werden: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.omnixys.person.security.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-Endpunkt {@code /actuator/keycloakroles} zum Anzeigen und Neuladen des Rollen-Caches.
+ * Nur für Administratoren zugänglich (siehe {@code SecurityConfig}).
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Component
+@Endpoint(id = "keycloakroles")
+@RequiredArgsConstructor
+public class KeycloakRoleCacheEndpoint {
+
+  private final KeycloakRoleCache keycloakRoleCache;
+
+  @ReadOperation
+  public Map<String, String> roles() {
+    return keycloakRoleCache.getRoleIds();
+  }
+
+  @WriteOperation
+  public Map<String, String> refresh() {
+    return keycloakRoleCache.refresh();
+  }
+}
@@ -2,25 +2,33 @@ package com.omnixys.person.security.service;
 
 import com.omnixys.person.messaging.KafkaPublisherService;
 import com.omnixys.person.resolvers.PersonQueryResolver;
-import com.omnixys.person.security.KeycloakProps;
 import com.omnixys.person.exceptions.NotFoundException;
 import com.omnixys.person.exceptions.SignUpException;
 import com.omnixys.person.models.entities.Person;
 import com.omnixys.person.security.KeycloakRepository;
-import com.omnixys.person.security.dto.TokenDTO;
+import com.omnixys.person.security.dto.PartialImportResultDTO;
 import com.omnixys.person.security.dto.UserRepresentation;
 import com.omnixys.person.tracing.LoggerPlus;
 import com.omnixys.person.tracing.LoggerPlusFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.micrometer.observation.annotation.Observed;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 
-import java.nio.charset.Charset;
-import java.util.Base64;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 /**
@@ -38,33 +46,30 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class KeycloakService {
 
   private final KeycloakRepository keycloakRepository;
-  private final KeycloakProps keycloakProps;
-  private String clientAndSecretEncoded;
+  private final KeycloakAdminTokenManager adminTokenManager;
+  private final KeycloakRoleCache keycloakRoleCache;
+  private final ObjectMapper objectMapper;
   private final LoggerPlusFactory factory;
   private LoggerPlus logger() {
     return factory.getLogger(getClass());
   }
 
-  /**
-   * Kodiert die Client-ID und das Client-Secret für die Authentifizierung mit Keycloak.
-   */
-  @PostConstruct
-  private void encodeClientAndSecret() {
-    final var clientAndSecret = keycloakProps.clientId() + ':' + keycloakProps.clientSecret();
-    clientAndSecretEncoded = Base64
-      .getEncoder()
-      .encodeToString(clientAndSecret.getBytes(Charset.defaultCharset()));
-  }
-
   /**
    * Registriert einen neuen Benutzer in Keycloak.
+   * <p>
+   * Die ID des neuen Benutzers wird aus dem {@code Location}-Header gelesen, anschließend wird die Rolle
+   * direkt über ihre ID zugewiesen. Insgesamt sind das zwei Aufrufe an Keycloak.
+   * </p>
    *
    * @param customer Die Kundendaten.
    * @param password Das Passwort des Kunden.
    * @param role     Die zugewiesene Rolle.
+   * @return Die Keycloak-ID des neuen Benutzers.
+   * @throws SignUpException Falls die Registrierung fehlschlägt; ein angelegter Benutzer wird wieder gelöscht
+   *     oder, falls das nicht gelingt, über {@link SignUpException#getKeycloakId()} gemeldet.
    */
   @Observed(name = "keycloak-sign-in")
-  public void signIn(final Person customer, final String password, final String role) {
+  public String signIn(final Person customer, final String password, final String role) {
     logger().debug("signIn: customer data prepared for registration");
     // logger().debug("signIn: customer={}", customer.getUsername());
 
@@ -92,44 +97,163 @@ public class KeycloakService {
 
     //logger().debug("signIn: customerData={}", customerData);
 
+    String userId = null;
     try {
-      // Register user in Keycloak and get user ID
-      keycloakRepository.signIn(
+      // Register user in Keycloak; the new ID is returned in the Location header
+      final var response = adminTokenManager.withAccessToken(token -> keycloakRepository.signIn(
         customerData,
-        "Bearer " + getAdminToken(),
+        "Bearer " + token,
         APPLICATION_JSON_VALUE
-      );
+      ));
       logger().info("signIn: Customer registered in Keycloak");
 
-      final var accessToken = login(customer.getUsername(), password).access_token();
-      final var userId = getUserInfo(accessToken);
+      userId = extractUserId(response.getHeaders().getLocation());
       logger().debug("signIn: userId={}", userId);
 
       // Assign role to user
       assignRoleToUser(userId, role);
+      return userId;
 
     } catch (Exception e) {
       logger().error("Error during user registration: ", e);
-      throw new SignUpException("User registration failed: " + e.getMessage());
+      // Ohne Rolle ist der Benutzer unbrauchbar und jede Wiederholung scheitert mit 409: wieder entfernen
+      final var orphan = userId != null && !removeUser(userId) ? userId : null;
+      throw new SignUpException("User registration failed: " + e.getMessage(), orphan);
+    }
+  }
+
+  /**
+   * Löscht einen gerade angelegten Benutzer wieder.
+   *
+   * @param userId Die Keycloak-ID des Benutzers.
+   * @return {@code true}, wenn der Benutzer gelöscht wurde.
+   */
+  private boolean removeUser(final String userId) {
+    try {
+      adminTokenManager.runWithAccessToken(token -> keycloakRepository.deleteUser("Bearer " + token, userId));
+      return true;
+    } catch (Exception e) {
+      logger().error("signIn: Benutzer {} konnte nicht entfernt werden: {}", userId, e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Legt viele Benutzer inkl. Realm-Rolle mit einem einzigen Aufruf von {@code partialImport} an.
+   * <p>
+   * Bereits vorhandene Benutzer werden übersprungen ({@code ifResourceExists=SKIP}) und erscheinen im
+   * Ergebnis mit der Aktion {@code SKIPPED}.
+   * </p>
+   *
+   * @param persons   Die anzulegenden Personen.
+   * @param passwords Passwort je Personen-ID.
+   * @param roles     Realm-Rolle je Personen-ID.
+   * @return Ergebnis je Benutzername.
+   */
+  @Observed(name = "keycloak-import-users")
+  public Map<String, PartialImportResultDTO.Result> importUsers(
+    final List<Person> persons,
+    final Map<UUID, String> passwords,
+    final Map<UUID, String> roles
+  ) {
+    logger().debug("importUsers: {} Benutzer", persons.size());
+    final var users = persons.stream()
+      .map(person -> toImportUser(person, passwords.get(person.getId()), roles.get(person.getId())))
+      .toList();
+
+    final String importData;
+    try {
+      importData = objectMapper.writeValueAsString(Map.of("ifResourceExists", "SKIP", "users", users));
+    } catch (JsonProcessingException e) {
+      throw new SignUpException("User import failed: " + e.getMessage());
     }
+
+    final var result = adminTokenManager.withAccessToken(
+      token -> keycloakRepository.partialImport(importData, "Bearer " + token, APPLICATION_JSON_VALUE)
+    );
+    logger().debug("importUsers: added={}, skipped={}", result.added(), result.skipped());
+    return result.results().stream()
+      .filter(entry -> "USER".equals(entry.resourceType()))
+      .collect(Collectors.toMap(PartialImportResultDTO.Result::resourceName, Function.identity(), (first, _) -> first));
+  }
+
+  /**
+   * Baut die Benutzerrepräsentation für {@code partialImport}.
+   * <p>
+   * Optionale Felder wie Vor- und Nachname dürfen fehlen; {@link Map#of} würde bei {@code null} abbrechen.
+   * </p>
+   */
+  private static Map<String, Object> toImportUser(final Person person, final String password, final String role) {
+    final var credential = new LinkedHashMap<String, Object>();
+    credential.put("type", "password");
+    credential.put("value", password);
+    credential.put("temporary", false);
+
+    final var user = new LinkedHashMap<String, Object>();
+    user.put("username", person.getUsername());
+    user.put("enabled", true);
+    user.put("firstName", person.getFirstName());
+    user.put("lastName", person.getLastName());
+    user.put("email", person.getEmail());
+    user.put("credentials", List.of(credential));
+    user.put("realmRoles", List.of(role));
+    return user;
+  }
+
+  /**
+   * Sucht einen Benutzer mit dem Admin-Token über seinen exakten Benutzernamen.
+   * <p>
+   * Wird beim Import verwendet, um nach einem fehlgeschlagenen oder abgelaufenen {@code partialImport}
+   * festzustellen, welche Benutzer Keycloak trotzdem angelegt hat.
+   * </p>
+   *
+   * @param username Der Benutzername.
+   * @return Der Benutzer, falls vorhanden.
+   */
+  public Optional<UserRepresentation> findUser(final String username) {
+    return adminTokenManager.withAccessToken(token -> keycloakRepository.getUserByUsername("Bearer " + token, username))
+      .stream()
+      .filter(user -> username.equalsIgnoreCase(user.username()))
+      .findFirst();
   }
 
   @Observed(name = "keycloak-update")
   public void update(final Person customer, final Jwt jwt, final boolean isAdmin, final String oldUsername) {
     logger().debug("update: customer={} isAdmin={}", customer, isAdmin);
 
-    // Retrieve user ID based on access token
+    // Retrieve user ID: stored Keycloak ID, search by username (not yet backfilled) or access token
     String userId;
-    if (isAdmin)  {
+    if (isAdmin && customer.getKeycloakId() != null) {
+      userId = customer.getKeycloakId();
+    } else if (isAdmin)  {
       final var token = "Bearer " + jwt.getTokenValue();
-      final var userList = keycloakRepository.getUserByUsername(token, oldUsername);
-      userId = userList.stream()
-        .map(UserRepresentation::id)
-        .findFirst().orElseThrow(() -> new NotFoundException(customer.getUsername()));
+      userId = findUserId(token, oldUsername);
     } else {
        userId = getUserID(jwt);
     }
     logger().debug("update: userId={}", userId);
+
+    if (isAdmin) {
+      updateUser(userId, customer, jwt.getTokenValue());
+    } else {
+      adminTokenManager.runWithAccessToken(token -> updateUser(userId, customer, token));
+    }
+  }
+
+  /**
+   * Überträgt die Profildaten einer Person mit dem Admin-Token nach Keycloak.
+   * <p>
+   * Wird von der Outbox für zurückgestellte Aktualisierungen verwendet.
+   * </p>
+   *
+   * @param keycloakId Die Keycloak-ID des Benutzers.
+   * @param person     Die Person mit den neuen Profildaten.
+   */
+  public void updateProfile(final String keycloakId, final Person person) {
+    adminTokenManager.runWithAccessToken(token -> updateUser(keycloakId, person, token));
+  }
+
+  private void updateUser(final String userId, final Person customer, final String token) {
     // JSON data for user update
     final var userData = """
           {
@@ -147,17 +271,18 @@ public class KeycloakService {
     );
     logger().debug("update: userData={}", userData);
 
-    final var adminToken = isAdmin
-      ? jwt.getTokenValue()
-      : getAdminToken();
     try {
       // Call repositories to update user in Keycloak
       keycloakRepository.updateUser(
         userData,
-        "Bearer " + adminToken,
+        "Bearer " + token,
         APPLICATION_JSON_VALUE,
         userId
       );
+    } catch (CallNotPermittedException | BulkheadFullException | HttpClientErrorException.Unauthorized e) {
+      // Keycloak ist überlastet oder der Circuit ist offen: der Aufrufer entscheidet über das Zurückstellen.
+      // Ein abgelehntes Admin-Token erneuert der KeycloakAdminTokenManager.
+      throw e;
     } catch (Exception e) {
       logger().error("Error updating user: ", e);
       throw new RuntimeException("Failed to update user: " + e.getMessage());
@@ -181,12 +306,12 @@ public class KeycloakService {
     //  logger().debug("updatePassword: passwordData={}", passwordData);
 
     try {
-      keycloakRepository.updateUserPassword(
+      adminTokenManager.runWithAccessToken(token -> keycloakRepository.updateUserPassword(
         passwordData,
-        "Bearer " + getAdminToken(),
+        "Bearer " + token,
         APPLICATION_JSON_VALUE,
         userId
-      );
+      ));
     } catch (Exception e) {
       logger().error("Error updating password for user {}: ", userId, e);
       throw new RuntimeException("Failed to update password for user: " + e.getMessage());
@@ -197,16 +322,48 @@ public class KeycloakService {
   public void delete(final String token, final String username) {
     logger().debug("delete: username={}", username);
     final var authToken = String.format("Bearer %s", token);
-    final var userList = keycloakRepository.getUserByUsername(authToken, username);
-    logger().debug("delete: users={}", userList);
-    final var userId = userList.stream()
-      .map(UserRepresentation::id)
-      .findFirst().orElseThrow(() -> new NotFoundException(username));
+    final var userId = findUserId(authToken, username);
 
     logger().debug("delete: userId={}", userId);
     keycloakRepository.deleteUser(authToken, userId);
   }
 
+  /**
+   * Löscht einen Benutzer in Keycloak mit dem Admin-Token.
+   * <p>
+   * Wird von asynchronen Aufgaben verwendet, bei denen das Token des ursprünglichen Aufrufers
+   * bereits abgelaufen sein kann. Mit bekannter Keycloak-ID entfällt die Suche nach dem Benutzernamen.
+   * </p>
+   *
+   * @param keycloakId Die Keycloak-ID oder {@code null}, falls (noch) nicht gespeichert.
+   * @param username   Der Benutzername.
+   */
+  public void deleteUser(final String keycloakId, final String username) {
+    if (keycloakId == null) {
+      adminTokenManager.runWithAccessToken(token -> delete(token, username));
+      return;
+    }
+    logger().debug("delete: keycloakId={}", keycloakId);
+    adminTokenManager.runWithAccessToken(token -> keycloakRepository.deleteUser("Bearer " + token, keycloakId));
+  }
+
+  /**
+   * Liest eine Seite aller Keycloak-Benutzer mit dem Admin-Token.
+   *
+   * @param first Index des ersten Benutzers.
+   * @param max   Maximale Anzahl Benutzer.
+   * @return Die Benutzer der Seite.
+   */
+  public List<UserRepresentation> getUsers(final int first, final int max) {
+    return adminTokenManager.withAccessToken(token -> keycloakRepository.getUsers("Bearer " + token, first, max));
+  }
+
+  private String findUserId(final String authToken, final String username) {
+    return keycloakRepository.getUserByUsername(authToken, username).stream()
+      .map(UserRepresentation::id)
+      .findFirst().orElseThrow(() -> new NotFoundException(username));
+  }
+
   /**
    * Extrahiert die Benutzer-ID aus dem JWT.
    *
@@ -227,8 +384,7 @@ public class KeycloakService {
   private void assignRoleToUser(String userId, String roleName) {
     logger().debug("Assigning role {} to user {}", roleName, userId);
 
-    final var token = getAdminToken();
-    final var roleId = getRole(roleName, token);
+    final var roleId = keycloakRoleCache.getRoleId(roleName);
 
     // JSON data for role assignment
     final var roleData = """
@@ -240,12 +396,12 @@ public class KeycloakService {
 
     logger().debug("roleData={}", roleData);
     try {
-      keycloakRepository.assignRoleToUser(
+      adminTokenManager.runWithAccessToken(token -> keycloakRepository.assignRoleToUser(
           roleData,
-          "Bearer " + getAdminToken(),
+          "Bearer " + token,
           APPLICATION_JSON_VALUE,
           userId
-      );
+      ));
 
     } catch (Exception e) {
       logger().error("Error assigning role to user: ", e);
@@ -253,58 +409,18 @@ public class KeycloakService {
     }
   }
 
-  private String getRole(final String roleName, final String token) {
-    logger().debug("getRole: roleName={}", roleName);
-    // logger().debug("getRole: roleName={}, token={}", roleName, token);
-
-    final var roles = keycloakRepository.getRoles("Bearer " + token, APPLICATION_JSON_VALUE);
-    logger().debug("getRole: roles={}", roles);
-
-    final var role = roles.stream()
-        .filter(r -> r.name().equals(roleName)).findFirst().orElse(null);
-
-    if (role == null) {
-      throw new RuntimeException("RoleDTO not found: " + roleName);
-    }
-    logger().debug("getRole: role={}", role);
-    return role.id();
-  }
-
   /**
-   * Meldet einen Benutzer mit Benutzername und Passwort bei Keycloak an.
+   * Liest die Benutzer-ID aus dem {@code Location}-Header ({@code .../users/{id}}).
    *
-   * @param username Der Benutzername.
-   * @param password Das Passwort.
-   * @return Ein `TokenDTO`, das ein Zugriffstoken enthält.
-   */
-  private TokenDTO login(final String username, final String password) {
-    return keycloakRepository.login(
-        "grant_type=password&username=" + username
-            + "&password=" + password
-            + "&client_id=" + keycloakProps.clientId()
-            + "&client_secret=" + keycloakProps.clientSecret()
-            + "&scope=openid",
-        "Basic " + clientAndSecretEncoded,
-        APPLICATION_FORM_URLENCODED_VALUE
-    );
-  }
-
-  /**
-   * Ruft das Admin-Token aus Keycloak ab.
-   *
-   * @return Das Zugriffstoken für den Admin.
+   * @param location Der {@code Location}-Header der Antwort.
+   * @return Die Benutzer-ID.
    */
-  private String getAdminToken() {
-    logger().debug("getAdminToken");
-    final var adminToken = login("admin", "p");
-    return adminToken.access_token();
-  }
-
-  private String getUserInfo(final String token) {
-    // logger().debug("getUserInfo: token={}", token);
-
-    final var info = keycloakRepository.userInfo("Bearer " + token, APPLICATION_FORM_URLENCODED_VALUE);
-    return info.sub();
+  private String extractUserId(final URI location) {
+    if (location == null) {
+      throw new SignUpException("Keycloak returned no Location header");
+    }
+    final var path = location.getPath();
+    return path.substring(path.lastIndexOf('/') + 1);
   }
 
 }
@@ -123,7 +123,7 @@ public class ContactReadService {
                 Query query = new Query().addCriteria(Criteria.where("customerId").is(customerId));
                 serviceSpan.setAttribute("customer.id", customerId.toString());
                 List<Contact> results = mongoTemplate.find(query, Contact.class);
-                logger().info("findByCustomerId: {} contacts found for customer {}", results.size(), customerId);
+                logger().debug("findByCustomerId: {} contacts found for customer {}", results.size(), customerId);
                 return results;
             } catch (Exception e) {
                 mongoSpan.recordException(e);
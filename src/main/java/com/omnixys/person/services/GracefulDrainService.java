@@ -0,0 +1,150 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.config.InFlightRequestFilter;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Fährt den Service kontrolliert herunter, bevor der Anwendungskontext geschlossen wird.
+ * <p>
+ * Ablauf:
+ * </p>
+ * <ol>
+ *     <li>Readiness auf {@code REFUSING_TRAFFIC} setzen und {@code readiness-delay} warten, damit
+ *     Kubernetes die Instanz aus den Endpoints nimmt.</li>
+ *     <li>Neue HTTP-Anfragen mit {@code 503} abweisen und die Kafka-Listener stoppen.</li>
+ *     <li>Auf laufende Anfragen warten, höchstens bis {@code timeout} seit Beginn.</li>
+ *     <li>Fällige Outbox-Aufgaben einmal abarbeiten, die KPI-Summen veröffentlichen und den Kafka-Producer leeren.</li>
+ *     <li>Die Dauer als Metrik erfassen und {@code scrape-grace} warten, damit Prometheus sie noch abholt.</li>
+ *     <li>Den Kontext schließen; dabei versendet der {@code LogShipper} seine restlichen Logs.</li>
+ * </ol>
+ * <p>
+ * Die Dauer wird als {@code app.drain} mit den Tags {@code reason} und {@code outcome} ({@code drained},
+ * {@code timeout}, {@code interrupted} oder {@code error}) gemessen. {@code /actuator/**} bleibt während des
+ * Entleerens erreichbar; {@code scrape-grace} sollte daher mindestens ein Scrape-Intervall betragen, und
+ * {@code terminationGracePeriodSeconds} muss {@code timeout} plus {@code scrape-grace} abdecken.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class GracefulDrainService {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final ApplicationContext context;
+    private final InFlightRequestFilter inFlightRequestFilter;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KpiAggregator kpiAggregator;
+    private final OutboxProcessor outboxProcessor;
+    private final MeterRegistry meterRegistry;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Value("${app.drain.readiness-delay:5s}")
+    private Duration readinessDelay;
+
+    @Value("${app.drain.timeout:25s}")
+    private Duration timeout;
+
+    @Value("${app.drain.scrape-grace:15s}")
+    private Duration scrapeGrace;
+
+    /**
+     * Startet das Entleeren in einem eigenen Thread und schließt danach den Kontext.
+     * <p>
+     * Kehrt sofort zurück, damit ein aufrufender Kafka-Listener nicht auf das Stoppen seines eigenen
+     * Containers wartet. Weitere Aufrufe werden ignoriert.
+     * </p>
+     *
+     * @param reason Anlass, z.B. {@code shutdown} oder {@code restart}.
+     */
+    public void drainAndClose(final String reason) {
+        if (!started.compareAndSet(false, true)) {
+            logger().info("drainAndClose: Entleeren läuft bereits, {} ignoriert", reason);
+            return;
+        }
+        Thread.ofPlatform().name("graceful-drain").start(() -> run(reason));
+    }
+
+    private void run(final String reason) {
+        final long start = System.nanoTime();
+        final long deadline = start + timeout.toNanos();
+        var outcome = "drained";
+        try {
+            AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+            logger().info("drain: Readiness auf REFUSING_TRAFFIC gesetzt ({})", reason);
+            Thread.sleep(readinessDelay);
+
+            inFlightRequestFilter.startDraining();
+            kafkaListenerEndpointRegistry.stop();
+
+            while (inFlightRequestFilter.inFlight() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            if (inFlightRequestFilter.inFlight() > 0) {
+                outcome = "timeout";
+                logger().warn("drain: {} Anfragen nach {} noch offen", inFlightRequestFilter.inFlight(), timeout);
+            }
+
+            if (System.nanoTime() < deadline) {
+                final var processed = outboxProcessor.processPending();
+                logger().debug("drain: {} Outbox-Aufgaben abgearbeitet", processed);
+            }
+            kpiAggregator.flush();
+            kafkaTemplate.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } catch (RuntimeException e) {
+            outcome = "error";
+            logger().error("drain: Fehler beim Entleeren: {}", e.getMessage(), e);
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            Timer.builder("app.drain")
+                .description("Dauer des Entleerens vor dem Herunterfahren")
+                .tag("reason", reason)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, NANOSECONDS);
+            logger().info("drain: {} nach {} ms ({}), Kontext wird in {} geschlossen", reason, NANOSECONDS.toMillis(elapsed), outcome, scrapeGrace);
+            awaitScrape();
+            ((ConfigurableApplicationContext) context).close();
+        }
+    }
+
+    /**
+     * Hält den Prozess noch {@code scrape-grace} am Leben, damit der letzte Scrape {@code app.drain} enthält.
+     */
+    private void awaitScrape() {
+        try {
+            Thread.sleep(scrapeGrace);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
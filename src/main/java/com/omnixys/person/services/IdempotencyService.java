@@ -0,0 +1,185 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.exceptions.IdempotencyConflictException;
+import com.omnixys.person.models.entities.IdempotencyRecord;
+import com.omnixys.person.repositories.IdempotencyRecordRepository;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Service für idempotente Mutationen.
+ * <p>
+ * Zu jedem Idempotency-Key werden der Fingerabdruck der Anfrage und das Ergebnis gespeichert.
+ * Eine Wiederholung mit demselben Key liefert das gespeicherte Ergebnis mit einem einzigen
+ * Lesezugriff über die ID, ohne den {@link PersonWriteService} erneut aufzurufen.
+ * </p>
+ * <p>
+ * Eine laufende Mutation reserviert den Key nur für {@code app.idempotency.reservation-lease}. Stürzt die
+ * Instanz während der Ausführung ab, übernimmt eine spätere Wiederholung die abgelaufene Reservierung mit
+ * einem bedingten {@code findAndModify}, statt bis zum Ablauf der TTL abgewiesen zu werden.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final MongoTemplate mongoTemplate;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.idempotency.reservation-lease:30s}")
+    private Duration reservationLease;
+
+    /**
+     * Führt eine Mutation höchstens einmal pro Idempotency-Key aus.
+     *
+     * @param idempotencyKey Der vom Client gesendete Key; ohne Key wird die Mutation direkt ausgeführt.
+     * @param operation      Name der Mutation, z.B. {@code createCustomer}.
+     * @param request        Die Anfrage, aus der der Fingerabdruck gebildet wird.
+     * @param action         Die eigentliche Mutation.
+     * @return Das Ergebnis der ersten erfolgreichen Ausführung.
+     * @throws IdempotencyConflictException wenn der Key mit einer anderen Anfrage verwendet wird
+     *                                      oder die erste Anfrage innerhalb ihrer Reservierung noch läuft.
+     */
+    public UUID execute(
+        final String idempotencyKey,
+        final String operation,
+        final Object request,
+        final Supplier<UUID> action
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        final var id = operation + ':' + idempotencyKey;
+        final var fingerprint = fingerprint(operation, request);
+
+        final var stored = reserveOrReplay(id, idempotencyKey, fingerprint);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        final UUID result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            // Fehlgeschlagene Anfragen dürfen mit demselben Key wiederholt werden
+            idempotencyRecordRepository.deleteById(id);
+            throw e;
+        }
+
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+            .id(id)
+            .fingerprint(fingerprint)
+            .resultId(result)
+            .completed(true)
+            .created(Instant.now())
+            .build());
+        return result;
+    }
+
+    /**
+     * Reserviert den Key für diese Anfrage.
+     *
+     * @return Das gespeicherte Ergebnis einer früheren Ausführung oder leer, wenn diese Anfrage die Mutation
+     *         jetzt ausführen darf.
+     */
+    private Optional<UUID> reserveOrReplay(final String id, final String idempotencyKey, final String fingerprint) {
+        final var existing = idempotencyRecordRepository.findById(id);
+        if (existing.isPresent()) {
+            return replay(existing.get(), idempotencyKey, fingerprint);
+        }
+
+        try {
+            idempotencyRecordRepository.insert(IdempotencyRecord.builder()
+                .id(id)
+                .fingerprint(fingerprint)
+                .created(Instant.now())
+                .reservedUntil(Instant.now().plus(reservationLease))
+                .build());
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            // Gleichzeitige Wiederholung: die andere Anfrage hat den Key zuerst reserviert
+            return replay(
+                idempotencyRecordRepository.findById(id)
+                    .orElseThrow(() -> new IdempotencyConflictException(idempotencyKey, "wird bereits verarbeitet")),
+                idempotencyKey,
+                fingerprint
+            );
+        }
+    }
+
+    private Optional<UUID> replay(final IdempotencyRecord record, final String idempotencyKey, final String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException(idempotencyKey, "wurde bereits für eine andere Anfrage verwendet");
+        }
+        if (!record.isCompleted()) {
+            if (takeOver(record.getId())) {
+                return Optional.empty();
+            }
+            throw new IdempotencyConflictException(idempotencyKey, "wird bereits verarbeitet");
+        }
+        logger().debug("replay: id={}, resultId={}", record.getId(), record.getResultId());
+        return Optional.of(record.getResultId());
+    }
+
+    /**
+     * Übernimmt eine abgelaufene, nicht abgeschlossene Reservierung. Von mehreren gleichzeitigen
+     * Wiederholungen gewinnt genau eine.
+     */
+    private boolean takeOver(final String id) {
+        final var now = Instant.now();
+        final var query = query(where("_id").is(id).and("completed").is(false).orOperator(
+            where("reservedUntil").lt(now),
+            // Reservierungen ohne Ablauf stammen aus älteren Versionen
+            where("reservedUntil").is(null)
+        ));
+        final var record = mongoTemplate.findAndModify(
+            query,
+            new Update().set("reservedUntil", now.plus(reservationLease)),
+            FindAndModifyOptions.options().returnNew(true),
+            IdempotencyRecord.class
+        );
+        if (record != null) {
+            logger().warn("takeOver: abgelaufene Reservierung {} übernommen", id);
+        }
+        return record != null;
+    }
+
+    private static String fingerprint(final String operation, final Object request) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(String.valueOf(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
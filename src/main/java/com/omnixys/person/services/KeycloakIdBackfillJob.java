@@ -0,0 +1,88 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Ergänzt die Keycloak-ID bei Personen, die vor deren Einführung angelegt wurden.
+ * <p>
+ * Die Keycloak-Benutzer werden seitenweise gelesen und jede Seite mit einem einzigen ungeordneten
+ * Bulk-Write übernommen. Bereits gesetzte IDs werden nicht überschrieben.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class KeycloakIdBackfillJob {
+
+    private final KeycloakService keycloakService;
+    private final MongoTemplate mongoTemplate;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.keycloak.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.keycloak.backfill.page-size:200}")
+    private int pageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void runOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger().error("runOnStartup: Backfill der Keycloak-IDs fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Führt den Backfill über alle Keycloak-Benutzer aus.
+     *
+     * @return Anzahl der aktualisierten Personen.
+     */
+    public long run() {
+        long updated = 0;
+        int first = 0;
+        while (true) {
+            final var users = keycloakService.getUsers(first, pageSize);
+            if (users.isEmpty()) {
+                break;
+            }
+
+            final var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Person.class);
+            users.forEach(user -> bulk.updateOne(
+                query(where("username").is(user.username()).and("keycloakId").isNull()),
+                new Update().set("keycloakId", user.id())
+            ));
+            updated += bulk.execute().getModifiedCount();
+
+            logger().debug("run: Seite ab {} verarbeitet, bisher {} aktualisiert", first, updated);
+            if (users.size() < pageSize) {
+                break;
+            }
+            first += pageSize;
+        }
+        logger().info("run: Keycloak-ID bei {} Personen ergänzt", updated);
+        return updated;
+    }
+}
@@ -0,0 +1,85 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.models.entities.Lease;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Vergibt Leases in der Collection {@code leases}, damit eine Aufgabe im Cluster nur auf einer Instanz läuft.
+ * <p>
+ * {@link #tryAcquire} ist ein einziges {@code findAndModify} mit Upsert: es trifft das Dokument, wenn diese
+ * Instanz die Lease schon hält oder sie abgelaufen ist, und setzt Besitzer und Ablaufzeit. Hält eine andere
+ * Instanz eine gültige Lease, trifft die Abfrage nichts und der Upsert scheitert am Primärschlüssel. Derselbe
+ * Aufruf dient zum Verlängern. Die Ablaufzeit kommt von der Uhr der Instanz; die Verlängerung muss daher
+ * deutlich vor Ablauf erfolgen.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaseService {
+
+    private final MongoTemplate mongoTemplate;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Kennung dieser Instanz als Besitzer.
+     */
+    @Getter
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * Übernimmt oder verlängert eine Lease.
+     *
+     * @param name Name der Aufgabe.
+     * @param ttl  Gültigkeit ab jetzt.
+     * @return {@code true}, wenn diese Instanz die Lease jetzt hält.
+     */
+    public boolean tryAcquire(final String name, final Duration ttl) {
+        final var now = Instant.now();
+        final var query = query(where("_id").is(name).orOperator(
+            where("owner").is(owner),
+            where("expiresAt").lt(now)
+        ));
+        final var update = new Update()
+            .set("owner", owner)
+            .set("expiresAt", now.plus(ttl));
+        try {
+            final var lease = mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().upsert(true).returnNew(true), Lease.class);
+            return lease != null && owner.equals(lease.getOwner());
+        } catch (DuplicateKeyException e) {
+            // Eine andere Instanz hält die Lease
+            return false;
+        }
+    }
+
+    /**
+     * Gibt eine Lease frei, sofern diese Instanz sie hält, damit eine andere sofort übernehmen kann.
+     *
+     * @param name Name der Aufgabe.
+     */
+    public void release(final String name) {
+        final var result = mongoTemplate.remove(query(where("_id").is(name).and("owner").is(owner)), Lease.class);
+        logger().debug("release: {} freigegeben={}", name, result.getDeletedCount() > 0);
+    }
+}
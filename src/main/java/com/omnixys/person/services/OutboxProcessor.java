@@ -0,0 +1,163 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.exceptions.NotFoundException;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.models.entities.OutboxTask;
+import com.omnixys.person.models.enums.KpiType;
+import com.omnixys.person.repositories.OutboxTaskRepository;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_DELETE_PERSON;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Arbeitet die in der Outbox gespeicherten Aufgaben asynchron ab.
+ * <p>
+ * Jede Aufgabe wird per {@code findAndModify} beansprucht, indem {@code nextAttemptAt} um die Lease-Dauer
+ * in die Zukunft verschoben wird. Dadurch können mehrere Instanzen parallel pollen, ohne eine Aufgabe doppelt
+ * auszuführen. Erfolgreiche Aufgaben werden gelöscht, fehlgeschlagene mit exponentiellem Backoff erneut versucht.
+ * </p>
+ * <p>
+ * Nach {@code app.outbox.max-attempts} fehlgeschlagenen Versuchen wandert eine Aufgabe in die Dead-Letter-Ablage:
+ * Sie bleibt mit {@code deadLetteredAt} und der letzten Fehlermeldung gespeichert, verliert aber
+ * {@code nextAttemptAt} und wird daher nicht mehr beansprucht. Jeder solche Fall erhöht den Zähler
+ * {@code outbox.dead.letter} und wird als Fehler protokolliert.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxProcessor {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxTaskRepository outboxTaskRepository;
+    private final KeycloakService keycloakService;
+    private final KafkaPublisherService kafkaPublisherService;
+    private final KpiAggregator kpiAggregator;
+    private final MeterRegistry meterRegistry;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${app.outbox.retry-backoff:2s}")
+    private Duration retryBackoff;
+
+    /**
+     * Beansprucht und führt fällige Aufgaben aus, höchstens {@code batchSize} pro Durchlauf.
+     *
+     * @return Anzahl der beanspruchten Aufgaben.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1s}")
+    public int processPending() {
+        int processed = 0;
+        while (processed < batchSize) {
+            final var task = claimNext();
+            if (task == null) {
+                break;
+            }
+            execute(task);
+            processed++;
+        }
+        return processed;
+    }
+
+    private OutboxTask claimNext() {
+        final var now = Instant.now();
+        final var query = query(where("nextAttemptAt").lte(now))
+            .with(Sort.by("nextAttemptAt"));
+        final var update = new Update()
+            .set("nextAttemptAt", now.plus(lease))
+            .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), OutboxTask.class);
+    }
+
+    private void execute(final OutboxTask task) {
+        logger().debug("execute: task={}", task);
+        try {
+            switch (task.getType()) {
+                case KEYCLOAK_DELETE_USER -> deleteKeycloakUser(task);
+                case KEYCLOAK_UPDATE_USER -> keycloakService.updateProfile(task.getKeycloakId(), task.toPerson());
+                case CUSTOMER_DELETED -> notifyCustomerDeleted(task);
+            }
+            outboxTaskRepository.deleteById(task.getId());
+        } catch (Exception e) {
+            if (task.getAttempts() >= maxAttempts) {
+                deadLetter(task, e);
+                return;
+            }
+            final var backoff = retryBackoff.multipliedBy(1L << Math.min(task.getAttempts(), 10));
+            mongoTemplate.updateFirst(
+                query(where("_id").is(task.getId())),
+                new Update().set("nextAttemptAt", Instant.now().plus(backoff)).set("lastError", e.getMessage()),
+                OutboxTask.class
+            );
+            logger().warn("Outbox-Aufgabe {} ({}) fehlgeschlagen, Versuch {}/{}: {}",
+                task.getId(), task.getType(), task.getAttempts(), maxAttempts, e.getMessage());
+        }
+    }
+
+    private void deadLetter(final OutboxTask task, final Exception e) {
+        mongoTemplate.updateFirst(
+            query(where("_id").is(task.getId())),
+            new Update()
+                .unset("nextAttemptAt")
+                .set("deadLetteredAt", Instant.now())
+                .set("lastError", e.getMessage()),
+            OutboxTask.class
+        );
+        Counter.builder("outbox.dead.letter")
+            .description("Nach der maximalen Anzahl an Versuchen aufgegebene Outbox-Aufgaben")
+            .tag("type", task.getType().name())
+            .register(meterRegistry)
+            .increment();
+        logger().error("Outbox-Aufgabe {} ({}) nach {} Versuchen aufgegeben, Person {}: {}",
+            task.getId(), task.getType(), task.getAttempts(), task.getPersonId(), e.getMessage());
+    }
+
+    private void deleteKeycloakUser(final OutboxTask task) {
+        try {
+            keycloakService.deleteUser(task.getKeycloakId(), task.getUsername());
+        } catch (NotFoundException | HttpClientErrorException.NotFound e) {
+            // Bereits gelöscht, z.B. durch einen früheren Versuch
+            logger().debug("deleteKeycloakUser: Benutzer {} existiert nicht mehr", task.getUsername());
+        }
+    }
+
+    private void notifyCustomerDeleted(final OutboxTask task) {
+        final var person = task.toPerson();
+        kafkaPublisherService.deleteShoppingCart(person.getId());
+        kafkaPublisherService.deleteAccount(person.getId(), person.getVersion(), person.getUsername());
+        kafkaPublisherService.sendMail(TOPIC_NOTIFICATION_DELETE_PERSON, person, null, true);
+        kpiAggregator.record(KpiType.PERSON_DELETED);
+    }
+}
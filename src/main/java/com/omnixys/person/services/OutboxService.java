@@ -0,0 +1,48 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.models.entities.OutboxTask;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.OutboxTaskType;
+import com.omnixys.person.repositories.OutboxTaskRepository;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Service zum Einreihen von Outbox-Aufgaben.
+ * <p>
+ * Wird innerhalb einer laufenden MongoDB-Transaktion aufgerufen, sodass die Aufgaben nur dann
+ * sichtbar werden, wenn auch die eigentliche Änderung committet wurde. Die Ausführung übernimmt
+ * der {@link OutboxProcessor}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxTaskRepository outboxTaskRepository;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Reiht für die übergebene Person eine Aufgabe je Typ ein (ein einziger Insert).
+     *
+     * @param person Die betroffene Person.
+     * @param types  Die auszuführenden Aufgaben.
+     */
+    public void enqueue(final Person person, final OutboxTaskType... types) {
+        final var tasks = Arrays.stream(types)
+            .map(type -> OutboxTask.of(type, person))
+            .toList();
+        outboxTaskRepository.insert(tasks);
+        logger().debug("enqueue: personId={}, types={}", person.getId(), Arrays.toString(types));
+    }
+}
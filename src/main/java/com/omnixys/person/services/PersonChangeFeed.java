@@ -0,0 +1,282 @@
+package com.omnixys.person.services;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.entities.ChangeStreamToken;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.events.PersonChangedEvent;
+import com.omnixys.person.models.events.PersonSnapshot;
+import com.omnixys.person.repositories.ChangeStreamTokenRepository;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Liest die Change-Streams der Collections {@code persons} und {@code contacts} und verteilt jede Änderung.
+ * <p>
+ * Jede Änderung wird als kompaktes {@link PersonChangedEvent} auf {@code person.changed} (Schlüssel = ID) und
+ * lokal über den {@link ApplicationEventPublisher} veröffentlicht. Damit erreichen auch direkte DB-Korrekturen
+ * und Bulk-Skripte alle Abnehmer, ohne dass ein Schreibpfad daran denken muss. Für Personen wird zusätzlich
+ * die Projektion {@link PersonSnapshot} auf das kompaktierte Topic {@code person.snapshot} geschrieben.
+ * </p>
+ * <p>
+ * Der Resume-Token wird gedrosselt in {@code change_stream_tokens} gespeichert. Nach einem Neustart kann
+ * eine Änderung daher höchstens erneut, aber nicht gar nicht zugestellt werden.
+ * </p>
+ * <p>
+ * Je Collection liest nur die Instanz, die die Lease {@code change-feed-<collection>} hält (siehe
+ * {@link LeaseService}); nur sie veröffentlicht und schreibt den Token. Die übrigen Instanzen versuchen alle
+ * {@code lease-ttl / 3}, die Lease zu übernehmen. Der Halter verlängert sie im selben Takt und beendet den
+ * Stream, sobald die Verlängerung scheitert. Tokens werden nur zwischen zwei erfolgreichen Verlängerungen
+ * gespeichert.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonChangeFeed implements SmartLifecycle {
+
+    /**
+     * Beobachtete Collections und der Name der jeweiligen Entität im Event.
+     */
+    private static final String PERSON = "person";
+
+    private static final Map<String, String> COLLECTIONS = Map.of(
+        "persons", PERSON,
+        "contacts", "contact"
+    );
+
+    /**
+     * Fehlercode von MongoDB, wenn der Resume-Token nicht mehr im Oplog liegt.
+     */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final Set<OperationType> RELEVANT_OPERATIONS = Set.of(
+        OperationType.INSERT, OperationType.UPDATE, OperationType.REPLACE, OperationType.DELETE
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeStreamTokenRepository changeStreamTokenRepository;
+    private final LeaseService leaseService;
+    private final KafkaPublisherService kafkaPublisherService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.change-feed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.change-feed.token-flush-interval:1s}")
+    private Duration tokenFlushInterval;
+
+    @Value("${app.change-feed.retry-backoff:5s}")
+    private Duration retryBackoff;
+
+    @Value("${app.change-feed.lease-ttl:15s}")
+    private Duration leaseTtl;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger().info("start: Change-Feed ist deaktiviert");
+            return;
+        }
+        running = true;
+        COLLECTIONS.forEach((collection, entity) -> workers.add(Thread.ofVirtual()
+            .name("change-feed-" + collection)
+            .start(() -> watch(collection, entity))));
+        logger().info("start: Change-Feed gestartet für {}", COLLECTIONS.keySet());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (final var worker : workers) {
+            try {
+                worker.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Beobachtet eine Collection bis zum Stopp, solange diese Instanz die Lease hält, und verbindet sich nach
+     * Fehlern ab dem letzten Token neu.
+     */
+    private void watch(final String collection, final String entity) {
+        final var leaseName = "change-feed-" + collection;
+        final var renewInterval = leaseTtl.dividedBy(3);
+        while (running) {
+            if (!acquire(leaseName)) {
+                pause(renewInterval);
+                continue;
+            }
+            logger().info("watch: Lease {} übernommen, Change-Stream {} startet", leaseName, collection);
+            stream(collection, entity, leaseName, renewInterval);
+        }
+        try {
+            leaseService.release(leaseName);
+        } catch (RuntimeException e) {
+            // Die Lease läuft dann nach lease-ttl von selbst ab
+            logger().warn("watch: Lease {} nicht freigegeben: {}", leaseName, e.getMessage());
+        }
+    }
+
+    private boolean acquire(final String leaseName) {
+        try {
+            return leaseService.tryAcquire(leaseName, leaseTtl);
+        } catch (RuntimeException e) {
+            logger().error("watch: Lease {} nicht prüfbar: {}", leaseName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Liest den Stream, bis die Instanz stoppt, die Lease verliert oder ein Fehler auftritt.
+     */
+    private void stream(final String collection, final String entity, final String leaseName, final Duration renewInterval) {
+        BsonDocument lastToken = changeStreamTokenRepository.findById(collection)
+            .map(token -> BsonDocument.parse(token.getResumeToken()))
+            .orElse(null);
+        Instant lastFlush = Instant.now();
+        Instant lastRenewal = Instant.now();
+        boolean dirty = false;
+
+        var stream = mongoTemplate.getCollection(collection)
+            .watch()
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (PERSON.equals(entity)) {
+            // Für person.snapshot wird der vollständige Stand nach der Änderung benötigt
+            stream = stream.fullDocument(FullDocument.UPDATE_LOOKUP);
+        }
+        if (lastToken != null) {
+            stream = stream.resumeAfter(lastToken);
+        }
+
+        try (var cursor = stream.cursor()) {
+            while (running) {
+                if (Duration.between(lastRenewal, Instant.now()).compareTo(renewInterval) >= 0) {
+                    if (!acquire(leaseName)) {
+                        // Eine andere Instanz hat übernommen; ihr gehört ab jetzt auch der Token
+                        logger().warn("watch: Lease {} verloren, Change-Stream {} endet", leaseName, collection);
+                        return;
+                    }
+                    lastRenewal = Instant.now();
+                }
+                final var change = cursor.tryNext();
+                if (change != null) {
+                    publish(change, entity);
+                }
+                final var resumeToken = change != null ? change.getResumeToken() : cursor.getResumeToken();
+                if (resumeToken != null && !resumeToken.equals(lastToken)) {
+                    lastToken = resumeToken;
+                    dirty = true;
+                }
+                if (dirty && Duration.between(lastFlush, Instant.now()).compareTo(tokenFlushInterval) >= 0) {
+                    saveToken(collection, lastToken);
+                    lastFlush = Instant.now();
+                    dirty = false;
+                }
+            }
+            if (dirty) {
+                saveToken(collection, lastToken);
+            }
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                logger().warn("watch: Resume-Token für {} nicht mehr im Oplog, Stream startet neu", collection);
+                changeStreamTokenRepository.deleteById(collection);
+            } else {
+                logger().error("watch: Change-Stream {} fehlgeschlagen: {}", collection, e.getMessage());
+                pause(retryBackoff);
+            }
+        } catch (RuntimeException e) {
+            logger().error("watch: Change-Stream {} fehlgeschlagen: {}", collection, e.getMessage());
+            pause(retryBackoff);
+        }
+    }
+
+    private void publish(final ChangeStreamDocument<Document> change, final String entity) {
+        if (!RELEVANT_OPERATIONS.contains(change.getOperationType()) || change.getDocumentKey() == null) {
+            return;
+        }
+
+        final var clusterTime = change.getClusterTime();
+        final var event = new PersonChangedEvent(
+            toUuid(change.getDocumentKey().get("_id")),
+            entity,
+            change.getOperationType().getValue(),
+            clusterTime != null ? Instant.ofEpochSecond(clusterTime.getTime()) : Instant.now()
+        );
+        logger().debug("publish: event={}", event);
+
+        kafkaPublisherService.personChanged(event);
+        if (PERSON.equals(entity)) {
+            publishSnapshot(change, event.id());
+        }
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    private void publishSnapshot(final ChangeStreamDocument<Document> change, final UUID id) {
+        if (change.getOperationType() == OperationType.DELETE) {
+            kafkaPublisherService.personSnapshotDeleted(id);
+            return;
+        }
+        // null, wenn das Dokument vor dem Lookup schon wieder gelöscht wurde; der Tombstone folgt
+        final var fullDocument = change.getFullDocument();
+        if (fullDocument != null) {
+            final var person = mongoTemplate.getConverter().read(Person.class, fullDocument);
+            kafkaPublisherService.personSnapshot(PersonSnapshot.of(person));
+        }
+    }
+
+    private void saveToken(final String collection, final BsonDocument resumeToken) {
+        changeStreamTokenRepository.save(new ChangeStreamToken(collection, resumeToken.toJson(), Instant.now()));
+    }
+
+    private void pause(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static UUID toUuid(final BsonValue id) {
+        return id.isBinary() ? id.asBinary().asUuid() : UUID.fromString(id.asString().getValue());
+    }
+}
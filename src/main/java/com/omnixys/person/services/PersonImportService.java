@@ -0,0 +1,352 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.models.entities.ImportJob;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.KpiType;
+import com.omnixys.person.models.payload.ImportReport;
+import com.omnixys.person.models.payload.ImportReport.ImportFailure;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_CREATE_PERSON;
+import static com.omnixys.person.models.enums.ImportJobStatus.COMPLETED;
+import static com.omnixys.person.models.enums.ImportJobStatus.FAILED;
+import static com.omnixys.person.models.enums.ImportJobStatus.RUNNING;
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_DELETE_USER;
+import static com.omnixys.person.models.enums.PersonType.CUSTOMER;
+import static com.omnixys.person.models.enums.StatusType.ACTIVE;
+import static java.util.Locale.GERMAN;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Service für den Massenimport von Kunden.
+ * <p>
+ * Die Kunden werden in Blöcken verarbeitet: ein ungeordneter Bulk-Insert in MongoDB, danach ein einziger
+ * {@code partialImport}-Aufruf an Keycloak, der Benutzer und Realm-Rollen gemeinsam anlegt. Die Blöcke laufen
+ * auf virtuellen Threads, begrenzt durch {@code app.import.parallelism}. Fehler einzelner Kunden werden im
+ * {@link ImportJob} gesammelt, statt den gesamten Import abzubrechen.
+ * </p>
+ * <p>
+ * Der Import läuft als Job: {@link #startImport} legt das {@link ImportJob}-Dokument an und kehrt sofort mit
+ * dessen ID zurück, der Fortschritt wird nach jedem Block gespeichert. Die Blockgröße ist so gewählt, dass ein
+ * {@code partialImport} (ein Passwort-Hash je Benutzer) innerhalb des Read-Timeouts und unter der Schwelle für
+ * langsame Aufrufe des Circuit-Breakers bleibt. Bricht ein Job mit der Instanz ab, bleibt er im Zustand
+ * {@code RUNNING}.
+ * </p>
+ * <p>
+ * Jeder importierte Kunde erhält dieselben Nachrichten wie bei {@code createCustomer}: Willkommens-Mail, Konto,
+ * Warenkorb und den KPI {@code PERSON_CREATED}.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonImportService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final PersonWriteService personWriteService;
+    private final KeycloakService keycloakService;
+    private final KafkaPublisherService kafkaPublisherService;
+    private final KpiAggregator kpiAggregator;
+    private final OutboxService outboxService;
+    private final MongoTemplate mongoTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    @Value("${app.import.chunk-size:25}")
+    private int chunkSize;
+
+    @Value("${app.import.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Ein zu importierender Kunde mit seinem Passwort.
+     *
+     * @param customer Der Kunde.
+     * @param password Das Passwort für Keycloak.
+     */
+    public record CustomerImport(Person customer, String password) {
+    }
+
+    /**
+     * Startet den Import der übergebenen Kunden auf einem virtuellen Thread.
+     *
+     * @param customers Die zu importierenden Kunden.
+     * @param invalid   Bereits bei der Validierung abgewiesene Kunden; sie zählen zur Gesamtzahl.
+     * @return Der angelegte Job mit Zustand {@code RUNNING}.
+     */
+    public ImportJob startImport(final List<CustomerImport> customers, final List<ImportFailure> invalid) {
+        final var job = mongoTemplate.insert(ImportJob.builder()
+            .id(UUID.randomUUID())
+            .status(RUNNING)
+            .total(customers.size() + invalid.size())
+            .failures(new ArrayList<>(invalid))
+            .created(Instant.now())
+            .build());
+        logger().info("startImport: jobId={}, {} Kunden", job.getId(), job.getTotal());
+
+        Thread.ofVirtual().name("import-" + job.getId()).start(() -> {
+            try {
+                // Aufruf über this erreicht keinen Proxy: die Observation wird hier gestartet statt per @Observed
+                Observation.createNotStarted("person-service.import-customers", observationRegistry)
+                    .observe(() -> importCustomers(job.getId(), customers));
+                finish(job.getId(), new Update().set("status", COMPLETED));
+            } catch (RuntimeException e) {
+                logger().error("startImport: Job {} abgebrochen: {}", job.getId(), e.getMessage());
+                finish(job.getId(), new Update().set("status", FAILED).set("error", e.getMessage()));
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Liefert den Stand eines Imports.
+     *
+     * @param jobId ID des Jobs.
+     * @return Der Job, falls vorhanden.
+     */
+    public Optional<ImportJob> findJob(final UUID jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, ImportJob.class));
+    }
+
+    /**
+     * Importiert die übergebenen Kunden blockweise und schreibt den Fortschritt nach jedem Block in den Job.
+     *
+     * @param jobId     ID des Jobs.
+     * @param customers Die zu importierenden Kunden.
+     * @return Bericht mit der Anzahl importierter Kunden und den Fehlschlägen je Benutzer.
+     */
+    ImportReport importCustomers(final UUID jobId, final List<CustomerImport> customers) {
+        logger().info("importCustomers: {} Kunden, chunkSize={}, parallelism={}", customers.size(), chunkSize, parallelism);
+
+        final var semaphore = new Semaphore(parallelism);
+        final var futures = new ArrayList<Future<ImportReport>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < customers.size(); from += chunkSize) {
+                final var chunk = customers.subList(from, Math.min(from + chunkSize, customers.size()));
+                futures.add(executor.submit(() -> {
+                    semaphore.acquire();
+                    try {
+                        final var report = importChunk(chunk);
+                        recordProgress(jobId, report);
+                        return report;
+                    } finally {
+                        semaphore.release();
+                    }
+                }));
+            }
+        }
+
+        int imported = 0;
+        final var failures = new ArrayList<ImportFailure>();
+        for (final var future : futures) {
+            try {
+                final var report = future.get();
+                imported += report.imported();
+                failures.addAll(report.failures());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import unterbrochen", e);
+            } catch (ExecutionException e) {
+                // importChunk fängt Fehler je Block ab; hier landen nur unerwartete Fehler
+                throw new IllegalStateException("Import fehlgeschlagen", e.getCause());
+            }
+        }
+
+        logger().info("importCustomers: {} importiert, {} fehlgeschlagen", imported, failures.size());
+        return new ImportReport(customers.size(), imported, failures);
+    }
+
+    private void recordProgress(final UUID jobId, final ImportReport report) {
+        final var update = new Update().inc("imported", report.imported());
+        if (!report.failures().isEmpty()) {
+            update.push("failures").each(report.failures().toArray());
+        }
+        mongoTemplate.updateFirst(query(where("_id").is(jobId)), update, ImportJob.class);
+    }
+
+    private void finish(final UUID jobId, final Update update) {
+        mongoTemplate.updateFirst(query(where("_id").is(jobId)), update.set("finished", Instant.now()), ImportJob.class);
+    }
+
+    private ImportReport importChunk(final List<CustomerImport> chunk) {
+        final var failures = new ArrayList<ImportFailure>();
+        final var candidates = new ArrayList<Person>();
+        final var passwords = new HashMap<UUID, String>();
+        final var roles = new HashMap<UUID, String>();
+
+        for (final var entry : chunk) {
+            final var customer = entry.customer();
+            customer.setUsername(customer.getUsername().toLowerCase(GERMAN));
+            if (!personWriteService.checkPassword(entry.password())) {
+                failures.add(new ImportFailure(customer.getUsername(), "Passwort erfüllt nicht die Sicherheitsrichtlinien"));
+                continue;
+            }
+            final String role;
+            try {
+                role = personWriteService.determineCustomerRole(customer.getCustomer().getTierLevel());
+            } catch (RuntimeException e) {
+                failures.add(new ImportFailure(customer.getUsername(), e.getMessage()));
+                continue;
+            }
+            customer.setId(UUID.randomUUID());
+            customer.setPersonType(CUSTOMER);
+            customer.getCustomer().setCustomerState(ACTIVE);
+            passwords.put(customer.getId(), entry.password());
+            roles.put(customer.getId(), role);
+            candidates.add(customer);
+        }
+
+        final var inserted = insertAll(candidates, failures);
+        if (inserted.isEmpty()) {
+            return new ImportReport(chunk.size(), 0, failures);
+        }
+
+        final var rejected = new ArrayList<UUID>();
+        final var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Person.class);
+        final var added = new ArrayList<Person>();
+        try {
+            final var results = keycloakService.importUsers(inserted, passwords, roles);
+            for (final var person : inserted) {
+                final var result = results.get(person.getUsername());
+                if (result != null && "ADDED".equals(result.action())) {
+                    person.setKeycloakId(result.id());
+                    bulk.updateOne(query(where("_id").is(person.getId())), new Update().set("keycloakId", result.id()));
+                    added.add(person);
+                } else {
+                    rejected.add(person.getId());
+                    failures.add(new ImportFailure(person.getUsername(),
+                        result == null ? "Keycloak hat den Benutzer nicht angelegt" : "Benutzer existiert bereits in Keycloak"));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Bei einem Timeout kann Keycloak die Benutzer trotzdem angelegt haben: nachsehen statt blind löschen
+            logger().error("importChunk: partialImport fehlgeschlagen, gleiche {} Benutzer ab: {}", inserted.size(), e.getMessage());
+            for (final var person : inserted) {
+                switch (reconcile(person)) {
+                    case CREATED -> {
+                        bulk.updateOne(query(where("_id").is(person.getId())), new Update().set("keycloakId", person.getKeycloakId()));
+                        added.add(person);
+                    }
+                    case MISSING -> {
+                        rejected.add(person.getId());
+                        failures.add(new ImportFailure(person.getUsername(), "Keycloak: " + e.getMessage()));
+                    }
+                    case UNKNOWN -> {
+                        // Ein verspätet angelegter Benutzer wird über die Outbox wieder entfernt
+                        rejected.add(person.getId());
+                        outboxService.enqueue(person, KEYCLOAK_DELETE_USER);
+                        failures.add(new ImportFailure(person.getUsername(), "Keycloak: " + e.getMessage()));
+                    }
+                }
+            }
+        }
+
+        if (!added.isEmpty()) {
+            bulk.execute();
+        }
+        if (!rejected.isEmpty()) {
+            // Kompensation: ohne Keycloak-Benutzer dürfen die Kunden nicht bestehen bleiben
+            mongoTemplate.remove(query(where("_id").in(rejected)), Person.class);
+        }
+
+        added.forEach(customer -> {
+            kafkaPublisherService.sendMail(TOPIC_NOTIFICATION_CREATE_PERSON, customer, roles.get(customer.getId()), false);
+            kafkaPublisherService.createAccount(customer.getId(), customer.getUsername());
+            kafkaPublisherService.createShoppingCart(customer.getId(), customer.getUsername());
+            kpiAggregator.record(KpiType.PERSON_CREATED);
+        });
+
+        return new ImportReport(chunk.size(), added.size(), failures);
+    }
+
+    /**
+     * Ergebnis des Abgleichs eines Kunden mit Keycloak nach einem fehlgeschlagenen {@code partialImport}.
+     */
+    private enum Reconciliation {
+        /** Keycloak hat den Benutzer angelegt; die Keycloak-ID ist gesetzt. */
+        CREATED,
+        /** Keycloak kennt den Benutzer nicht (oder nur mit fremder E-Mail-Adresse). */
+        MISSING,
+        /** Keycloak ist nicht erreichbar; der Zustand ist unbekannt. */
+        UNKNOWN
+    }
+
+    /**
+     * Sucht den Kunden über seinen Benutzernamen in Keycloak und übernimmt bei passender E-Mail-Adresse die ID.
+     */
+    private Reconciliation reconcile(final Person person) {
+        try {
+            final var user = keycloakService.findUser(person.getUsername())
+                .filter(candidate -> person.getEmail().equalsIgnoreCase(candidate.email()));
+            if (user.isEmpty()) {
+                return Reconciliation.MISSING;
+            }
+            person.setKeycloakId(user.get().id());
+            return Reconciliation.CREATED;
+        } catch (RuntimeException e) {
+            logger().warn("reconcile: Benutzer {} nicht prüfbar: {}", person.getUsername(), e.getMessage());
+            return Reconciliation.UNKNOWN;
+        }
+    }
+
+    /**
+     * Fügt die Kunden mit einem ungeordneten Bulk-Insert ein und liefert die erfolgreich eingefügten.
+     */
+    private List<Person> insertAll(final List<Person> candidates, final List<ImportFailure> failures) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Person.class).insert(candidates).execute();
+            return candidates;
+        } catch (BulkOperationException e) {
+            final var failed = new HashSet<Integer>();
+            e.getErrors().forEach(error -> {
+                failed.add(error.getIndex());
+                final var person = candidates.get(error.getIndex());
+                failures.add(new ImportFailure(person.getUsername(), error.getCode() == DUPLICATE_KEY
+                    ? "E-Mail oder Benutzername existiert bereits"
+                    : error.getMessage()));
+            });
+            final var inserted = new ArrayList<Person>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!failed.contains(i)) {
+                    inserted.add(candidates.get(i));
+                }
+            }
+            return inserted;
+        }
+    }
+}
@@ -6,7 +6,7 @@ import com.omnixys.person.messaging.KafkaPublisherService;
 import com.omnixys.person.models.entities.Person;
 import com.omnixys.person.repositories.PersonRepository;
 import com.omnixys.person.resolvers.PersonQueryResolver;
-import com.omnixys.person.security.enums.RoleType;
+import com.omnixys.person.security.CustomUserDetails;
 import com.omnixys.person.tracing.LoggerPlus;
 import com.omnixys.person.tracing.LoggerPlusFactory;
 import io.micrometer.observation.annotation.Observed;
@@ -21,7 +21,6 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -90,12 +89,7 @@ public class PersonReadService {
                     return person;
                 }
 
-                final var roles = user.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .map(str -> str.substring(RoleType.ROLE_PREFIX.length()))
-                    .map(RoleType::valueOf)
-                    .toList();
-
+                final var roles = CustomUserDetails.rolesOf(user);
                 if (!roles.contains(ADMIN) && !roles.contains(USER)) {
                     throw new AccessForbiddenException(user.getUsername(), roles);
                 }
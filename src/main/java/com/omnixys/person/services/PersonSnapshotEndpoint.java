@@ -0,0 +1,38 @@
+package com.omnixys.person.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-Endpunkt {@code /actuator/personsnapshot} zum Starten und Beobachten des Snapshot-Rebuilds.
+ * <p>
+ * Ein Rebuild veröffentlicht die gesamte Collection; der Endpunkt ist daher nur für Administratoren
+ * freigegeben (siehe {@code SecurityConfig}).
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Component
+@Endpoint(id = "personsnapshot")
+@RequiredArgsConstructor
+public class PersonSnapshotEndpoint {
+
+  private final PersonSnapshotRebuildJob personSnapshotRebuildJob;
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    return personSnapshotRebuildJob.status();
+  }
+
+  @WriteOperation
+  public Map<String, Object> rebuild() {
+    personSnapshotRebuildJob.start();
+    return personSnapshotRebuildJob.status();
+  }
+}
@@ -0,0 +1,170 @@
+package com.omnixys.person.services;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.events.PersonSnapshot;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Veröffentlicht alle Personen erneut auf {@code person.snapshot}.
+ * <p>
+ * Die Collection wird per Cursor gestreamt, sodass nie alle Personen gleichzeitig im Speicher liegen. Nötig
+ * beim erstmaligen Befüllen des Topics, nach einer Änderung der Projektion oder wenn das Topic neu angelegt
+ * wurde. Es läuft höchstens ein Rebuild gleichzeitig. Auslösen über {@code POST /actuator/personsnapshot}.
+ * </p>
+ * <p>
+ * Während des Scans veröffentlicht der {@link PersonChangeFeed} weiter neuere Stände und Tombstones. Damit
+ * auf dem kompaktierten Topic nicht ein älterer Stand aus dem Scan als letzter Record übrig bleibt, merkt sich
+ * der Rebuild vor dem Scan die Position des Change-Streams und spielt danach alle seither geänderten Personen
+ * bis zum aktuellen Ende des Streams nach. Dabei wird jede Person frisch gelesen (fehlt sie, folgt ein
+ * Tombstone), sodass der letzte Record des Rebuilds je Schlüssel mindestens so neu ist wie der des
+ * Change-Feeds. Liegt die Position nach einem sehr langen Scan nicht mehr im Oplog, bricht der Rebuild mit
+ * Fehler ab und muss wiederholt werden.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonSnapshotRebuildJob {
+
+    private static final String PERSONS = "persons";
+
+    private static final Set<OperationType> RELEVANT_OPERATIONS = Set.of(
+        OperationType.INSERT, OperationType.UPDATE, OperationType.REPLACE, OperationType.DELETE
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaPublisherService kafkaPublisherService;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String lastError;
+
+    /**
+     * Startet den Rebuild auf einem virtuellen Thread.
+     *
+     * @return {@code false}, wenn bereits ein Rebuild läuft.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        published.set(0);
+        replayed.set(0);
+        startedAt = Instant.now();
+        finishedAt = null;
+        lastError = null;
+        Thread.ofVirtual().name("person-snapshot-rebuild").start(this::rebuild);
+        return true;
+    }
+
+    /**
+     * @return Zustand des laufenden bzw. letzten Rebuilds.
+     */
+    public Map<String, Object> status() {
+        final var status = new LinkedHashMap<String, Object>();
+        status.put("running", running.get());
+        status.put("published", published.get());
+        status.put("replayed", replayed.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void rebuild() {
+        logger().info("rebuild: person.snapshot wird neu aufgebaut");
+        try {
+            final var resumeToken = currentResumeToken();
+            try (var persons = mongoTemplate.stream(new Query(), Person.class)) {
+                persons.forEach(person -> {
+                    kafkaPublisherService.personSnapshot(PersonSnapshot.of(person));
+                    published.incrementAndGet();
+                });
+            }
+            replayChanges(resumeToken);
+            logger().info("rebuild: {} Personen veröffentlicht, {} Änderungen nachgespielt", published.get(), replayed.get());
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            logger().error("rebuild: abgebrochen nach {} Personen: {}", published.get(), e.getMessage());
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Liefert die aktuelle Position des Change-Streams, ohne eine Änderung zu konsumieren.
+     */
+    private BsonDocument currentResumeToken() {
+        try (var cursor = mongoTemplate.getCollection(PERSONS).watch().cursor()) {
+            // Token aus der leeren ersten Antwort (postBatchResumeToken)
+            final var resumeToken = cursor.getResumeToken();
+            if (resumeToken == null) {
+                throw new IllegalStateException("MongoDB liefert keinen Resume-Token für " + PERSONS);
+            }
+            return resumeToken;
+        }
+    }
+
+    /**
+     * Veröffentlicht den aktuellen Stand aller Personen, die sich seit {@code resumeToken} geändert haben,
+     * bis der Stream keine weiteren Änderungen mehr liefert.
+     */
+    private void replayChanges(final BsonDocument resumeToken) {
+        try (var cursor = mongoTemplate.getCollection(PERSONS)
+            .watch()
+            .resumeAfter(resumeToken)
+            .maxAwaitTime(1, TimeUnit.SECONDS)
+            .cursor()) {
+            ChangeStreamDocument<Document> change;
+            while ((change = cursor.tryNext()) != null) {
+                if (RELEVANT_OPERATIONS.contains(change.getOperationType()) && change.getDocumentKey() != null) {
+                    republish(toUuid(change.getDocumentKey().get("_id")));
+                    replayed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void republish(final UUID id) {
+        final var person = mongoTemplate.findById(id, Person.class);
+        if (person == null) {
+            kafkaPublisherService.personSnapshotDeleted(id);
+        } else {
+            kafkaPublisherService.personSnapshot(PersonSnapshot.of(person));
+        }
+    }
+
+    private static UUID toUuid(final BsonValue id) {
+        return id.isBinary() ? id.asBinary().asUuid() : UUID.fromString(id.asString().getValue());
+    }
+}
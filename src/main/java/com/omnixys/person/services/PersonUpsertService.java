@@ -0,0 +1,122 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.events.PersonUpsertDTO;
+import com.omnixys.person.tracing.LoggerPlus;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Übernimmt Personen aus Umsystemen (z.B. CRM) per Upsert.
+ * <p>
+ * Alle Personen eines Aufrufs werden mit einem einzigen ungeordneten {@code bulkWrite} als
+ * {@code updateOne(upsert)} geschrieben. {@code $set} enthält nur die Felder, die das Umsystem verwaltet;
+ * {@code keycloakId}, {@code customer.contactIds} und {@code customer.contacts} bleiben erhalten.
+ * {@code created} wird nur beim Einfügen gesetzt ({@code $setOnInsert}), {@code version} um eins erhöht.
+ * </p>
+ * <p>
+ * Fehler einzelner Dokumente (z.B. eine bereits vergebene E-Mail) brechen die übrigen nicht ab und werden
+ * im {@link Result} gezählt. Infrastrukturfehler werden weitergereicht, damit der Aufrufer den Batch
+ * wiederholen kann.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonUpsertService {
+
+    private final MongoTemplate mongoTemplate;
+    private final LoggerPlusFactory factory;
+    private LoggerPlus logger() {
+        return factory.getLogger(getClass());
+    }
+
+    /**
+     * Ergebnis eines Upserts.
+     *
+     * @param applied Anzahl eingefügter oder ersetzter Personen.
+     * @param failed  Anzahl der Personen, die MongoDB abgelehnt hat.
+     */
+    public record Result(int applied, int failed) {}
+
+    /**
+     * Schreibt die Personen; je ID darf höchstens eine Person enthalten sein.
+     *
+     * @param persons Die vollständigen Personen aus dem Umsystem.
+     * @return Anzahl geschriebener und abgelehnter Personen.
+     */
+    @Observed(name = "person-service.upsert")
+    public Result upsertAll(final Collection<PersonUpsertDTO> persons) {
+        if (persons.isEmpty()) {
+            return new Result(0, 0);
+        }
+
+        final var now = LocalDateTime.now();
+        final var ids = new ArrayList<UUID>(persons.size());
+        final var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Person.class);
+        persons.forEach(person -> {
+            ids.add(person.id());
+            bulk.upsert(query(where("_id").is(person.id())), toUpdate(person, now));
+        });
+
+        try {
+            bulk.execute();
+            return new Result(persons.size(), 0);
+        } catch (BulkOperationException e) {
+            // getIndex() ist die Position in der Reihenfolge, in der die Operationen angelegt wurden
+            e.getErrors().forEach(error ->
+                logger().warn("upsertAll: Person {} abgelehnt: {}", ids.get(error.getIndex()), error.getMessage()));
+            return new Result(persons.size() - e.getErrors().size(), e.getErrors().size());
+        }
+    }
+
+    private static Update toUpdate(final PersonUpsertDTO person, final LocalDateTime now) {
+        final var update = new Update()
+            .set("username", person.username())
+            .set("email", person.email())
+            .set("personType", person.personType())
+            .set("updated", now)
+            .setOnInsert("created", now)
+            .inc("version", 1);
+        setIfPresent(update, "lastName", person.lastName());
+        setIfPresent(update, "firstName", person.firstName());
+        setIfPresent(update, "phoneNumber", person.phoneNumber());
+        setIfPresent(update, "birthdate", person.birthdate());
+        setIfPresent(update, "gender", person.gender());
+        setIfPresent(update, "address", person.address());
+        setIfPresent(update, "employee", person.employee());
+
+        // Einzelne Pfade statt des ganzen Unterdokuments, damit die Kontakte des Kunden erhalten bleiben
+        final var customer = person.customer();
+        if (customer != null) {
+            setIfPresent(update, "customer.tierLevel", customer.tierLevel());
+            setIfPresent(update, "customer.subscribed", customer.subscribed());
+            setIfPresent(update, "customer.maritalStatus", customer.maritalStatus());
+            setIfPresent(update, "customer.interests", customer.interests());
+            setIfPresent(update, "customer.contactOptions", customer.contactOptions());
+        }
+        return update;
+    }
+
+    private static void setIfPresent(final Update update, final String key, final Object value) {
+        if (value != null) {
+            update.set(key, value);
+        }
+    }
+}
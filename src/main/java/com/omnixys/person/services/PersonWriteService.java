@@ -5,12 +5,16 @@ import com.omnixys.person.exceptions.EmailExistsException;
 import com.omnixys.person.exceptions.IllegalArgumentException;
 import com.omnixys.person.exceptions.NotFoundException;
 import com.omnixys.person.exceptions.PasswordInvalidException;
+import com.omnixys.person.exceptions.SignUpException;
 import com.omnixys.person.exceptions.UsernameExistsException;
+import com.omnixys.person.exceptions.VersionOutdatedException;
 import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
 import com.omnixys.person.models.entities.Contact;
 import com.omnixys.person.models.entities.Customer;
 import com.omnixys.person.models.entities.Employee;
 import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.KpiType;
 import com.omnixys.person.models.enums.PersonType;
 import com.omnixys.person.repositories.ContactRepository;
 import com.omnixys.person.repositories.PersonRepository;
@@ -20,25 +24,36 @@ import com.omnixys.person.security.service.KeycloakService;
 import com.omnixys.person.tracing.LoggerPlus;
 import com.omnixys.person.tracing.LoggerPlusFactory;
 import com.omnixys.person.utils.ValidationService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.micrometer.observation.annotation.Observed;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_CREATE_PERSON;
-import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_DELETE_PERSON;
+import static com.omnixys.person.models.enums.OutboxTaskType.CUSTOMER_DELETED;
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_DELETE_USER;
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_UPDATE_USER;
 import static com.omnixys.person.models.enums.PersonType.CUSTOMER;
 import static com.omnixys.person.models.enums.PersonType.EMPLOYEE;
 import static com.omnixys.person.models.enums.StatusType.ACTIVE;
@@ -49,6 +64,8 @@ import static com.omnixys.person.utils.Constants.NUMBERS;
 import static com.omnixys.person.utils.Constants.SYMBOLS;
 import static com.omnixys.person.utils.Constants.UPPERCASE;
 import static java.util.Locale.GERMAN;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 /**
  * Service für schreibende Operationen auf Personen.
@@ -65,12 +82,49 @@ public class PersonWriteService {
 
     private final PersonReadService personReadService;
     private final PersonRepository personRepository;
+    private final MongoTemplate mongoTemplate;
     private final KafkaPublisherService kafkaPublisherService;
+    private final KpiAggregator kpiAggregator;
     private final KeycloakService keycloakService;
     private final ContactRepository contactRepository;
+    private final OutboxService outboxService;
     private final ValidationService validationService;
     private final Tracer tracer;
     private final LoggerPlusFactory factory;
+
+    /**
+     * Liest das Feld des doppelten Schlüssels aus einer E11000-Fehlermeldung, z.B. {@code dup key: { email: "..." }}.
+     */
+    private static final Pattern DUPLICATE_KEY_FIELD = Pattern.compile("dup key: \\{ ?\"?([\\w.]+)\"?\\s*:");
+
+    /**
+     * Liest den Namen des verletzten Index; automatisch angelegte Indizes heißen z.B. {@code email_1}.
+     */
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("index: (\\S+?)(?:_-?1)? dup key");
+
+    /**
+     * Felder, die eine Aktualisierung ändern kann; ein Rollback setzt nur die davon geänderten zurück.
+     */
+    private static final Map<String, Function<Person, Object>> UPDATABLE_FIELDS = Map.of(
+        "lastName", Person::getLastName,
+        "firstName", Person::getFirstName,
+        "email", Person::getEmail,
+        "phoneNumber", Person::getPhoneNumber,
+        "username", Person::getUsername,
+        "birthdate", Person::getBirthdate,
+        "gender", Person::getGender,
+        "address", Person::getAddress,
+        "customer", Person::getCustomer,
+        "employee", Person::getEmployee
+    );
+
+    /**
+     * Felder, die nach Keycloak übertragen werden.
+     */
+    private static final List<Function<Person, Object>> KEYCLOAK_FIELDS = List.of(
+        Person::getFirstName, Person::getLastName, Person::getEmail, Person::getUsername
+    );
+
     private LoggerPlus logger() {
         return factory.getLogger(getClass());
     }
@@ -81,7 +135,8 @@ public class PersonWriteService {
      *
      * @param customer Die zu speichernden Kunden.
      * @return Die gespeicherte Person mit ID und Zeitstempeln.
-     * @throws IllegalArgumentException wenn E-Mail oder Username bereits vergeben sind.
+     * @throws EmailExistsException wenn die E-Mail bereits vergeben ist.
+     * @throws UsernameExistsException wenn der Username bereits vergeben ist.
      */
     @Observed(name = "person-service.write.create-customer")
     public Person createCustomer(final Person customer, final String password) {
@@ -97,23 +152,17 @@ public class PersonWriteService {
             logger().debug(String.format("createCustomer: customer=%s", customer));
 
             final var role = determineCustomerRole(customer.getCustomer().getTierLevel());
-            Span keycloakSpan = tracer.spanBuilder("keycloak.sign-in").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.signIn(customer, password, role);
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei SignIn");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
 
+            // Zuerst einfügen: die Unique-Indizes auf email/username ersetzen die exists-Abfragen
             final Person savedCustomer;
-            Span mongoSpan = tracer.spanBuilder("person-repository.safe").startSpan();
+            Span mongoSpan = tracer.spanBuilder("person-repository.insert").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
-                savedCustomer = personRepository.save(customer);
+                savedCustomer = personRepository.insert(customer);
+            } catch (DuplicateKeyException e) {
+                mongoSpan.recordException(e);
+                mongoSpan.setStatus(StatusCode.ERROR, "Duplikat");
+                throw translateDuplicateKey(e, customer);
             } catch (Exception e) {
                 mongoSpan.recordException(e);
                 mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim speichern");
@@ -122,13 +171,30 @@ public class PersonWriteService {
                 mongoSpan.end();
             }
 
+            Span keycloakSpan = tracer.spanBuilder("keycloak.sign-in").startSpan();
+            String keycloakId = null;
+            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
+                assert keycloakScope != null;
+                keycloakId = keycloakService.signIn(savedCustomer, password, role);
+                personRepository.setKeycloakId(savedCustomer.getId(), keycloakId);
+                savedCustomer.setKeycloakId(keycloakId);
+            } catch (Exception e) {
+                keycloakSpan.recordException(e);
+                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei SignIn");
+                // Kompensation: ohne Keycloak-Benutzer darf der Kunde nicht bestehen bleiben
+                compensateSignIn(savedCustomer, e instanceof SignUpException signUp ? signUp.getKeycloakId() : keycloakId);
+                throw e;
+            } finally {
+                keycloakSpan.end();
+            }
+
             Span kafkaSpan = tracer.spanBuilder("kafka.send-messages").startSpan();
             try (Scope kafkaScope = kafkaSpan.makeCurrent()) {
                 assert kafkaScope != null;
                 kafkaPublisherService.sendMail(TOPIC_NOTIFICATION_CREATE_PERSON,savedCustomer, role, false);
                 kafkaPublisherService.createAccount(savedCustomer.getId(), savedCustomer.getUsername());
                 kafkaPublisherService.createShoppingCart(savedCustomer.getId(),savedCustomer.getUsername());
-                kafkaPublisherService.sendKPI(true);
+                kpiAggregator.record(KpiType.PERSON_CREATED);
             } catch (Exception e) {
                 kafkaSpan.recordException(e);
                 kafkaSpan.setStatus(StatusCode.ERROR, "Fehler beim versenden der Nachrichten");
@@ -171,38 +237,17 @@ public class PersonWriteService {
                 readServiceSpan.end();
             }
 
+            final var oldUsername = customerDb.getUsername();
+            // customer wird unten direkt geändert und braucht deshalb eine eigene Kopie
+            final var previous = customerDb.toBuilder()
+                .customer(customerDb.getCustomer() == null ? null : customerDb.getCustomer().toBuilder().build())
+                .build();
             validateAndUpdateUserDetails(customerDb, customerInput, user);
             customerDb.set(customerInput);
             customerDb.setVersion(++version);
             customerDb.getCustomer().setCustomerState(ACTIVE);
 
-            Span keycloakSpan = tracer.spanBuilder("keycloak.update-customer").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.update(customerDb, user.getJwt(), isAdmin(user), customerDb.getUsername());
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler beim update");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
-
-            final Person updatedCustomerDb;
-            Span mongoSpan = tracer.spanBuilder("person-repository.save").startSpan();
-            try (Scope mongoScope = mongoSpan.makeCurrent()) {
-                assert mongoScope != null;
-
-                updatedCustomerDb = personRepository.save(customerDb);
-
-
-            } catch (Exception e) {
-                mongoSpan.recordException(e);
-                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim speichern");
-                throw e;
-            } finally {
-                mongoSpan.end();
-            }
+            final var updatedCustomerDb = saveWithKeycloakSync(customerDb, previous, user, oldUsername, "customer");
 
             logger().debug("updateCustomer: customerDb={}", updatedCustomerDb);
             return updatedCustomerDb;
@@ -217,58 +262,39 @@ public class PersonWriteService {
 
 
 
+    @Transactional
     @Observed(name = "person-service.delete-customer")
     public void deleteCustomerById(final UUID id, final int version, final CustomUserDetails user) {
         Span serviceSpan = tracer.spanBuilder("person-repository.delete-customer-by-id").startSpan();
         try (Scope serviceScope = serviceSpan.makeCurrent()) {
             assert serviceScope != null;
 
-
             logger().debug("deleteCustomerById: id={}, version={}, user={}", id, version, user.getUsername());
 
             final var customerDb = validateDeletePerson(id, version, user);
-            deleteAssociatedContacts(customerDb);
-            logger().debug("deleteCustomerById: kunde wurde gelöscht vom user {}", user.getUsername());
-
-
-            Span keycloakSpan = tracer.spanBuilder("keycloak.delete").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.delete(user.getToken(), customerDb.getUsername());
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei Delete");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
 
             Span mongoSpan = tracer.spanBuilder("person-repository.delete-customer").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
+                deleteAssociatedContacts(customerDb);
                 personRepository.delete(customerDb);
+                // Keycloak und Benachrichtigungen werden nach dem Commit asynchron abgearbeitet
+                outboxService.enqueue(customerDb, KEYCLOAK_DELETE_USER, CUSTOMER_DELETED);
             } catch (Exception e) {
                 mongoSpan.recordException(e);
-                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim speichern");
+                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Löschen");
                 throw e;
             } finally {
                 mongoSpan.end();
             }
 
-            Span kafkaSpan = tracer.spanBuilder("kafka.send-messages").startSpan();
-            try (Scope kafkaScope = kafkaSpan.makeCurrent()) {
-                assert kafkaScope != null;
-                kafkaPublisherService.deleteShoppingCart(customerDb.getId());
-                kafkaPublisherService.deleteAccount(customerDb.getId(), customerDb.getVersion(), customerDb.getUsername());
-                kafkaPublisherService.sendMail(TOPIC_NOTIFICATION_DELETE_PERSON,customerDb,null, true);
-                kafkaPublisherService.sendKPI(false);
-            } catch (Exception e) {
-                kafkaSpan.recordException(e);
-                kafkaSpan.setStatus(StatusCode.ERROR, "Fehler beim versenden der Nachrichten");
-                throw e;
-            } finally {
-                kafkaSpan.end();
-            }
+            logger().debug("deleteCustomerById: kunde wurde gelöscht vom user {}", user.getUsername());
+        } catch (Exception e) {
+            serviceSpan.recordException(e);
+            serviceSpan.setStatus(StatusCode.ERROR, "Fehler bei deleteCustomerById");
+            throw e;
+        } finally {
+            serviceSpan.end();
         }
     }
 
@@ -285,23 +311,15 @@ public class PersonWriteService {
             employee.setEmail(String.format("%s.%s@omnixys-systems.com",
                 employee.getFirstName(), employee.getLastName()));
 
-            Span keycloakSpan = tracer.spanBuilder("keycloak.sign-in").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.signIn(employee, password, employee.getEmployee().getRole());
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei Keycloak-SignIn");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
-
             Person employeeDb;
-            Span mongoSpan = tracer.spanBuilder("person-repository.save-employee").startSpan();
+            Span mongoSpan = tracer.spanBuilder("person-repository.insert-employee").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
-                employeeDb = personRepository.save(employee);
+                employeeDb = personRepository.insert(employee);
+            } catch (DuplicateKeyException e) {
+                mongoSpan.recordException(e);
+                mongoSpan.setStatus(StatusCode.ERROR, "Duplikat");
+                throw translateDuplicateKey(e, employee);
             } catch (Exception e) {
                 mongoSpan.recordException(e);
                 mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Speichern");
@@ -310,6 +328,22 @@ public class PersonWriteService {
                 mongoSpan.end();
             }
 
+            Span keycloakSpan = tracer.spanBuilder("keycloak.sign-in").startSpan();
+            String keycloakId = null;
+            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
+                assert keycloakScope != null;
+                keycloakId = keycloakService.signIn(employeeDb, password, employeeDb.getEmployee().getRole());
+                personRepository.setKeycloakId(employeeDb.getId(), keycloakId);
+                employeeDb.setKeycloakId(keycloakId);
+            } catch (Exception e) {
+                keycloakSpan.recordException(e);
+                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei Keycloak-SignIn");
+                compensateSignIn(employeeDb, e instanceof SignUpException signUp ? signUp.getKeycloakId() : keycloakId);
+                throw e;
+            } finally {
+                keycloakSpan.end();
+            }
+
             logger().debug("createEmployee: employeeDb={}", employeeDb);
             return employeeDb;
         } catch (Exception e) {
@@ -330,33 +364,13 @@ public class PersonWriteService {
             logger().debug("updateEmployee: id={}, version={}, employee={}, user={}", id, version, employeeInput, user.getUsername());
 
             final var employeeDb = validateUpdatePerson(id, version, user, EMPLOYEE);
+            final var oldUsername = employeeDb.getUsername();
+            final var previous = employeeDb.toBuilder().build();
             validateAndUpdateUserDetails(employeeDb, employeeInput, user);
             employeeDb.set(employeeInput);
+            employeeDb.setVersion(++version);
 
-            Span keycloakSpan = tracer.spanBuilder("keycloak.update-employee").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.update(employeeDb, user.getJwt(), isAdmin(user), employeeDb.getUsername());
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei Keycloak-SignIn");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
-
-            final Person updatedEmployeeDb;
-            Span mongoSpan = tracer.spanBuilder("person-repository.update-employee").startSpan();
-            try (Scope mongoScope = mongoSpan.makeCurrent()) {
-                assert mongoScope != null;
-                updatedEmployeeDb = personRepository.save(employeeDb);
-            } catch (Exception e) {
-                mongoSpan.recordException(e);
-                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Speichern");
-                throw e;
-            } finally {
-                mongoSpan.end();
-            }
+            final var updatedEmployeeDb = saveWithKeycloakSync(employeeDb, previous, user, oldUsername, "employee");
 
             logger().debug("updateEmployee: employeeDb={}, user={}", updatedEmployeeDb, user.getUsername());
             return updatedEmployeeDb;
@@ -369,6 +383,7 @@ public class PersonWriteService {
         }
     }
 
+    @Transactional
     @Observed(name = "person-service.delete-employee")
     public void deleteEmployeeById(final UUID id, final int version, final CustomUserDetails user) {
         Span serviceSpan = tracer.spanBuilder("person-service.write.delete-employee").startSpan();
@@ -378,26 +393,13 @@ public class PersonWriteService {
             logger().debug("deleteEmployeeById: id={}, version={}, user={}", id, version, user.getUsername());
 
             final var employeeDb = validateDeletePerson(id, version, user);
-            deleteAssociatedContacts(employeeDb);
-
-            logger().debug("deleteEmployeeById: angestellter wurde gelöscht von {}", user.getUsername());
-
-            Span keycloakSpan = tracer.spanBuilder("keycloak.delete").startSpan();
-            try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
-                assert keycloakScope != null;
-                keycloakService.delete(user.getToken(), employeeDb.getUsername());
-            } catch (Exception e) {
-                keycloakSpan.recordException(e);
-                keycloakSpan.setStatus(StatusCode.ERROR, "Fehler bei Keycloak-Delete");
-                throw e;
-            } finally {
-                keycloakSpan.end();
-            }
 
             Span mongoSpan = tracer.spanBuilder("person-repository.delete-employee").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
+                deleteAssociatedContacts(employeeDb);
                 personRepository.delete(employeeDb);
+                outboxService.enqueue(employeeDb, KEYCLOAK_DELETE_USER);
             } catch (Exception e) {
                 mongoSpan.recordException(e);
                 mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Löschen");
@@ -406,6 +408,7 @@ public class PersonWriteService {
                 mongoSpan.end();
             }
 
+            logger().debug("deleteEmployeeById: angestellter wurde gelöscht von {}", user.getUsername());
         } catch (Exception e) {
             serviceSpan.recordException(e);
             serviceSpan.setStatus(StatusCode.ERROR);
@@ -427,29 +430,28 @@ public class PersonWriteService {
             final var customerDb = personReadService.findById(customerId, user);
             validateUserAccess(user, customerDb);
 
-            if (customerDb.getCustomer().getContactIds() == null) {
-                customerDb.getCustomer().setContactIds(new ArrayList<>());
-            }
-
-            final var existingContacts = customerDb.getCustomer().getContactIds().stream()
-                .map(contactRepository::findById)  // `Optional<Contact>` wird erzeugt
-                .flatMap(Optional::stream)         // Entfernt `Optional.empty()`
-                .collect(Collectors.toList());      // Liste von `Contact` Objekten
+            // Ein einziger $in-Query statt eines findById pro vorhandenem Kontakt
+            final var contactIds = customerDb.getCustomer().getContactIds();
+            final List<Contact> existingContacts = contactIds == null || contactIds.isEmpty()
+                ? List.of()
+                : contactRepository.findAllById(contactIds);
 
             logger().debug("addContact: contacts={}, user={}", existingContacts, user.getUsername());
 
             validationService.validateContact(contactInput, existingContacts);
             contactInput.setId(UUID.randomUUID());
-            final var contactDb = contactRepository.save(contactInput);
+            final var contactDb = contactRepository.insert(contactInput);
 
             logger().debug("addContact: contactDb={}, user={}", contactDb, user.getUsername());
 
-            customerDb.getCustomer().getContactIds().add(contactDb.getId());
-
-            Span mongoSpan = tracer.spanBuilder("person-repository.save").startSpan();
+            Span mongoSpan = tracer.spanBuilder("person-repository.push-contact-id").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
-                personRepository.save(customerDb);
+                // $push statt das gesamte Personendokument erneut zu speichern
+                if (personRepository.pushContactId(customerId, customerDb.getVersion(), contactDb.getId()) == 0) {
+                    contactRepository.deleteById(contactDb.getId());
+                    throw new VersionOutdatedException(customerDb.getVersion());
+                }
             } catch (Exception e) {
                 mongoSpan.recordException(e);
                 mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Speichern");
@@ -458,7 +460,6 @@ public class PersonWriteService {
                 mongoSpan.end();
             }
 
-
             return contactDb.getId();
         } catch (Exception e) {
             serviceSpan.recordException(e);
@@ -480,7 +481,8 @@ public class PersonWriteService {
             final var customerDb = personReadService.findById(customerId, user);
             validateUserAccess(user, customerDb);
 
-            if (!customerDb.getCustomer().getContactIds().contains(contactId)) {
+            final var contactIds = customerDb.getCustomer().getContactIds();
+            if (contactIds == null || !contactIds.contains(contactId)) {
                 throw new NotFoundException(contactId);
             }
 
@@ -488,14 +490,13 @@ public class PersonWriteService {
             validationService.validateContact(contactInput, contactDb, contactId);
             validationService.validateVersion(contactVersion, contactDb);
             contactDb.set(contactInput);
-            contactRepository.save(contactDb);
 
-            logger().debug("updateContact: contactDb={}, user={}", contactDb, user.getUsername());
-
-            Span mongoSpan = tracer.spanBuilder("person-repository.save").startSpan();
+            final Contact updatedContactDb;
+            Span mongoSpan = tracer.spanBuilder("contact-repository.save").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
-                personRepository.save(customerDb);
+                // Das Kundendokument bleibt unverändert und muss nicht erneut gespeichert werden
+                updatedContactDb = contactRepository.save(contactDb);
             } catch (Exception e) {
                 mongoSpan.recordException(e);
                 mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Speichern");
@@ -504,7 +505,8 @@ public class PersonWriteService {
                 mongoSpan.end();
             }
 
-            return contactDb;
+            logger().debug("updateContact: contactDb={}, user={}", updatedContactDb, user.getUsername());
+            return updatedContactDb;
         } catch (Exception e) {
             span.recordException(e);
             span.setStatus(StatusCode.ERROR);
@@ -526,34 +528,38 @@ public class PersonWriteService {
             final var customerDb = personReadService.findById(customerId, user);
             validateUserAccess(user, customerDb);
 
-            if (!customerDb.getCustomer().getContactIds().contains(contactId)) {
-                throw new NotFoundException(contactId);
-            }
-
-            final var contactDb = contactRepository.findById(contactId).orElseThrow(() -> new NotFoundException(contactId));
-            validationService.validateVersion(contactVersion, contactDb);
             validationService.validateVersion(customerVersion, customerDb);
-            contactRepository.deleteById(contactId);
 
-            customerDb.getCustomer().getContactIds()
-                .stream()
-                .filter(contactIdDb -> contactIdDb.equals(contactId))
-                .toList()
-                .forEach(contactIdDb -> customerDb.getCustomer().getContactIds().remove(contactIdDb));
+            final var contactIds = customerDb.getCustomer().getContactIds();
+            if (contactIds == null || !contactIds.contains(contactId)) {
+                throw new NotFoundException(contactId);
+            }
 
-            Span mongoSpan = tracer.spanBuilder("person-repository.save").startSpan();
+            Span mongoSpan = tracer.spanBuilder("person-repository.pull-contact-id").startSpan();
             try (Scope mongoScope = mongoSpan.makeCurrent()) {
                 assert mongoScope != null;
-                personRepository.save(customerDb);
+                // $pull auf dem Kundendokument, abgesichert über die Version
+                if (personRepository.pullContactId(customerId, customerVersion, contactId) == 0) {
+                    throw new VersionOutdatedException(customerVersion);
+                }
+
+                if (contactRepository.deleteByIdAndVersion(contactId, contactVersion) == 0) {
+                    // Kompensation: Kontakt wieder zuordnen und die genaue Ursache ermitteln;
+                    // der $pull hat die Version bereits erhöht
+                    personRepository.pushContactId(customerId, customerVersion + 1, contactId);
+                    final var contactDb = contactRepository.findById(contactId).orElseThrow(() -> new NotFoundException(contactId));
+                    validationService.validateVersion(contactVersion, contactDb);
+                    throw new VersionOutdatedException(contactVersion);
+                }
             } catch (Exception e) {
                 mongoSpan.recordException(e);
-                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Speichern");
+                mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim Löschen");
                 throw e;
             } finally {
                 mongoSpan.end();
             }
 
-            logger().debug("removeContact: customerDb={}, user={}", customerDb, user.getUsername());
+            logger().debug("removeContact: contactId={} entfernt, user={}", contactId, user.getUsername());
             return true;
         } catch (Exception e) {
             span.recordException(e);
@@ -601,15 +607,10 @@ public class PersonWriteService {
 
 
     private void validateNewPerson(final Person person, final String password, PersonType type) {
-        if (personRepository.existsByEmail(person.getEmail()))
-            throw new EmailExistsException(person.getEmail());
-
+        // Eindeutigkeit von email/username wird beim Insert über die Unique-Indizes geprüft
         var username = person.getUsername().toLowerCase(GERMAN);
         person.setUsername(username);
 
-        if (personRepository.existsByUsername(username))
-            throw new UsernameExistsException(username);
-
         if (!checkPassword(password))
             throw new PasswordInvalidException("Passwort erfüllt nicht die Sicherheitsrichtlinien");
 
@@ -632,34 +633,264 @@ public class PersonWriteService {
         return dbPerson;
     }
 
-    private void deleteAssociatedContacts(Person customerDb) {
-        if (customerDb.getCustomer().getContactIds() == null) return;
-        customerDb.getCustomer().getContactIds().stream()
-            .flatMap(id -> contactRepository.findById(id).stream())
-            .forEach(contactRepository::delete);
+    private void deleteAssociatedContacts(Person personDb) {
+        if (personDb.getCustomer() == null) return;
+        final var contactIds = personDb.getCustomer().getContactIds();
+        if (contactIds == null || contactIds.isEmpty()) return;
+        // ein einziges deleteMany({_id: {$in: contactIds}})
+        contactRepository.deleteAllById(contactIds);
     }
 
     private void validateAndUpdateUserDetails(Person dbPerson, Person newPerson, CustomUserDetails user) {
-        if (newPerson.getEmail() != null && !dbPerson.getEmail().equals(newPerson.getEmail()) &&
-            personRepository.existsByEmail(newPerson.getEmail()))
-            throw new EmailExistsException(newPerson.getEmail());
+        // Kollisionen von email/username meldet der Unique-Index beim Speichern (translateDuplicateKey)
+        if (newPerson.getUsername() != null)
+            newPerson.setUsername(newPerson.getUsername().toLowerCase(GERMAN));
+    }
 
-        if (newPerson.getUsername() != null && !dbPerson.getUsername().equalsIgnoreCase(newPerson.getUsername()) &&
-            personRepository.existsByUsername(newPerson.getUsername()))
-            throw new UsernameExistsException(newPerson.getUsername());
+    /**
+     * Aktualisiert Keycloak und speichert die Person in MongoDB parallel.
+     * <p>
+     * Beide Seiteneffekte sind unabhängig voneinander und laufen als Subtasks eines {@link StructuredTaskScope};
+     * die Antwortzeit ist damit das Maximum statt der Summe beider Aufrufe. Jeder Subtask erhält eine eigene
+     * Kopie der Person, und alles, was vom Ergebnis abhängt (Outbox, Kompensation), geschieht erst nach
+     * {@code join()}. Es wird auf beide Subtasks gewartet, damit ein Fehlschlag keine halb abgebrochene
+     * Schreiboperation hinterlässt. Schlägt genau eine Seite fehl, wird die andere kompensiert: in MongoDB
+     * werden nur die geänderten Felder zurückgesetzt, abgesichert über die Version
+     * ({@link #rollbackPerson}); Keycloak wird nur zurückgesetzt, wenn das Dokument seitdem unverändert ist
+     * ({@link #compensateKeycloak}).
+     * </p>
+     *
+     * @param personDb Die bereits geänderte Person.
+     * @param previous Der Stand vor der Änderung.
+     * @param user Der angemeldete Benutzer.
+     * @param oldUsername Der Benutzername vor der Änderung.
+     * @param type {@code customer} oder {@code employee} für die Span-Namen.
+     * @return Die gespeicherte Person.
+     */
+    private Person saveWithKeycloakSync(
+        final Person personDb,
+        final Person previous,
+        final CustomUserDetails user,
+        final String oldUsername,
+        final String type
+    ) {
+        final var keycloakCopy = personDb.toBuilder().build();
+        final var mongoCopy = personDb.toBuilder().build();
+        // Für eine zurückgestellte Aktualisierung: ohne gespeicherte ID ist sub des eigenen Tokens die Keycloak-ID
+        final var deferredKeycloakId = personDb.getKeycloakId() != null || isAdmin(user)
+            ? personDb.getKeycloakId()
+            : user.getJwt().getSubject();
+
+        // Subtasks erben keine ThreadLocals, der Trace-Kontext wird daher explizit mitgegeben
+        final var context = Context.current();
+        try (var scope = new StructuredTaskScope<Object>()) {
+            final Subtask<Boolean> keycloakTask = scope.fork(context.wrap(() -> updateKeycloak(keycloakCopy, user, oldUsername, type, deferredKeycloakId)));
+            final Subtask<Person> mongoTask = scope.fork(context.wrap(() -> savePerson(mongoCopy, type)));
+            scope.join();
+
+            final var keycloakFailed = keycloakTask.state() != Subtask.State.SUCCESS;
+            final var mongoFailed = mongoTask.state() != Subtask.State.SUCCESS;
+            if (keycloakFailed && !mongoFailed) {
+                logger().warn("saveWithKeycloakSync: Keycloak fehlgeschlagen, {} wird in MongoDB zurückgesetzt", personDb.getId());
+                rollbackPerson(previous, mongoTask.get());
+            } else if (mongoFailed && !keycloakFailed && !keycloakTask.get()) {
+                compensateKeycloak(previous, personDb, user);
+            }
+            if (mongoFailed) {
+                throw asRuntimeException(mongoTask.exception());
+            }
+            if (keycloakFailed) {
+                throw asRuntimeException(keycloakTask.exception());
+            }
+
+            final var saved = mongoTask.get();
+            if (keycloakTask.get()) {
+                logger().warn("Keycloak nicht verfügbar, Aktualisierung von {} wird zurückgestellt", saved.getUsername());
+                outboxService.enqueue(saved.toBuilder().keycloakId(deferredKeycloakId).build(), KEYCLOAK_UPDATE_USER);
+            }
+            return saved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Aktualisierung von " + personDb.getId() + " wurde unterbrochen", e);
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn Keycloak nicht erreichbar war und die Aktualisierung über die Outbox nachgeholt wird.
+     */
+    private boolean updateKeycloak(Person personDb, CustomUserDetails user, String oldUsername, String type, String deferredKeycloakId) {
+        Span keycloakSpan = tracer.spanBuilder("keycloak.update-" + type).startSpan();
+        try (Scope keycloakScope = keycloakSpan.makeCurrent()) {
+            assert keycloakScope != null;
+            keycloakService.update(personDb, user.getJwt(), isAdmin(user), oldUsername);
+            return false;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            keycloakSpan.recordException(e);
+            // Ohne bekannte Keycloak-ID kann die Outbox den Benutzer später nicht adressieren
+            if (deferredKeycloakId == null) {
+                throw e;
+            }
+            return true;
+        } catch (Exception e) {
+            keycloakSpan.recordException(e);
+            keycloakSpan.setStatus(StatusCode.ERROR, "Fehler beim update");
+            throw e;
+        } finally {
+            keycloakSpan.end();
+        }
+    }
 
-       newPerson.setUsername(newPerson.getUsername().toLowerCase(GERMAN));
+    private Person savePerson(Person personDb, String type) {
+        Span mongoSpan = tracer.spanBuilder("person-repository.update-" + type).startSpan();
+        try (Scope mongoScope = mongoSpan.makeCurrent()) {
+            assert mongoScope != null;
+            return personRepository.save(personDb);
+        } catch (DuplicateKeyException e) {
+            mongoSpan.recordException(e);
+            mongoSpan.setStatus(StatusCode.ERROR, "Duplikat");
+            throw translateDuplicateKey(e, personDb);
+        } catch (Exception e) {
+            mongoSpan.recordException(e);
+            mongoSpan.setStatus(StatusCode.ERROR, "Fehler beim speichern");
+            throw e;
+        } finally {
+            mongoSpan.end();
+        }
+    }
+
+    /**
+     * Entfernt eine neu angelegte Person wieder, nachdem die Registrierung in Keycloak fehlgeschlagen ist.
+     * <p>
+     * Wurde der Keycloak-Benutzer bereits angelegt (z.B. weil erst das Speichern der Keycloak-ID scheiterte),
+     * wird er ebenfalls gelöscht, sonst scheitert jede Wiederholung mit 409. Gelingt das Löschen nicht,
+     * übernimmt die Outbox.
+     * </p>
+     *
+     * @param person     Die gespeicherte Person.
+     * @param keycloakId ID des zurückgebliebenen Keycloak-Benutzers oder {@code null}.
+     */
+    private void compensateSignIn(final Person person, final String keycloakId) {
+        if (keycloakId != null) {
+            try {
+                keycloakService.deleteUser(keycloakId, person.getUsername());
+            } catch (RuntimeException e) {
+                logger().error("compensateSignIn: Keycloak-Benutzer {} wird über die Outbox gelöscht: {}", keycloakId, e.getMessage());
+                outboxService.enqueue(person.toBuilder().keycloakId(keycloakId).build(), KEYCLOAK_DELETE_USER);
+            }
+        }
+        personRepository.deleteById(person.getId());
+    }
+
+    /**
+     * Setzt in MongoDB die Felder zurück, die sich zwischen {@code previous} und {@code saved} unterscheiden.
+     * <p>
+     * Das Update greift nur, solange das Dokument noch die Version von {@code saved} hat; eine zwischenzeitliche
+     * Änderung wird nicht überschrieben. Die Version wird erhöht, damit Leser des verworfenen Stands beim
+     * nächsten Schreiben einen Konflikt erhalten.
+     * </p>
+     *
+     * @return {@code true}, wenn das Dokument zurückgesetzt wurde.
+     */
+    boolean rollbackPerson(final Person previous, final Person saved) {
+        final var update = new Update().inc("version", 1);
+        UPDATABLE_FIELDS.forEach((field, getter) -> {
+            final var old = getter.apply(previous);
+            if (!Objects.equals(old, getter.apply(saved))) {
+                update.set(field, old);
+            }
+        });
+        final var result = mongoTemplate.updateFirst(
+            query(where("_id").is(saved.getId()).and("version").is(saved.getVersion())),
+            update,
+            Person.class
+        );
+        if (result.getMatchedCount() == 0) {
+            logger().error("rollbackPerson: {} wurde zwischenzeitlich geändert, Rollback übersprungen", saved.getId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Setzt den Keycloak-Benutzer auf den Stand vor der Änderung zurück, nachdem das Speichern in MongoDB
+     * fehlgeschlagen ist.
+     * <p>
+     * Das geschieht nur, wenn sich ein nach Keycloak übertragenes Feld geändert hat und das Dokument in MongoDB
+     * noch die Version von {@code previous} hat; sonst hat ein anderer Schreiber Keycloak bereits neuer
+     * aktualisiert. Ein Fehler wird nur protokolliert, damit die ursprüngliche Ausnahme erhalten bleibt.
+     * </p>
+     */
+    private void compensateKeycloak(Person previous, Person personDb, CustomUserDetails user) {
+        if (KEYCLOAK_FIELDS.stream().allMatch(getter -> Objects.equals(getter.apply(previous), getter.apply(personDb)))) {
+            return;
+        }
+        final var current = personRepository.findById(previous.getId()).orElse(null);
+        if (current == null || current.getVersion() != previous.getVersion()) {
+            logger().error("compensateKeycloak: {} wurde zwischenzeitlich geändert, Keycloak wird nicht zurückgesetzt", personDb.getUsername());
+            return;
+        }
+        logger().warn("compensateKeycloak: MongoDB fehlgeschlagen, Keycloak-Benutzer {} wird zurückgesetzt", personDb.getUsername());
+        try {
+            keycloakService.update(current.toBuilder().keycloakId(personDb.getKeycloakId()).build(),
+                user.getJwt(), isAdmin(user), personDb.getUsername());
+        } catch (RuntimeException e) {
+            logger().error("compensateKeycloak: Zurücksetzen von {} fehlgeschlagen: {}", personDb.getUsername(), e.getMessage());
+        }
+    }
+
+    private static RuntimeException asRuntimeException(final Throwable e) {
+        return e instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e);
+    }
+
+    /**
+     * Übersetzt eine Verletzung der Unique-Indizes in die fachliche Ausnahme.
+     * <p>
+     * Der verletzte Index wird aus der Fehlermeldung von MongoDB gelesen
+     * ({@code E11000 duplicate key error collection: ... index: email dup key: ...}).
+     * </p>
+     *
+     * @param e      Die Ausnahme des Repositories.
+     * @param person Die Person, die gespeichert werden sollte.
+     * @return {@link EmailExistsException}, {@link UsernameExistsException} oder die ursprüngliche Ausnahme.
+     */
+    private RuntimeException translateDuplicateKey(final DuplicateKeyException e, final Person person) {
+        final var field = duplicateKeyField(String.valueOf(e.getMostSpecificCause().getMessage()));
+        logger().debug("translateDuplicateKey: field={}", field);
+        if (field == null) {
+            return e;
+        }
+        return switch (field) {
+            case "email" -> new EmailExistsException(person.getEmail());
+            case "username" -> new UsernameExistsException(person.getUsername());
+            default -> e;
+        };
+    }
+
+    /**
+     * Ermittelt das Feld eines doppelten Schlüssels aus der E11000-Fehlermeldung.
+     * <p>
+     * Bevorzugt wird das Feld aus {@code dup key}, das unabhängig vom Indexnamen ist; sonst der Indexname
+     * ohne die Richtungsendung {@code _1}.
+     * </p>
+     *
+     * @param message Die Fehlermeldung von MongoDB.
+     * @return Das Feld oder {@code null}, falls die Meldung keines enthält.
+     */
+    static String duplicateKeyField(final String message) {
+        final var field = DUPLICATE_KEY_FIELD.matcher(message);
+        if (field.find()) {
+            return field.group(1);
+        }
+        final var index = DUPLICATE_KEY_INDEX.matcher(message);
+        return index.find() ? index.group(1) : null;
     }
 
     private boolean isAdmin(CustomUserDetails user) {
-        return extractRoles(user).contains(ADMIN);
+        return user.hasRole(ADMIN);
     }
 
     private Set<RoleType> extractRoles(CustomUserDetails user) {
-        return user.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .map(auth -> RoleType.valueOf(auth.substring(RoleType.ROLE_PREFIX.length())))
-            .collect(Collectors.toSet());
+        return user.getRoles();
     }
 
     private void validateUserAccess(CustomUserDetails user, Person dbPerson) {
@@ -667,7 +898,7 @@ public class PersonWriteService {
             throw new AccessForbiddenException(user.getUsername(), extractRoles(user));
     }
 
-    private String determineCustomerRole(int tierLevel) {
+    String determineCustomerRole(int tierLevel) {
         return switch (tierLevel) {
             case 1 -> "Basic";
             case 2 -> "Elite";
@@ -676,7 +907,7 @@ public class PersonWriteService {
         };
     }
 
-    private boolean checkPassword(final CharSequence password) {
+    boolean checkPassword(final CharSequence password) {
         return password.length() >= MIN_LENGTH &&
             UPPERCASE.matcher(password).matches() &&
             LOWERCASE.matcher(password).matches() &&
@@ -0,0 +1,102 @@
+package com.omnixys.person.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Begrenzter, lock-freier Ringpuffer für mehrere Produzenten und Konsumenten.
+ * <p>
+ * Jeder Slot trägt eine Sequenznummer, die anzeigt, ob er beschrieben oder gelesen werden darf
+ * (Verfahren nach D. Vyukov). Produzenten und Konsumenten reservieren Positionen per CAS; weder
+ * {@link #offer} noch {@link #poll} blockieren. Ist der Puffer voll, liefert {@link #offer} sofort
+ * {@code false}.
+ * </p>
+ *
+ * @param <E> Typ der Elemente.
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+final class LogRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Gewünschte Kapazität; wird auf die nächste Zweierpotenz aufgerundet.
+     */
+    LogRingBuffer(final int capacity) {
+        final var size = capacity <= 2 ? 2 : 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1));
+        mask = size - 1;
+        items = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Fügt ein Element hinzu.
+     *
+     * @param element Das Element.
+     * @return {@code false}, wenn der Puffer voll ist.
+     */
+    boolean offer(final E element) {
+        var position = tail.get();
+        while (true) {
+            final var index = (int) position & mask;
+            final var difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Entnimmt das älteste Element.
+     *
+     * @return Das Element oder {@code null}, wenn der Puffer leer ist.
+     */
+    E poll() {
+        var position = head.get();
+        while (true) {
+            final var index = (int) position & mask;
+            final var difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final var element = items.getAndSet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * @return Ungefähre Anzahl der Elemente; unter Last nur eine Momentaufnahme.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,278 @@
+package com.omnixys.person.tracing;
+
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.events.LogDTO;
+import com.omnixys.person.tracing.LogShipperProps.DropPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Versendet die Logs von {@link LoggerPlus} gebündelt und asynchron an den zentralen Logging-Service.
+ * <p>
+ * Der aufrufende Thread legt den Eintrag nur in einen lock-freien {@link LogRingBuffer}; ein Hintergrund-Thread
+ * leert ihn in Batches von bis zu {@code batch-size} Einträgen und übergibt sie in einer Schleife dem Producer,
+ * weiterhin als ein Record je Eintrag auf {@code logstream.log.person}. Ein Log-Aufruf wartet dadurch nie auf Kafka.
+ * </p>
+ * <p>
+ * Metriken: {@code log.shipper.shipped}, {@code log.shipper.dropped} mit dem Tag {@code reason}
+ * ({@code sampled}, {@code overflow}, {@code evicted}, {@code send-failure}) und die Füllung des Puffers als
+ * {@code log.shipper.queue}. Einträge unter dem Mindest-Level werden nicht gezählt: {@link LoggerPlus} prüft
+ * {@link #isEnabled} vorab und ruft {@link #submit} dann gar nicht erst auf.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LogShipper implements SmartLifecycle {
+
+    /**
+     * Wartezeit des Hintergrund-Threads, wenn der Puffer leer ist.
+     */
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(5).toNanos();
+
+    private final KafkaPublisherService kafkaPublisherService;
+    private final AppProperties appProperties;
+    private final LogShipperProps props;
+    private final MeterRegistry meterRegistry;
+
+    private LogRingBuffer<LogDTO> buffer;
+    private volatile Level minLevel;
+    private volatile DropPolicy dropPolicy;
+    private volatile Map<Level, Double> sampling;
+
+    private Counter shipped;
+    private final Map<String, Counter> dropped = new LinkedHashMap<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @PostConstruct
+    void init() {
+        buffer = new LogRingBuffer<>(props.capacity());
+        minLevel = Level.valueOf(props.minLevel().toUpperCase());
+        dropPolicy = props.dropPolicy();
+        final var rates = new EnumMap<Level, Double>(Level.class);
+        if (props.sampling() != null) {
+            props.sampling().forEach((level, rate) -> rates.put(Level.valueOf(level.toUpperCase()), rate));
+        }
+        sampling = rates;
+
+        shipped = Counter.builder("log.shipper.shipped")
+            .description("An Kafka übergebene Log-Einträge")
+            .register(meterRegistry);
+        for (final var reason : List.of("sampled", "overflow", "evicted", "send-failure")) {
+            dropped.put(reason, Counter.builder("log.shipper.dropped")
+                .description("Verworfene Log-Einträge")
+                .tag("reason", reason)
+                .register(meterRegistry));
+        }
+        Gauge.builder("log.shipper.queue", buffer, LogRingBuffer::size)
+            .description("Log-Einträge im Puffer")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Prüft, ob ein Level aktuell versendet wird. Aufrufer können teure Vorarbeiten so überspringen.
+     *
+     * @param level Das Level.
+     * @return {@code true}, wenn Einträge dieses Levels versendet werden.
+     */
+    public boolean isEnabled(final Level level) {
+        return level.toInt() >= minLevel.toInt();
+    }
+
+    /**
+     * Übergibt einen Log-Eintrag zum Versand. Kehrt immer sofort zurück.
+     *
+     * @param level   Das Level.
+     * @param message Die formatierte Nachricht.
+     * @param service Der Service-Name.
+     * @param context Klasse und Methode des Aufrufers.
+     */
+    public void submit(final Level level, final String message, final String service, final String context) {
+        if (!isEnabled(level)) {
+            // minLevel kann sich seit der Prüfung im LoggerPlus geändert haben
+            return;
+        }
+        final var rate = sampling.get(level);
+        if (rate != null && rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            dropped.get("sampled").increment();
+            return;
+        }
+
+        // Trace-Kontext und Benutzer gehören zum aufrufenden Thread und werden hier übernommen
+        final var spanContext = Span.current().getSpanContext();
+        final var entry = new LogDTO(
+            UUID.randomUUID(),
+            Instant.now(),
+            level.name(),
+            message,
+            service,
+            context,
+            spanContext.isValid() ? spanContext.getTraceId() : null,
+            spanContext.isValid() ? spanContext.getSpanId() : null,
+            TraceContextUtil.getUsernameOrNull(),
+            appProperties.getEnv()
+        );
+
+        if (buffer.offer(entry)) {
+            return;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST && buffer.poll() != null) {
+            dropped.get("evicted").increment();
+            if (buffer.offer(entry)) {
+                return;
+            }
+        }
+        dropped.get("overflow").increment();
+    }
+
+    /**
+     * Ändert Level, Sampling oder Drop-Policy zur Laufzeit.
+     *
+     * @param level        Neues Mindest-Level oder {@code null}.
+     * @param samplingLevel Level, dessen Sampling-Rate geändert wird, oder {@code null}.
+     * @param rate         Neue Sampling-Rate für {@code samplingLevel}.
+     * @param policy       Neue Drop-Policy oder {@code null}.
+     * @throws IllegalArgumentException bei unbekanntem Level, unbekannter Drop-Policy oder ungültiger Rate;
+     *     in diesem Fall bleibt die gesamte Konfiguration unverändert.
+     */
+    public void configure(final String level, final String samplingLevel, final Double rate, final String policy) {
+        // Erst alles prüfen, dann übernehmen: eine ungültige Angabe ändert nichts
+        final var newMinLevel = level == null ? null : parse(Level.class, level, "Level");
+        final var newSamplingLevel = samplingLevel == null ? null : parse(Level.class, samplingLevel, "Level");
+        final var newDropPolicy = policy == null ? null : parse(DropPolicy.class, policy, "Drop-Policy");
+        if (rate != null && rate.isNaN()) {
+            throw new IllegalArgumentException("Ungültige Sampling-Rate: " + rate);
+        }
+
+        if (newMinLevel != null) {
+            minLevel = newMinLevel;
+        }
+        if (newSamplingLevel != null && rate != null) {
+            final var rates = new EnumMap<>(sampling);
+            rates.put(newSamplingLevel, Math.clamp(rate, 0.0, 1.0));
+            sampling = rates;
+        }
+        if (newDropPolicy != null) {
+            dropPolicy = newDropPolicy;
+        }
+        log.info("configure: minLevel={}, sampling={}, dropPolicy={}", minLevel, sampling, dropPolicy);
+    }
+
+    private static <E extends Enum<E>> E parse(final Class<E> type, final String value, final String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekannter Wert für " + name + ": " + value, e);
+        }
+    }
+
+    /**
+     * @return Aktuelle Einstellungen und Zähler.
+     */
+    public Map<String, Object> status() {
+        final var status = new LinkedHashMap<String, Object>();
+        status.put("minLevel", minLevel);
+        status.put("sampling", sampling);
+        status.put("dropPolicy", dropPolicy);
+        status.put("queued", buffer.size());
+        status.put("capacity", buffer.capacity());
+        status.put("shipped", (long) shipped.count());
+        final var droppedCounts = new LinkedHashMap<String, Long>();
+        dropped.forEach((reason, counter) -> droppedCounts.put(reason, (long) counter.count()));
+        status.put("dropped", droppedCounts);
+        return status;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("log-shipper").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(props.flushInterval().plusSeconds(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Spät stoppen, damit auch die Logs des Herunterfahrens anderer Komponenten noch versendet werden.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    private void run() {
+        final var batchSize = props.batchSize();
+        final var flushIntervalNanos = props.flushInterval().toNanos();
+        final var batch = new ArrayList<LogDTO>(batchSize);
+        var lastFlush = System.nanoTime();
+
+        while (running || buffer.size() > 0) {
+            LogDTO entry;
+            while (batch.size() < batchSize && (entry = buffer.poll()) != null) {
+                batch.add(entry);
+            }
+
+            final var due = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (batch.size() >= batchSize || (!batch.isEmpty() && (due || !running))) {
+                ship(batch);
+                batch.clear();
+                lastFlush = System.nanoTime();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        if (!batch.isEmpty()) {
+            ship(batch);
+        }
+    }
+
+    private void ship(final List<LogDTO> batch) {
+        try {
+            kafkaPublisherService.logBatch(batch);
+            shipped.increment(batch.size());
+        } catch (RuntimeException e) {
+            dropped.get("send-failure").increment(batch.size());
+            log.warn("ship: {} Log-Einträge konnten nicht versendet werden: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.omnixys.person.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator-Endpunkt {@code /actuator/logshipper} zum Anzeigen und Ändern von Level, Sampling und Drop-Policy
+ * des Log-Versands.
+ * <p>
+ * Nur für Administratoren freigegeben (siehe {@code SecurityConfig}): wer die Konfiguration ändert, kann den
+ * Versand an den zentralen Logging-Service abschalten.
+ * </p>
+ *
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @since 19.10.2026
+ */
+@Component
+@Endpoint(id = "logshipper")
+@RequiredArgsConstructor
+public class LogShipperEndpoint {
+
+  private final LogShipper logShipper;
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    return logShipper.status();
+  }
+
+  /**
+   * Beispiel: {@code {"minLevel": "WARN"}} oder {@code {"samplingLevel": "INFO", "rate": 0.1}}.
+   * Unbekannte Level oder Drop-Policies werden mit {@code 400 Bad Request} abgewiesen.
+   */
+  @WriteOperation
+  public Map<String, Object> configure(
+      @Nullable final String minLevel,
+      @Nullable final String samplingLevel,
+      @Nullable final Double rate,
+      @Nullable final String dropPolicy
+  ) {
+    try {
+      logShipper.configure(minLevel, samplingLevel, rate, dropPolicy);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+    }
+    return logShipper.status();
+  }
+}
@@ -0,0 +1,50 @@
+package com.omnixys.person.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Einstellungen für den Versand der Logs an den zentralen Logging-Service.
+ * <p>
+ * Geladen aus {@code app.logging.shipper} in `application.yml`. Level, Sampling und Drop-Policy sind die
+ * Startwerte; zur Laufzeit lassen sie sich über {@code /actuator/logshipper} ändern.
+ * </p>
+ *
+ * @param capacity      Kapazität des Ringpuffers (wird auf eine Zweierpotenz aufgerundet).
+ * @param batchSize     Maximale Anzahl Einträge je Kafka-Nachricht.
+ * @param flushInterval Maximale Wartezeit, bis ein nicht voller Batch versendet wird.
+ * @param minLevel      Niedrigstes Level, das versendet wird.
+ * @param dropPolicy    Verhalten bei vollem Puffer.
+ * @param sampling      Anteil (0.0 bis 1.0) der versendeten Einträge je Level; fehlende Level = 1.0.
+ *
+ * @since 19.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "app.logging.shipper")
+public record LogShipperProps(
+  @DefaultValue("8192") int capacity,
+  @DefaultValue("256") int batchSize,
+  @DefaultValue("1s") Duration flushInterval,
+  @DefaultValue("INFO") String minLevel,
+  @DefaultValue("DROP_NEWEST") DropPolicy dropPolicy,
+  Map<String, Double> sampling
+) {
+
+  /**
+   * Verhalten, wenn der Ringpuffer voll ist.
+   */
+  public enum DropPolicy {
+    /**
+     * Der neue Eintrag wird verworfen.
+     */
+    DROP_NEWEST,
+    /**
+     * Der älteste Eintrag wird verworfen, um Platz für den neuen zu schaffen.
+     */
+    DROP_OLDEST
+  }
+}
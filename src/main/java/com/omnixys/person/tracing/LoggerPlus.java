@@ -1,75 +1,177 @@
 package com.omnixys.person.tracing;
 
-import com.omnixys.person.messaging.KafkaPublisherService;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Erweiterter Logger mit Kafka-Unterstützung.
  * <p>
  * Loggt gleichzeitig in die Konsole (Slf4j) und an einen zentralen Logging-Service via Kafka.
+ * Der Versand erfolgt asynchron und gebündelt über den {@link LogShipper}.
+ * </p>
+ * <p>
+ * Das Level wird vor jeder Arbeit geprüft: ist es weder für Slf4j noch für den Versand aktiv, kehrt der
+ * Aufruf ohne Formatierung zurück. Für bis zu zwei Argumente gibt es eigene Überladungen, damit kein
+ * Varargs-Array entsteht; primitive Argumente werden aber schon an der Aufrufstelle geboxt. Wie viel je
+ * Aufruf tatsächlich alloziert wird, zeigt der {@code LoggerPlusBenchmark}. Die Platzhalter {@code {}} werden erst bei Bedarf über Slf4j
+ * ersetzt. Den Kontext ({@code Klasse#Methode}) ermittelt ein Stack-Walk nur beim ersten Versand je
+ * Aufrufstelle; danach kommt er aus einem Cache, dessen Schlüssel die Formatzeichenkette ist.
  * </p>
  */
-@RequiredArgsConstructor
 public class LoggerPlus {
 
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Obergrenze für gecachte Aufrufstellen je Klasse, falls Formatzeichenketten dynamisch erzeugt werden.
+     */
+    private static final int MAX_CACHED_CALL_SITES = 512;
+
     private final Logger logger;
     private final String serviceName;
-    private final KafkaPublisherService kafkaPublisherService;
+    private final LogShipper logShipper;
     private final Class<?> clazz;
+    private final Map<String, String> callSiteContexts = new ConcurrentHashMap<>();
+
+    public LoggerPlus(final Logger logger, final String serviceName, final LogShipper logShipper, final Class<?> clazz) {
+        this.logger = logger;
+        this.serviceName = serviceName;
+        this.logShipper = logShipper;
+        this.clazz = clazz;
+    }
+
+    public static LoggerPlus of(Class<?> clazz, final LogShipper logShipper, final String serviceName) {
+        return new LoggerPlus(LoggerFactory.getLogger(clazz), serviceName, logShipper, clazz);
+    }
+
+    public void trace(String format) {
+        if (logger.isTraceEnabled()) logger.trace(format);
+    }
 
-    public static LoggerPlus of(Class<?> clazz, final KafkaPublisherService publisher, final String serviceName) {
-        return new LoggerPlus(LoggerFactory.getLogger(clazz), serviceName, publisher, clazz);
+    public void trace(String format, Object arg) {
+        if (logger.isTraceEnabled()) logger.trace(format, arg);
     }
 
-    private String getCallerContext() {
-        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
-            .walk(frames -> frames
-                .filter(f -> f.getDeclaringClass().equals(clazz))
-                .findFirst()
-                .map(frame -> String.format("%s#%s",clazz.getSimpleName(), frame.getMethodName()))
-                .orElse(clazz.getSimpleName()));
+    public void trace(String format, Object arg1, Object arg2) {
+        if (logger.isTraceEnabled()) logger.trace(format, arg1, arg2);
     }
 
-    private void sendLog(String level, String message) {
-        var context = getCallerContext();
-        kafkaPublisherService.log(level, message, serviceName, context);
+    public void trace(String format, Object... args) {
+        if (logger.isTraceEnabled()) logger.trace(format, args);
+    }
+
+    public void debug(String format) {
+        if (logger.isDebugEnabled()) logger.debug(format);
+    }
+
+    public void debug(String format, Object arg) {
+        if (logger.isDebugEnabled()) logger.debug(format, arg);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled()) logger.debug(format, arg1, arg2);
     }
 
     public void debug(String format, Object... args) {
-        String safeFormat = format != null ? format.replace("{}", "%s") : "";
-        String msg = String.format(safeFormat, args != null ? args : new Object[]{});
-        logger.debug(msg);
-//        sendLog("DEBUG", msg);
+        if (logger.isDebugEnabled()) logger.debug(format, args);
+    }
+
+    public void info(String format) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format);
+    }
+
+    public void info(String format, Object arg) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format, arg);
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format, arg1, arg2);
     }
 
     public void info(String format, Object... args) {
-        String safeFormat = format != null ? format.replace("{}", "%s") : "";
-        String msg = String.format(safeFormat, args != null ? args : new Object[]{});
-        logger.info(msg);
-        sendLog("INFO", msg);
+        if (isEnabled(Level.INFO)) log(Level.INFO, format, args);
+    }
+
+    public void warn(String format) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format);
+    }
+
+    public void warn(String format, Object arg) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format, arg);
+    }
+
+    public void warn(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format, arg1, arg2);
     }
 
     public void warn(String format, Object... args) {
-        String safeFormat = format != null ? format.replace("{}", "%s") : "";
-        String msg = String.format(safeFormat, args != null ? args : new Object[]{});
-        logger.warn(msg);
-        sendLog("WARN", msg);
+        if (isEnabled(Level.WARN)) log(Level.WARN, format, args);
+    }
+
+    public void error(String format) {
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format);
+    }
+
+    public void error(String format, Object arg) {
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format, arg);
+    }
+
+    public void error(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format, arg1, arg2);
     }
 
     public void error(String format, Object... args) {
-        String safeFormat = format != null ? format.replace("{}", "%s") : "";
-        String msg = String.format(safeFormat, args != null ? args : new Object[]{});
-        logger.error(msg);
-        sendLog("ERROR", msg);
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format, args);
     }
 
-    public void trace(String format, Object... args) {
-        String safeFormat = format != null ? format.replace("{}", "%s") : "";
-        String msg = String.format(safeFormat, args != null ? args : new Object[]{});
-        logger.trace(msg);
-//        sendLog("TRACE", msg);
+    /**
+     * INFO, WARN und ERROR werden zusätzlich versendet und sind daher auch aktiv, wenn nur der Versand es ist.
+     */
+    private boolean isEnabled(Level level) {
+        return logger.isEnabledForLevel(level) || logShipper.isEnabled(level);
+    }
+
+    private void log(Level level, String format, Object... args) {
+        final var tuple = MessageFormatter.arrayFormat(format, args);
+        final var message = tuple.getMessage();
+
+        if (logger.isEnabledForLevel(level)) {
+            switch (level) {
+                case ERROR -> logger.error(message, tuple.getThrowable());
+                case WARN -> logger.warn(message, tuple.getThrowable());
+                default -> logger.info(message, tuple.getThrowable());
+            }
+        }
+        if (logShipper.isEnabled(level)) {
+            logShipper.submit(level, message, serviceName, getCallerContext(format));
+        }
+    }
+
+    private String getCallerContext(String format) {
+        if (format == null) {
+            return walkCallerContext();
+        }
+        final var cached = callSiteContexts.get(format);
+        if (cached != null) {
+            return cached;
+        }
+        final var context = walkCallerContext();
+        if (callSiteContexts.size() < MAX_CACHED_CALL_SITES) {
+            callSiteContexts.putIfAbsent(format, context);
+        }
+        return context;
+    }
+
+    private String walkCallerContext() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(f -> f.getDeclaringClass().equals(clazz))
+            .findFirst()
+            .map(frame -> clazz.getSimpleName() + '#' + frame.getMethodName())
+            .orElse(clazz.getSimpleName()));
     }
 }
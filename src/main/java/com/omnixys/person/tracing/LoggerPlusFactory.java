@@ -1,24 +1,36 @@
 package com.omnixys.person.tracing;
 
 import com.omnixys.person.config.AppProperties;
-import com.omnixys.person.messaging.KafkaPublisherService;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Liefert je Klasse genau eine {@link LoggerPlus}-Instanz.
+ * <p>
+ * Die Services rufen {@code factory.getLogger(getClass())} bei jeder Log-Ausgabe auf; über den {@link ClassValue}
+ * ist das ein Lookup ohne neue Logger-Instanz, und der Cache der Aufrufstellen bleibt je Klasse erhalten.
+ * </p>
+ */
 @Component
-@RequiredArgsConstructor
 public class LoggerPlusFactory {
 
-    private final KafkaPublisherService kafkaPublisherService;
-    private final AppProperties appProperties;
+    private final ClassValue<LoggerPlus> loggers;
+
+    public LoggerPlusFactory(final LogShipper logShipper, final AppProperties appProperties) {
+        loggers = new ClassValue<>() {
+            @Override
+            protected LoggerPlus computeValue(final Class<?> clazz) {
+                return new LoggerPlus(
+                    LoggerFactory.getLogger(clazz),
+                    appProperties.getName(),
+                    logShipper,
+                    clazz
+                );
+            }
+        };
+    }
 
     public LoggerPlus getLogger(Class<?> clazz) {
-        return new LoggerPlus(
-            LoggerFactory.getLogger(clazz),
-            appProperties.getName(),
-            kafkaPublisherService,
-            clazz
-        );
+        return loggers.get(clazz);
     }
 }
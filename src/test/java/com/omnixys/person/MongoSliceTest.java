@@ -0,0 +1,28 @@
+package com.omnixys.person;
+
+import com.omnixys.person.config.MongoIndexInitializer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * MongoDB-Slice gegen den Container aus {@link TestcontainersConfiguration}.
+ * <p>
+ * Die Verbindung kommt über {@code @ServiceConnection}; die Platzhalter aus {@code application.yaml}
+ * werden hier belegt, damit der Test ohne {@code .env} startet. Die Indizes legt wie im Betrieb der
+ * {@link MongoIndexInitializer} an.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataMongoTest(properties = {
+    "app.mongo.uri=mongodb://localhost/person_test",
+    "app.mongo.database=person_test"
+})
+@Import({TestcontainersConfiguration.class, MongoIndexInitializer.class})
+public @interface MongoSliceTest {
+}
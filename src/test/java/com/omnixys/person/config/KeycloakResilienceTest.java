@@ -0,0 +1,138 @@
+package com.omnixys.person.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.KeycloakResilienceProps;
+import com.omnixys.person.security.service.KeycloakAdminTokenManager;
+import com.omnixys.person.security.service.KeycloakRoleCache;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeycloakResilienceTest {
+
+    private static final int WINDOW = 4;
+
+    private KeycloakRepository delegate;
+    private KeycloakRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(KeycloakRepository.class);
+        final var props = new KeycloakResilienceProps(
+            50, 50, Duration.ofSeconds(2), WINDOW, WINDOW, Duration.ofMinutes(1), 1, Duration.ZERO
+        );
+        repository = new KeycloakResilience(props, new SimpleMeterRegistry()).decorate(delegate);
+    }
+
+    @Test
+    void serverErrorsAreRethrownAndOpenTheCircuitOfThatOperation() {
+        final var unavailable = serverError();
+        doThrow(unavailable).when(delegate).deleteUser(anyString(), anyString());
+
+        for (int i = 0; i < WINDOW; i++) {
+            assertThatThrownBy(() -> repository.deleteUser("Bearer token", "kc-max")).isSameAs(unavailable);
+        }
+        assertThatThrownBy(() -> repository.deleteUser("Bearer token", "kc-max"))
+            .isInstanceOf(CallNotPermittedException.class);
+
+        verify(delegate, times(WINDOW)).deleteUser(anyString(), anyString());
+        // Andere Operationen haben einen eigenen Circuit
+        when(delegate.getUsers(anyString(), anyInt(), anyInt())).thenReturn(List.of());
+        assertThat(repository.getUsers("Bearer token", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null))
+            .when(delegate).deleteUser(anyString(), anyString());
+
+        for (int i = 0; i < WINDOW * 3; i++) {
+            assertThatThrownBy(() -> repository.deleteUser("Bearer token", "kc-max"))
+                .isInstanceOf(HttpClientErrorException.NotFound.class);
+        }
+
+        verify(delegate, times(WINDOW * 3)).deleteUser(anyString(), anyString());
+    }
+
+    @Test
+    void fullBulkheadRejectsImmediately() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        doAnswer(_ -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).deleteUser(anyString(), anyString());
+        final var first = CompletableFuture.runAsync(() -> repository.deleteUser("Bearer token", "kc-max"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> repository.deleteUser("Bearer token", "kc-moritz"))
+            .isInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void openCircuitReachesKeycloakServiceCallerUnwrapped() {
+        doThrow(serverError()).when(delegate).updateUser(anyString(), anyString(), anyString(), anyString());
+        final var tokenManager = mock(KeycloakAdminTokenManager.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(0).accept("admin-token");
+            return null;
+        }).when(tokenManager).runWithAccessToken(any());
+        final var keycloakService = new KeycloakService(
+            repository,
+            tokenManager,
+            mock(KeycloakRoleCache.class),
+            new ObjectMapper(),
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        final var person = Person.builder().username("max").email("max@omnixys.com").build();
+
+        for (int i = 0; i < WINDOW; i++) {
+            // Serverfehler werden wie bisher verpackt
+            assertThatThrownBy(() -> keycloakService.updateProfile("kc-max", person))
+                .isNotInstanceOf(CallNotPermittedException.class)
+                .hasMessageContaining("Failed to update user");
+        }
+
+        // Der offene Circuit erreicht den Aufrufer, damit er die Aktualisierung zurückstellen kann
+        assertThatThrownBy(() -> keycloakService.updateProfile("kc-max", person))
+            .isInstanceOf(CallNotPermittedException.class);
+    }
+
+    private static HttpServerErrorException serverError() {
+        return HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", HttpHeaders.EMPTY, null, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.omnixys.person.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaProducerException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaDeliveryTrackerTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private KafkaSpool kafkaSpool;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaDeliveryTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        kafkaSpool = mock(KafkaSpool.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new KafkaDeliveryTracker(kafkaTemplate, kafkaSpool, meterRegistry);
+        when(kafkaSpool.isEmpty()).thenReturn(true);
+        when(kafkaSpool.append(any())).thenReturn(true);
+    }
+
+    @Test
+    void retriableCausesAreFoundInTheChain() {
+        final var record = new ProducerRecord<String, Object>("topic", "key", "value");
+        assertThat(KafkaDeliveryTracker.isRetriable(new TimeoutException("delivery.timeout.ms"))).isTrue();
+        assertThat(KafkaDeliveryTracker.isRetriable(new NotEnoughReplicasException("min.insync.replicas"))).isTrue();
+        assertThat(KafkaDeliveryTracker.isRetriable(
+            new KafkaProducerException(record, "send failed", new TimeoutException("expired")))).isTrue();
+        assertThat(KafkaDeliveryTracker.isRetriable(
+            new ExecutionException(new KafkaException(new TimeoutException("max.block.ms"))))).isTrue();
+    }
+
+    @Test
+    void permanentFailuresAreNotRetriable() {
+        assertThat(KafkaDeliveryTracker.isRetriable(new RecordTooLargeException("zu groß"))).isFalse();
+        assertThat(KafkaDeliveryTracker.isRetriable(new SerializationException("kein JSON"))).isFalse();
+        assertThat(KafkaDeliveryTracker.isRetriable(new IllegalStateException("Producer geschlossen"))).isFalse();
+    }
+
+    @Test
+    void retriableFailureIsSpooled() {
+        final var record = new ProducerRecord<String, Object>("topic", "key", "value");
+        when(kafkaTemplate.send(record)).thenReturn(CompletableFuture.failedFuture(new TimeoutException("expired")));
+
+        tracker.send(record);
+
+        verify(kafkaSpool).append(record);
+        assertThat(meterRegistry.counter("kafka.publish.spooled", "topic", "topic").count()).isEqualTo(1);
+    }
+
+    @Test
+    void permanentFailureIsDropped() {
+        final var record = new ProducerRecord<String, Object>("topic", "key", "value");
+        when(kafkaTemplate.send(record)).thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("zu groß")));
+
+        tracker.send(record);
+
+        verify(kafkaSpool, never()).append(any());
+        assertThat(meterRegistry.counter("kafka.publish.dropped", "topic", "topic").count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsQueueBehindANonEmptySpool() {
+        final var record = new ProducerRecord<String, Object>("topic", "key", "value");
+        when(kafkaSpool.isEmpty()).thenReturn(false);
+
+        tracker.send(record);
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(kafkaSpool).append(record);
+    }
+}
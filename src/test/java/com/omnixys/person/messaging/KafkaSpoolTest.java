@@ -0,0 +1,125 @@
+package com.omnixys.person.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaSpoolTest {
+
+    private static final String SEGMENT = "%020d.seg".formatted(1);
+
+    @TempDir
+    Path dir;
+
+    private KafkaSpool spool;
+    private SimpleMeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    void recordsSurviveReopenInOrder() throws IOException {
+        spool = open();
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.append(record("c"));
+        spool.close();
+
+        spool = open();
+
+        assertThat(spool.depth()).isEqualTo(3);
+        assertThat(spool.peek(10)).extracting(KafkaSpool.SpooledRecord::key).containsExactly("a", "b", "c");
+        assertThat(spool.peek(1).getFirst().value().get("name").asText()).isEqualTo("a");
+    }
+
+    @Test
+    void committedRecordsAreNotReplayedAfterReopen() throws IOException {
+        spool = open();
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.append(record("c"));
+        spool.commit(spool.peek(2));
+        spool.close();
+
+        spool = open();
+
+        assertThat(spool.peek(10)).extracting(KafkaSpool.SpooledRecord::key).containsExactly("c");
+    }
+
+    @Test
+    void tornTailIsTruncatedAndOverwritten() throws IOException {
+        spool = open();
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.close();
+
+        // Absturz mitten im Schreiben: Länge von "b" steht, Nutzdaten und Prüfsumme passen nicht mehr
+        try (var channel = FileChannel.open(dir.resolve(SEGMENT), READ, WRITE)) {
+            final var header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            final var second = Integer.BYTES * 2 + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), second + Integer.BYTES * 2 + 1);
+        }
+
+        spool = open();
+
+        assertThat(spool.depth()).isEqualTo(1);
+        assertThat(meterRegistry.counter("kafka.spool.corrupt").count()).isEqualTo(1);
+        assertThat(spool.append(record("c"))).isTrue();
+        assertThat(spool.peek(10)).extracting(KafkaSpool.SpooledRecord::key).containsExactly("a", "c");
+        spool.close();
+
+        // Das Schreiben hat den beschädigten Rest ersetzt: nach erneutem Öffnen ist alles gültig
+        spool = open();
+        assertThat(spool.peek(10)).extracting(KafkaSpool.SpooledRecord::key).containsExactly("a", "c");
+        assertThat(meterRegistry.counter("kafka.spool.corrupt").count()).isZero();
+    }
+
+    @Test
+    void fullSpoolRejectsRecords() throws IOException {
+        spool = open(DataSize.ofBytes(512), 1);
+
+        var accepted = 0;
+        while (spool.append(record("r" + accepted))) {
+            accepted++;
+        }
+
+        assertThat(accepted).isPositive();
+        assertThat(spool.depth()).isEqualTo(accepted);
+    }
+
+    private KafkaSpool open() throws IOException {
+        return open(DataSize.ofKilobytes(64), 4);
+    }
+
+    private KafkaSpool open(final DataSize segmentSize, final int maxSegments) throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        final var kafkaSpool = new KafkaSpool(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(kafkaSpool, "dir", dir);
+        ReflectionTestUtils.setField(kafkaSpool, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(kafkaSpool, "maxSegments", maxSegments);
+        kafkaSpool.init();
+        return kafkaSpool;
+    }
+
+    private static ProducerRecord<String, Object> record(final String key) {
+        return new ProducerRecord<>("person.changed", key, Map.of("name", key));
+    }
+}
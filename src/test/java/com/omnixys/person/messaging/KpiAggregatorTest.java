@@ -0,0 +1,126 @@
+package com.omnixys.person.messaging;
+
+import com.omnixys.person.models.enums.KpiType;
+import com.omnixys.person.models.events.KpiSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static com.omnixys.person.models.enums.KpiType.PERSON_CREATED;
+import static com.omnixys.person.models.enums.KpiType.PERSON_DELETED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class KpiAggregatorTest {
+
+    private KafkaPublisherService kafkaPublisherService;
+    private KpiAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        kafkaPublisherService = mock(KafkaPublisherService.class);
+        aggregator = new KpiAggregator(kafkaPublisherService);
+    }
+
+    @Test
+    void flushPublishesOneSummaryPerTypeAndResetsTheWindow() {
+        final var before = Instant.now();
+        aggregator.record(PERSON_CREATED);
+        aggregator.record(PERSON_CREATED);
+        aggregator.record(PERSON_CREATED);
+        aggregator.record(PERSON_DELETED);
+
+        aggregator.flush();
+
+        final var created = summary(PERSON_CREATED);
+        assertThat(created.count()).isEqualTo(3);
+        assertThat(Instant.parse(created.firstAt())).isBetween(before.minusMillis(1), Instant.parse(created.windowEnd()));
+        assertThat(Instant.parse(created.lastAt())).isAfterOrEqualTo(Instant.parse(created.firstAt()));
+        assertThat(summary(PERSON_DELETED).count()).isEqualTo(1);
+
+        // Das nächste Intervall beginnt leer: ohne Ereignisse keine Nachricht
+        aggregator.flush();
+        verify(kafkaPublisherService, times(1)).sendKpiSummary(eq(PERSON_CREATED), any());
+        verify(kafkaPublisherService, times(1)).sendKpiSummary(eq(PERSON_DELETED), any());
+    }
+
+    @Test
+    void windowsAreContiguous() {
+        aggregator.record(PERSON_CREATED);
+        aggregator.flush();
+        final var first = summary(PERSON_CREATED);
+
+        aggregator.record(PERSON_CREATED);
+        aggregator.flush();
+
+        final var captor = ArgumentCaptor.forClass(KpiSummaryDTO.class);
+        verify(kafkaPublisherService, times(2)).sendKpiSummary(eq(PERSON_CREATED), captor.capture());
+        final var second = captor.getAllValues().get(1);
+        assertThat(second.count()).isEqualTo(1);
+        assertThat(second.windowStart()).isEqualTo(first.windowEnd());
+    }
+
+    @Test
+    void concurrentRecordsAreCountedExactlyOnceAcrossFlushes() {
+        final int writers = 8;
+        final int perWriter = 10_000;
+        final var futures = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < writers; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < perWriter; j++) {
+                    aggregator.record(PERSON_CREATED);
+                }
+            }));
+        }
+        while (!futures.stream().allMatch(CompletableFuture::isDone)) {
+            aggregator.flush();
+        }
+        futures.forEach(CompletableFuture::join);
+        aggregator.flush();
+
+        final var captor = ArgumentCaptor.forClass(KpiSummaryDTO.class);
+        verify(kafkaPublisherService, atLeastOnce()).sendKpiSummary(eq(PERSON_CREATED), captor.capture());
+        assertThat(captor.getAllValues().stream().mapToLong(KpiSummaryDTO::count).sum())
+            .isEqualTo((long) writers * perWriter);
+    }
+
+    @Test
+    void stopFlushesTheRunningWindow() {
+        aggregator.start();
+        aggregator.record(PERSON_DELETED);
+
+        aggregator.stop();
+
+        assertThat(aggregator.isRunning()).isFalse();
+        assertThat(summary(PERSON_DELETED).count()).isEqualTo(1);
+        verify(kafkaPublisherService, never()).sendKpiSummary(eq(PERSON_CREATED), any());
+    }
+
+    @Test
+    void failedSendDoesNotStopOtherTypes() {
+        doThrow(new IllegalStateException("Spool voll")).when(kafkaPublisherService).sendKpiSummary(eq(PERSON_CREATED), any());
+        aggregator.record(PERSON_CREATED);
+        aggregator.record(PERSON_DELETED);
+
+        aggregator.flush();
+
+        assertThat(summary(PERSON_DELETED).count()).isEqualTo(1);
+    }
+
+    private KpiSummaryDTO summary(final KpiType type) {
+        final var captor = ArgumentCaptor.forClass(KpiSummaryDTO.class);
+        verify(kafkaPublisherService).sendKpiSummary(eq(type), captor.capture());
+        return captor.getValue();
+    }
+}
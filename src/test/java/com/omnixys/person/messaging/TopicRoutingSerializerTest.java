@@ -0,0 +1,61 @@
+package com.omnixys.person.messaging;
+
+import com.omnixys.person.models.events.KpiSummaryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_ACCOUNT_DELETE_PERSON;
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_KPI_CREATE_PERSON;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TopicRoutingSerializerTest {
+
+    private static final KpiSummaryDTO SUMMARY = new KpiSummaryDTO(
+        "PERSON_CREATED", 3, "2026-10-19T10:00:00Z", "2026-10-19T10:00:10Z",
+        "2026-10-19T10:00:01Z", "2026-10-19T10:00:09Z", "2026-10-19T10:00:10Z"
+    );
+
+    private final AvroEventSerializer avroSerializer = mock(AvroEventSerializer.class);
+
+    @Test
+    void jsonTopicsKeepTypeHeaders() {
+        final var serializer = newSerializer(false);
+        final var headers = new RecordHeaders();
+
+        final var bytes = serializer.serialize(TOPIC_ACCOUNT_DELETE_PERSON, headers, SUMMARY);
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).contains("\"count\":3");
+        final var typeId = headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        assertThat(typeId).isNotNull();
+        assertThat(new String(typeId.value(), StandardCharsets.UTF_8)).isEqualTo(KpiSummaryDTO.class.getName());
+    }
+
+    @Test
+    void avroTopicsGetNoJsonTypeHeaders() {
+        final var serializer = newSerializer(true);
+        final var headers = new RecordHeaders();
+        when(avroSerializer.serialize(eq(TOPIC_KPI_CREATE_PERSON), any())).thenReturn(new byte[]{1, 2, 3});
+
+        final var bytes = serializer.serialize(TOPIC_KPI_CREATE_PERSON, headers, SUMMARY);
+
+        assertThat(bytes).containsExactly(1, 2, 3);
+        verify(avroSerializer).serialize(TOPIC_KPI_CREATE_PERSON, SUMMARY);
+        assertThat(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)).isNull();
+    }
+
+    private TopicRoutingSerializer newSerializer(final boolean avroEnabled) {
+        final var serializer = new TopicRoutingSerializer(avroSerializer, avroEnabled, true, new SimpleMeterRegistry());
+        serializer.configure(Map.of(), false);
+        return serializer;
+    }
+}
@@ -0,0 +1,89 @@
+package com.omnixys.person.repositories;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.models.entities.Customer;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MongoSliceTest
+class PersonRepositoryTest {
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        personRepository.deleteAll();
+        customerId = personRepository.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .version(0)
+            .username("erika")
+            .email("erika@omnixys.com")
+            .personType(PersonType.CUSTOMER)
+            .customer(Customer.builder().contactIds(new ArrayList<>()).build())
+            .build()).getId();
+    }
+
+    @Test
+    void pushIncrementsVersion() {
+        final var contactId = UUID.randomUUID();
+
+        assertThat(personRepository.pushContactId(customerId, 0, contactId)).isEqualTo(1);
+
+        final var customer = personRepository.findById(customerId).orElseThrow();
+        assertThat(customer.getVersion()).isEqualTo(1);
+        assertThat(customer.getCustomer().getContactIds()).containsExactly(contactId);
+    }
+
+    @Test
+    void secondPushWithSameVersionFails() {
+        final var first = UUID.randomUUID();
+        final var second = UUID.randomUUID();
+
+        assertThat(personRepository.pushContactId(customerId, 0, first)).isEqualTo(1);
+        assertThat(personRepository.pushContactId(customerId, 0, second)).isZero();
+
+        assertThat(personRepository.findById(customerId).orElseThrow().getCustomer().getContactIds())
+            .containsExactly(first);
+    }
+
+    @Test
+    void concurrentPushesWithSameVersionApplyOnce() {
+        final var pushes = new ArrayList<CompletableFuture<Long>>();
+        for (int i = 0; i < 8; i++) {
+            final var contactId = UUID.randomUUID();
+            pushes.add(CompletableFuture.supplyAsync(() -> personRepository.pushContactId(customerId, 0, contactId)));
+        }
+
+        final var applied = pushes.stream().mapToLong(CompletableFuture::join).sum();
+
+        assertThat(applied).isEqualTo(1);
+        final var customer = personRepository.findById(customerId).orElseThrow();
+        assertThat(customer.getVersion()).isEqualTo(1);
+        assertThat(customer.getCustomer().getContactIds()).hasSize(1);
+    }
+
+    @Test
+    void pullIncrementsVersionAndRejectsOutdatedVersion() {
+        final var contactId = UUID.randomUUID();
+        personRepository.pushContactId(customerId, 0, contactId);
+
+        assertThat(personRepository.pullContactId(customerId, 0, contactId)).isZero();
+        assertThat(personRepository.pullContactId(customerId, 1, contactId)).isEqualTo(1);
+
+        final var customer = personRepository.findById(customerId).orElseThrow();
+        assertThat(customer.getVersion()).isEqualTo(2);
+        assertThat(customer.getCustomer().getContactIds()).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.omnixys.person.security.service;
+
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.security.KeycloakProps;
+import com.omnixys.person.security.KeycloakRepository;
+import com.omnixys.person.security.dto.RoleDTO;
+import com.omnixys.person.security.dto.TokenDTO;
+import com.omnixys.person.security.enums.ScopeType;
+import com.omnixys.person.security.enums.TokenType;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeycloakAdminTokenManagerTest {
+
+    private KeycloakRepository keycloakRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private KeycloakAdminTokenManager manager;
+
+    @BeforeEach
+    void setUp() {
+        keycloakRepository = mock(KeycloakRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new KeycloakAdminTokenManager(
+            keycloakRepository,
+            new KeycloakProps("http", "localhost", 8080, "person-client", "secret"),
+            meterRegistry,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        ReflectionTestUtils.setField(manager, "adminUsername", "admin");
+        ReflectionTestUtils.setField(manager, "adminPassword", "p");
+        ReflectionTestUtils.setField(manager, "expirySkew", Duration.ofSeconds(10));
+        manager.init();
+        when(keycloakRepository.login(anyString(), anyString(), anyString()))
+            .thenReturn(token("revoked"), token("fresh"));
+    }
+
+    @Test
+    void cachedTokenIsReused() {
+        assertThat(manager.getAccessToken()).isEqualTo("revoked");
+        assertThat(manager.getAccessToken()).isEqualTo("revoked");
+
+        verify(keycloakRepository).login(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void rejectedTokenIsRenewedAndCallRetriedOnce() {
+        final var roles = List.of(new RoleDTO("role-id", "USER"));
+        when(keycloakRepository.getRoles("Bearer revoked", "application/json")).thenThrow(unauthorized());
+        when(keycloakRepository.getRoles("Bearer fresh", "application/json")).thenReturn(roles);
+
+        final var result = manager.withAccessToken(token -> keycloakRepository.getRoles("Bearer " + token, "application/json"));
+
+        assertThat(result).isEqualTo(roles);
+        assertThat(manager.getAccessToken()).isEqualTo("fresh");
+        assertThat(meterRegistry.get("keycloak.admin-token").tag("result", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void secondRejectionIsPassedToCaller() {
+        when(keycloakRepository.getRoles(anyString(), anyString())).thenThrow(unauthorized());
+
+        assertThatThrownBy(() -> manager.withAccessToken(token -> keycloakRepository.getRoles("Bearer " + token, "application/json")))
+            .isInstanceOf(HttpClientErrorException.Unauthorized.class);
+
+        verify(keycloakRepository, times(2)).getRoles(anyString(), anyString());
+        verify(keycloakRepository, times(2)).login(anyString(), anyString(), anyString());
+    }
+
+    private static TokenDTO token(final String accessToken) {
+        return new TokenDTO(accessToken, 300, 1800, "refresh-" + accessToken, TokenType.BEARER, 0, "session", null,
+            ScopeType.EMAIL_PROFILE);
+    }
+
+    private static HttpClientErrorException unauthorized() {
+        return HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, null, null);
+    }
+}
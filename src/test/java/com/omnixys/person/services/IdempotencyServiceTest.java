@@ -0,0 +1,161 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.exceptions.IdempotencyConflictException;
+import com.omnixys.person.models.entities.IdempotencyRecord;
+import com.omnixys.person.repositories.IdempotencyRecordRepository;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@MongoSliceTest
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "createCustomer";
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private IdempotencyService service;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+        service = new IdempotencyService(
+            idempotencyRecordRepository,
+            mongoTemplate,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        ReflectionTestUtils.setField(service, "reservationLease", Duration.ofSeconds(30));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void replayReturnsStoredResultWithoutExecutingAgain() {
+        final var id = UUID.randomUUID();
+
+        assertThat(service.execute("key-1", OPERATION, "max", () -> execute(id))).isEqualTo(id);
+        assertThat(service.execute("key-1", OPERATION, "max", () -> execute(UUID.randomUUID()))).isEqualTo(id);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyWithDifferentRequestIsRejected() {
+        service.execute("key-1", OPERATION, "max", () -> execute(UUID.randomUUID()));
+
+        assertThatThrownBy(() -> service.execute("key-1", OPERATION, "moritz", () -> execute(UUID.randomUUID())))
+            .isInstanceOf(IdempotencyConflictException.class)
+            .hasMessageContaining("andere Anfrage");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedExecutionReleasesKey() {
+        assertThatThrownBy(() -> service.execute("key-1", OPERATION, "max", () -> {
+            throw new IllegalStateException("Keycloak antwortet mit 503");
+        })).hasMessageContaining("503");
+
+        final var id = UUID.randomUUID();
+        assertThat(service.execute("key-1", OPERATION, "max", () -> execute(id))).isEqualTo(id);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void concurrentRetryIsRejectedWhileFirstRequestRuns() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var id = UUID.randomUUID();
+        final var first = CompletableFuture.supplyAsync(() -> service.execute("key-1", OPERATION, "max", () -> {
+            started.countDown();
+            await(release);
+            return execute(id);
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.execute("key-1", OPERATION, "max", () -> execute(UUID.randomUUID())))
+            .isInstanceOf(IdempotencyConflictException.class)
+            .hasMessageContaining("bereits verarbeitet");
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(id);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void staleReservationIsTakenOverByRetry() {
+        // Die erste Instanz ist nach dem Reservieren abgestürzt
+        service.execute("key-1", OPERATION, "max", () -> execute(UUID.randomUUID()));
+        final var record = idempotencyRecordRepository.findById(OPERATION + ":key-1").orElseThrow();
+        record.setCompleted(false);
+        record.setResultId(null);
+        record.setReservedUntil(Instant.now().minusSeconds(1));
+        idempotencyRecordRepository.save(record);
+
+        final var id = UUID.randomUUID();
+        assertThat(service.execute("key-1", OPERATION, "max", () -> execute(id))).isEqualTo(id);
+
+        assertThat(executions).hasValue(2);
+        final var completed = idempotencyRecordRepository.findById(OPERATION + ":key-1").orElseThrow();
+        assertThat(completed.isCompleted()).isTrue();
+        assertThat(completed.getResultId()).isEqualTo(id);
+    }
+
+    @Test
+    void staleReservationWithDifferentRequestIsRejected() {
+        idempotencyRecordRepository.insert(IdempotencyRecord.builder()
+            .id(OPERATION + ":key-1")
+            .fingerprint("anderer Fingerabdruck")
+            .created(Instant.now())
+            .reservedUntil(Instant.now().minusSeconds(1))
+            .build());
+
+        assertThatThrownBy(() -> service.execute("key-1", OPERATION, "max", () -> execute(UUID.randomUUID())))
+            .isInstanceOf(IdempotencyConflictException.class)
+            .hasMessageContaining("andere Anfrage");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void withoutKeyEveryCallExecutes() {
+        service.execute(null, OPERATION, "max", () -> execute(UUID.randomUUID()));
+        service.execute(" ", OPERATION, "max", () -> execute(UUID.randomUUID()));
+
+        assertThat(executions).hasValue(2);
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    private UUID execute(final UUID id) {
+        executions.incrementAndGet();
+        return id;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
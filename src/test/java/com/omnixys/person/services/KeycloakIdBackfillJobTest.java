@@ -0,0 +1,92 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.security.dto.UserRepresentation;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MongoSliceTest
+class KeycloakIdBackfillJobTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private KeycloakService keycloakService;
+    private KeycloakIdBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Person.class);
+        keycloakService = mock(KeycloakService.class);
+        job = new KeycloakIdBackfillJob(
+            keycloakService,
+            mongoTemplate,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        ReflectionTestUtils.setField(job, "pageSize", 2);
+    }
+
+    @Test
+    void missingIdsAreFilledPageByPage() {
+        final var alice = insertPerson("alice", null);
+        final var bob = insertPerson("bob", null);
+        final var carol = insertPerson("carol", null);
+        when(keycloakService.getUsers(0, 2)).thenReturn(List.of(user("kc-alice", "alice"), user("kc-bob", "bob")));
+        when(keycloakService.getUsers(2, 2)).thenReturn(List.of(user("kc-carol", "carol")));
+
+        assertThat(job.run()).isEqualTo(3);
+
+        assertThat(keycloakId(alice)).isEqualTo("kc-alice");
+        assertThat(keycloakId(bob)).isEqualTo("kc-bob");
+        assertThat(keycloakId(carol)).isEqualTo("kc-carol");
+        // Die letzte Seite ist nicht voll: keine weitere Abfrage
+        verify(keycloakService).getUsers(2, 2);
+    }
+
+    @Test
+    void existingIdsAreKept() {
+        final var alice = insertPerson("alice", "kc-alice-alt");
+        when(keycloakService.getUsers(0, 2)).thenReturn(List.of(user("kc-alice", "alice"), user("kc-unbekannt", "dave")));
+        when(keycloakService.getUsers(2, 2)).thenReturn(List.of());
+
+        assertThat(job.run()).isZero();
+
+        assertThat(keycloakId(alice)).isEqualTo("kc-alice-alt");
+    }
+
+    private UUID insertPerson(final String username, final String keycloakId) {
+        return mongoTemplate.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .username(username)
+            .email(username + "@omnixys.com")
+            .personType(PersonType.CUSTOMER)
+            .keycloakId(keycloakId)
+            .build()).getId();
+    }
+
+    private String keycloakId(final UUID id) {
+        return mongoTemplate.findById(id, Person.class).getKeycloakId();
+    }
+
+    private static UserRepresentation user(final String id, final String username) {
+        return new UserRepresentation(id, username, username + "@omnixys.com", null, null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.models.entities.Lease;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@MongoSliceTest
+class LeaseServiceTest {
+
+    private static final String NAME = "change-feed-persons";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private LeaseService first;
+    private LeaseService second;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Lease.class);
+        final var factory = new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class));
+        first = new LeaseService(mongoTemplate, factory);
+        second = new LeaseService(mongoTemplate, factory);
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheLease() {
+        assertThat(first.tryAcquire(NAME, Duration.ofMinutes(1))).isTrue();
+        assertThat(second.tryAcquire(NAME, Duration.ofMinutes(1))).isFalse();
+        // Verlängern durch den Halter
+        assertThat(first.tryAcquire(NAME, Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    void expiredLeaseCanBeTakenOver() throws InterruptedException {
+        assertThat(first.tryAcquire(NAME, Duration.ofMillis(100))).isTrue();
+        Thread.sleep(200);
+
+        assertThat(second.tryAcquire(NAME, Duration.ofMinutes(1))).isTrue();
+        assertThat(first.tryAcquire(NAME, Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    void releasedLeaseCanBeTakenOverImmediately() {
+        assertThat(first.tryAcquire(NAME, Duration.ofMinutes(1))).isTrue();
+
+        // Nur der Halter kann freigeben
+        second.release(NAME);
+        assertThat(second.tryAcquire(NAME, Duration.ofMinutes(1))).isFalse();
+
+        first.release(NAME);
+        assertThat(second.tryAcquire(NAME, Duration.ofMinutes(1))).isTrue();
+    }
+}
@@ -0,0 +1,158 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.models.entities.OutboxTask;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.repositories.OutboxTaskRepository;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_DELETE_USER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@MongoSliceTest
+class OutboxProcessorTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OutboxTaskRepository outboxTaskRepository;
+
+    private KeycloakService keycloakService;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), OutboxTask.class);
+        keycloakService = mock(KeycloakService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        processor = newProcessor();
+    }
+
+    private OutboxProcessor newProcessor() {
+        final var outboxProcessor = new OutboxProcessor(
+            mongoTemplate,
+            outboxTaskRepository,
+            keycloakService,
+            mock(KafkaPublisherService.class),
+            mock(KpiAggregator.class),
+            meterRegistry,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        ReflectionTestUtils.setField(outboxProcessor, "batchSize", 50);
+        ReflectionTestUtils.setField(outboxProcessor, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(outboxProcessor, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(outboxProcessor, "retryBackoff", Duration.ofMillis(1));
+        return outboxProcessor;
+    }
+
+    @Test
+    void successfulTaskIsDeleted() {
+        final var task = insertTask();
+
+        assertThat(processor.processPending()).isEqualTo(1);
+
+        verify(keycloakService).deleteUser("kc-max", "max");
+        assertThat(outboxTaskRepository.existsById(task.getId())).isFalse();
+    }
+
+    @Test
+    void failedTaskIsRetriedWithBackoff() {
+        final var task = insertTask();
+        doThrow(new IllegalStateException("Keycloak antwortet mit 503")).when(keycloakService).deleteUser(any(), any());
+
+        final var before = Instant.now();
+        assertThat(processor.processPending()).isEqualTo(1);
+
+        final var failed = outboxTaskRepository.findById(task.getId()).orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("503");
+        assertThat(failed.getNextAttemptAt()).isAfter(before);
+        assertThat(failed.getDeadLetteredAt()).isNull();
+    }
+
+    @Test
+    void leasedTaskIsNotClaimedAgain() {
+        insertTask();
+        doAnswer(_ -> {
+            // Während der Ausführung ist die Aufgabe für andere Instanzen gesperrt
+            assertThat(newProcessor().processPending()).isZero();
+            return null;
+        }).when(keycloakService).deleteUser(any(), any());
+
+        assertThat(processor.processPending()).isEqualTo(1);
+        assertThat(outboxTaskRepository.count()).isZero();
+    }
+
+    @Test
+    void exhaustedTaskIsDeadLettered() throws InterruptedException {
+        final var task = insertTask();
+        doThrow(new IllegalStateException("Keycloak antwortet mit 503")).when(keycloakService).deleteUser(any(), any());
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            assertThat(processor.processPending()).isEqualTo(1);
+            // Backoff von wenigen Millisekunden abwarten
+            Thread.sleep(50);
+        }
+        assertThat(processor.processPending()).isZero();
+
+        final var deadLettered = outboxTaskRepository.findById(task.getId()).orElseThrow();
+        assertThat(deadLettered.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(deadLettered.getDeadLetteredAt()).isNotNull();
+        assertThat(deadLettered.getNextAttemptAt()).isNull();
+        assertThat(deadLettered.getLastError()).contains("503");
+        assertThat(meterRegistry.get("outbox.dead.letter").tag("type", KEYCLOAK_DELETE_USER.name()).counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void concurrentProcessorsExecuteEachTaskOnce() {
+        for (int i = 0; i < 20; i++) {
+            insertTask();
+        }
+        final var executions = new AtomicInteger();
+        doAnswer(_ -> executions.incrementAndGet()).when(keycloakService).deleteUser(any(), any());
+
+        final var first = CompletableFuture.supplyAsync(processor::processPending);
+        final var second = CompletableFuture.supplyAsync(newProcessor()::processPending);
+
+        assertThat(first.join() + second.join()).isEqualTo(20);
+        assertThat(executions).hasValue(20);
+        assertThat(outboxTaskRepository.count()).isZero();
+    }
+
+    private OutboxTask insertTask() {
+        return outboxTaskRepository.insert(OutboxTask.of(KEYCLOAK_DELETE_USER, Person.builder()
+            .id(UUID.randomUUID())
+            .username("max")
+            .keycloakId("kc-max")
+            .email("max@omnixys.com")
+            .build()));
+    }
+}
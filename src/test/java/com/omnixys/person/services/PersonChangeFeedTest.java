@@ -0,0 +1,136 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.entities.Lease;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.models.events.PersonChangedEvent;
+import com.omnixys.person.repositories.ChangeStreamTokenRepository;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@MongoSliceTest
+class PersonChangeFeedTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ChangeStreamTokenRepository changeStreamTokenRepository;
+
+    private final List<PersonChangeFeed> feeds = new ArrayList<>();
+    private LoggerPlusFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Person.class);
+        mongoTemplate.remove(new Query(), Lease.class);
+        changeStreamTokenRepository.deleteAll();
+        factory = new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feeds.forEach(PersonChangeFeed::stop);
+    }
+
+    @Test
+    void resumesAfterRestartFromStoredToken() throws InterruptedException {
+        final var publisher = mock(KafkaPublisherService.class);
+        final var feed = start(publisher, new LeaseService(mongoTemplate, factory));
+        awaitStream();
+        final var before = insertPerson("vorher");
+        verify(publisher, timeout(10_000)).personChanged(event(before));
+        feed.stop();
+        assertThat(changeStreamTokenRepository.findById("persons")).isPresent();
+
+        // Während des Stillstands geänderte Personen werden nach dem Neustart nachgeliefert, frühere nicht erneut
+        final var during = insertPerson("waehrend");
+        final var restarted = mock(KafkaPublisherService.class);
+        start(restarted, new LeaseService(mongoTemplate, factory));
+
+        verify(restarted, timeout(10_000)).personChanged(event(during));
+        verify(restarted, never()).personChanged(event(before));
+    }
+
+    @Test
+    void onlyTheLeaseHolderPublishes() throws InterruptedException {
+        final var leader = mock(KafkaPublisherService.class);
+        final var follower = mock(KafkaPublisherService.class);
+        start(leader, new LeaseService(mongoTemplate, factory));
+        // Der Leader hält die Lease, sobald er einen Token geschrieben hat
+        awaitStream();
+        start(follower, new LeaseService(mongoTemplate, factory));
+
+        final var id = insertPerson("einmal");
+
+        verify(leader, timeout(10_000)).personChanged(event(id));
+        verify(follower, after(2_000).never()).personChanged(any());
+    }
+
+    private PersonChangeFeed start(final KafkaPublisherService publisher, final LeaseService leaseService) {
+        final var feed = new PersonChangeFeed(
+            mongoTemplate,
+            changeStreamTokenRepository,
+            leaseService,
+            publisher,
+            mock(ApplicationEventPublisher.class),
+            factory
+        );
+        ReflectionTestUtils.setField(feed, "enabled", true);
+        ReflectionTestUtils.setField(feed, "tokenFlushInterval", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(feed, "retryBackoff", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(feed, "leaseTtl", Duration.ofSeconds(3));
+        feed.start();
+        feeds.add(feed);
+        return feed;
+    }
+
+    /**
+     * Wartet, bis der Stream geöffnet ist; der erste Token wird auch ohne Änderungen geschrieben.
+     */
+    private void awaitStream() throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (changeStreamTokenRepository.findById("persons").isEmpty()) {
+            assertThat(System.nanoTime()).as("Change-Stream geöffnet").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private UUID insertPerson(final String username) {
+        return mongoTemplate.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .username(username)
+            .email(username + "@omnixys.com")
+            .personType(PersonType.CUSTOMER)
+            .build()).getId();
+    }
+
+    private static PersonChangedEvent event(final UUID id) {
+        return argThat(event -> event != null && id.equals(event.id()));
+    }
+}
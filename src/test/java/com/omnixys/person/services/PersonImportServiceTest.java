@@ -0,0 +1,189 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.models.entities.Customer;
+import com.omnixys.person.models.entities.ImportJob;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.ImportJobStatus;
+import com.omnixys.person.models.payload.ImportReport.ImportFailure;
+import com.omnixys.person.security.dto.PartialImportResultDTO;
+import com.omnixys.person.security.dto.UserRepresentation;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.services.PersonImportService.CustomerImport;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.omnixys.person.messaging.KafkaTopicProperties.TOPIC_NOTIFICATION_CREATE_PERSON;
+import static com.omnixys.person.models.enums.KpiType.PERSON_CREATED;
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_DELETE_USER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MongoSliceTest
+class PersonImportServiceTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private KeycloakService keycloakService;
+    private KafkaPublisherService kafkaPublisherService;
+    private KpiAggregator kpiAggregator;
+    private OutboxService outboxService;
+    private PersonImportService service;
+    private final List<String> observations = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Person.class);
+        mongoTemplate.remove(new Query(), ImportJob.class);
+        final var personWriteService = mock(PersonWriteService.class);
+        when(personWriteService.checkPassword(any())).thenReturn(true);
+        when(personWriteService.determineCustomerRole(anyInt())).thenReturn("BASIC");
+        keycloakService = mock(KeycloakService.class);
+        kafkaPublisherService = mock(KafkaPublisherService.class);
+        kpiAggregator = mock(KpiAggregator.class);
+        outboxService = mock(OutboxService.class);
+        final var observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+            @Override
+            public boolean supportsContext(final Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(final Observation.Context context) {
+                observations.add(context.getName());
+            }
+        });
+        service = new PersonImportService(
+            personWriteService,
+            keycloakService,
+            kafkaPublisherService,
+            kpiAggregator,
+            outboxService,
+            mongoTemplate,
+            observationRegistry,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+        ReflectionTestUtils.setField(service, "chunkSize", 25);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+    }
+
+    @Test
+    void failedChunkIsReconciledByUsername() {
+        when(keycloakService.importUsers(anyList(), anyMap(), anyMap()))
+            .thenThrow(new ResourceAccessException("Read timed out"));
+        when(keycloakService.findUser("alice"))
+            .thenReturn(Optional.of(new UserRepresentation("kc-alice", "alice", "alice@omnixys.com", null, null)));
+        when(keycloakService.findUser("bob")).thenReturn(Optional.empty());
+        when(keycloakService.findUser("carol")).thenThrow(new ResourceAccessException("Read timed out"));
+
+        final var report = service.importCustomers(UUID.randomUUID(), List.of(customer("alice"), customer("bob"), customer("carol")));
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failures()).extracting(ImportFailure::username).containsExactlyInAnyOrder("bob", "carol");
+        final var persons = mongoTemplate.findAll(Person.class);
+        assertThat(persons).singleElement().satisfies(person -> {
+            assertThat(person.getUsername()).isEqualTo("alice");
+            assertThat(person.getKeycloakId()).isEqualTo("kc-alice");
+        });
+        // Nur bei unbekanntem Zustand wird ein womöglich verspätet angelegter Benutzer entfernt
+        verify(outboxService).enqueue(argThat(person -> "carol".equals(person.getUsername())), eq(KEYCLOAK_DELETE_USER));
+        // Nur der tatsächlich angelegte Kunde erhält die Willkommens-Mail und zählt als neuer Kunde
+        verify(kafkaPublisherService, times(1))
+            .sendMail(eq(TOPIC_NOTIFICATION_CREATE_PERSON), argThat(person -> "alice".equals(person.getUsername())), eq("BASIC"), eq(false));
+        verify(kafkaPublisherService, times(1)).sendMail(anyString(), any(), any(), eq(false));
+        verify(kpiAggregator, times(1)).record(PERSON_CREATED);
+    }
+
+    @Test
+    void foreignKeycloakUserIsNotLinked() {
+        when(keycloakService.importUsers(anyList(), anyMap(), anyMap()))
+            .thenThrow(new ResourceAccessException("Read timed out"));
+        when(keycloakService.findUser("dave"))
+            .thenReturn(Optional.of(new UserRepresentation("kc-other", "dave", "other@omnixys.com", null, null)));
+
+        final var report = service.importCustomers(UUID.randomUUID(), List.of(customer("dave")));
+
+        assertThat(report.imported()).isZero();
+        assertThat(mongoTemplate.findAll(Person.class)).isEmpty();
+    }
+
+    @Test
+    void jobRecordsProgressAndCompletes() throws InterruptedException {
+        when(keycloakService.importUsers(anyList(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            final List<Person> persons = invocation.getArgument(0);
+            final var result = new HashMap<String, PartialImportResultDTO.Result>();
+            persons.forEach(person -> result.put(person.getUsername(),
+                new PartialImportResultDTO.Result("ADDED", "USER", person.getUsername(), "kc-" + person.getUsername())));
+            return result;
+        });
+        final var customers = new ArrayList<CustomerImport>();
+        for (int i = 0; i < 60; i++) {
+            customers.add(customer("user" + i));
+        }
+
+        final var job = service.startImport(customers, List.of(new ImportFailure("invalid", "Ungültig")));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.RUNNING);
+        final var finished = awaitFinished(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.getTotal()).isEqualTo(61);
+        assertThat(finished.getImported()).isEqualTo(60);
+        assertThat(finished.getFailures()).extracting(ImportFailure::username).containsExactly("invalid");
+        verify(kpiAggregator, times(60)).record(PERSON_CREATED);
+        assertThat(observations).containsExactly("person-service.import-customers");
+    }
+
+    private ImportJob awaitFinished(final UUID jobId) throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            final var job = service.findJob(jobId).orElseThrow();
+            if (job.getStatus() != ImportJobStatus.RUNNING) {
+                return job;
+            }
+            assertThat(System.nanoTime()).as("Import abgeschlossen").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static CustomerImport customer(final String username) {
+        return new CustomerImport(Person.builder()
+            .username(username)
+            .email(username + "@omnixys.com")
+            .lastName("Import")
+            .customer(Customer.builder().tierLevel(1).build())
+            .build(), "Geheim123!");
+    }
+}
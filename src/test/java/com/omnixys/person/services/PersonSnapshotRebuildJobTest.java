@@ -0,0 +1,107 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.models.events.PersonSnapshot;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@MongoSliceTest
+class PersonSnapshotRebuildJobTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private KafkaPublisherService publisher;
+    private PersonSnapshotRebuildJob job;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Person.class);
+        publisher = mock(KafkaPublisherService.class);
+        job = new PersonSnapshotRebuildJob(
+            mongoTemplate,
+            publisher,
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+    }
+
+    @Test
+    void changesDuringTheScanArePublishedAfterTheScannedState() throws InterruptedException {
+        final var max = insertPerson("max");
+        final var moritz = insertPerson("moritz");
+        // Während der Scan läuft, ändert ein Schreibzugriff die eine Person und löscht die andere
+        final var changed = new AtomicBoolean();
+        doAnswer(_ -> {
+            if (changed.compareAndSet(false, true)) {
+                mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(max)), new Update().set("lastName", "Neu"), Person.class
+                );
+                mongoTemplate.remove(new Query(Criteria.where("_id").is(moritz)), Person.class);
+            }
+            return null;
+        }).when(publisher).personSnapshot(any());
+
+        assertThat(job.start()).isTrue();
+        awaitFinished();
+
+        assertThat(job.status().get("lastError")).isNull();
+        assertThat(job.status().get("replayed")).isEqualTo(2L);
+        final InOrder order = inOrder(publisher);
+        order.verify(publisher).personSnapshot(argThat(snapshot -> max.equals(snapshot.id()) && "Alt".equals(snapshot.lastName())));
+        order.verify(publisher).personSnapshot(argThat(snapshot -> max.equals(snapshot.id()) && "Neu".equals(snapshot.lastName())));
+        verify(publisher).personSnapshotDeleted(moritz);
+    }
+
+    @Test
+    void withoutChangesNothingIsReplayed() throws InterruptedException {
+        final var max = insertPerson("max");
+
+        assertThat(job.start()).isTrue();
+        awaitFinished();
+
+        assertThat(job.status().get("published")).isEqualTo(1L);
+        assertThat(job.status().get("replayed")).isEqualTo(0L);
+        verify(publisher).personSnapshot(argThat((PersonSnapshot snapshot) -> max.equals(snapshot.id())));
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 20_000;
+        while (Boolean.TRUE.equals(job.status().get("running")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(job.status().get("running")).isEqualTo(false);
+    }
+
+    private UUID insertPerson(final String username) {
+        return mongoTemplate.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .username(username)
+            .email(username + "@omnixys.com")
+            .lastName("Alt")
+            .personType(PersonType.CUSTOMER)
+            .build()).getId();
+    }
+}
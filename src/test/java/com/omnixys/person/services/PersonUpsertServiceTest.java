@@ -0,0 +1,117 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.models.entities.Customer;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.models.events.PersonUpsertDTO;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+@MongoSliceTest
+class PersonUpsertServiceTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private PersonUpsertService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Person.class);
+        service = new PersonUpsertService(mongoTemplate, new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class)));
+    }
+
+    @Test
+    void upsertKeepsServiceOwnedFields() {
+        final var id = UUID.randomUUID();
+        final var contactId = UUID.randomUUID();
+        final var created = LocalDateTime.of(2025, 1, 1, 12, 0);
+        mongoTemplate.insert(Person.builder()
+            .id(id)
+            .version(3)
+            .username("alice")
+            .email("alice@omnixys.com")
+            .lastName("Alt")
+            .personType(PersonType.CUSTOMER)
+            .keycloakId("kc-alice")
+            .customer(Customer.builder().tierLevel(1).contactIds(List.of(contactId)).build())
+            .created(created)
+            .build());
+
+        final var result = service.upsertAll(List.of(upsert(id, "alice", "Neu", 5)));
+
+        assertThat(result).isEqualTo(new PersonUpsertService.Result(1, 0));
+        final var person = mongoTemplate.findById(id, Person.class);
+        assertThat(person).isNotNull();
+        assertThat(person.getLastName()).isEqualTo("Neu");
+        assertThat(person.getCustomer().getTierLevel()).isEqualTo(5);
+        assertThat(person.getKeycloakId()).isEqualTo("kc-alice");
+        assertThat(person.getCustomer().getContactIds()).containsExactly(contactId);
+        assertThat(person.getCreated()).isEqualTo(created);
+        assertThat(person.getVersion()).isEqualTo(4);
+    }
+
+    @Test
+    void upsertInsertsNewPerson() {
+        final var id = UUID.randomUUID();
+
+        service.upsertAll(List.of(upsert(id, "bob", "Neu", 2)));
+
+        final var person = mongoTemplate.findById(id, Person.class);
+        assertThat(person).isNotNull();
+        assertThat(person.getUsername()).isEqualTo("bob");
+        assertThat(person.getCreated()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.MINUTES));
+        assertThat(person.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertCountsRejectedPersons() {
+        mongoTemplate.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .username("carol")
+            .email("carol@omnixys.com")
+            .personType(PersonType.CUSTOMER)
+            .build());
+
+        // Gleicher Benutzername unter anderer ID verletzt den eindeutigen Index
+        final var result = service.upsertAll(List.of(
+            upsert(UUID.randomUUID(), "carol", "Doppelt", 1),
+            upsert(UUID.randomUUID(), "dave", "Neu", 1)
+        ));
+
+        assertThat(result).isEqualTo(new PersonUpsertService.Result(1, 1));
+    }
+
+    private static PersonUpsertDTO upsert(final UUID id, final String username, final String lastName, final int tierLevel) {
+        return new PersonUpsertDTO(
+            id,
+            username,
+            username + "-" + id + "@omnixys.com",
+            PersonType.CUSTOMER,
+            lastName,
+            null,
+            null,
+            null,
+            null,
+            null,
+            new PersonUpsertDTO.CustomerUpsertDTO(tierLevel, null, null, null, null),
+            null
+        );
+    }
+}
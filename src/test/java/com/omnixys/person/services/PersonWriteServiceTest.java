@@ -0,0 +1,255 @@
+package com.omnixys.person.services;
+
+import com.omnixys.person.MongoSliceTest;
+import com.omnixys.person.config.AppProperties;
+import com.omnixys.person.exceptions.EmailExistsException;
+import com.omnixys.person.exceptions.SignUpException;
+import com.omnixys.person.messaging.KafkaPublisherService;
+import com.omnixys.person.messaging.KpiAggregator;
+import com.omnixys.person.models.entities.Customer;
+import com.omnixys.person.models.entities.Person;
+import com.omnixys.person.models.enums.PersonType;
+import com.omnixys.person.repositories.ContactRepository;
+import com.omnixys.person.repositories.PersonRepository;
+import com.omnixys.person.security.CustomUserDetails;
+import com.omnixys.person.security.service.KeycloakService;
+import com.omnixys.person.tracing.LogShipper;
+import com.omnixys.person.tracing.LoggerPlusFactory;
+import com.omnixys.person.utils.ValidationService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_DELETE_USER;
+import static com.omnixys.person.models.enums.OutboxTaskType.KEYCLOAK_UPDATE_USER;
+import static com.omnixys.person.security.enums.RoleType.USER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@MongoSliceTest
+class PersonWriteServiceTest {
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private static final String PASSWORD = "Geheim123!";
+
+    private KeycloakService keycloakService;
+    private OutboxService outboxService;
+    private PersonWriteService service;
+    private CustomUserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        personRepository.deleteAll();
+        keycloakService = mock(KeycloakService.class);
+        outboxService = mock(OutboxService.class);
+        service = newService(personRepository);
+        final var jwt = Jwt.withTokenValue("token").header("alg", "none").subject("kc-max").build();
+        user = new CustomUserDetails("max", Set.of(USER), jwt);
+    }
+
+    private PersonWriteService newService(final PersonRepository repository) {
+        return new PersonWriteService(
+            mock(PersonReadService.class),
+            repository,
+            mongoTemplate,
+            mock(KafkaPublisherService.class),
+            mock(KpiAggregator.class),
+            keycloakService,
+            mock(ContactRepository.class),
+            outboxService,
+            mock(ValidationService.class),
+            OpenTelemetry.noop().getTracer("test"),
+            new LoggerPlusFactory(mock(LogShipper.class), mock(AppProperties.class))
+        );
+    }
+
+    @Test
+    void keycloakFailureRollsBackChangedFieldsOnly() {
+        final var id = insertCustomer("kc-max");
+        doThrow(new RuntimeException("Keycloak antwortet mit 500"))
+            .when(keycloakService).update(any(), any(), anyBoolean(), anyString());
+
+        assertThatThrownBy(() -> service.updateCustomer(input("Neu"), id, 0, user, "max"))
+            .hasMessageContaining("500");
+
+        final var person = personRepository.findById(id).orElseThrow();
+        assertThat(person.getLastName()).isEqualTo("Alt");
+        assertThat(person.getKeycloakId()).isEqualTo("kc-max");
+        // gespeichert mit Version 1, zurückgesetzt mit Version 2
+        assertThat(person.getVersion()).isEqualTo(2);
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void keycloakFailureRollsBackCustomerState() {
+        final var id = insertCustomer("kc-max");
+        doThrow(new RuntimeException("Keycloak antwortet mit 500"))
+            .when(keycloakService).update(any(), any(), anyBoolean(), anyString());
+
+        assertThatThrownBy(() -> service.updateCustomer(input("Neu"), id, 0, user, "max"))
+            .hasMessageContaining("500");
+
+        // updateCustomer setzt den Status auf ACTIVE; der Rollback stellt den alten Stand wieder her
+        assertThat(personRepository.findById(id).orElseThrow().getCustomer().getCustomerState()).isNull();
+    }
+
+    @Test
+    void rollbackIsSkippedWhenDocumentChangedMeanwhile() {
+        final var id = insertCustomer("kc-max");
+        final var previous = personRepository.findById(id).orElseThrow();
+        final var saved = previous.toBuilder().lastName("Neu").version(1).build();
+        personRepository.save(saved.toBuilder().version(2).lastName("Fremd").build());
+
+        assertThat(service.rollbackPerson(previous, saved)).isFalse();
+
+        assertThat(personRepository.findById(id).orElseThrow().getLastName()).isEqualTo("Fremd");
+    }
+
+    @Test
+    void updateEmployeeIncrementsVersion() {
+        final var id = insertCustomer("kc-max");
+        mongoTemplate.updateFirst(
+            query(where("_id").is(id)), new Update().set("personType", PersonType.EMPLOYEE), Person.class
+        );
+
+        final var saved = service.updateEmployee(input("Neu"), id, 0, user);
+
+        assertThat(saved.getVersion()).isEqualTo(1);
+        final var person = personRepository.findById(id).orElseThrow();
+        assertThat(person.getLastName()).isEqualTo("Neu");
+        assertThat(person.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitDefersKeycloakUpdateAfterJoin() {
+        final var id = insertCustomer(null);
+        doThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("keycloak")))
+            .when(keycloakService).update(any(), any(), anyBoolean(), anyString());
+
+        final var saved = service.updateCustomer(input("Neu"), id, 0, user, "max");
+
+        assertThat(saved.getLastName()).isEqualTo("Neu");
+        // Die Keycloak-ID aus dem Token gelangt nur in die Outbox-Aufgabe, nicht in das gespeicherte Dokument
+        assertThat(personRepository.findById(id).orElseThrow().getKeycloakId()).isNull();
+        verify(outboxService).enqueue(argThat(person -> "kc-max".equals(person.getKeycloakId())), eq(KEYCLOAK_UPDATE_USER));
+    }
+
+    @Test
+    void failedKeycloakIdUpdateDeletesKeycloakUser() {
+        final var repository = mock(PersonRepository.class, delegatesTo(personRepository));
+        doThrow(new IllegalStateException("MongoDB nicht erreichbar")).when(repository).setKeycloakId(any(), anyString());
+        when(keycloakService.signIn(any(), anyString(), anyString())).thenReturn("kc-new");
+
+        assertThatThrownBy(() -> newService(repository).createCustomer(newCustomer("neu"), PASSWORD))
+            .hasMessageContaining("MongoDB");
+
+        verify(keycloakService).deleteUser("kc-new", "neu");
+        verifyNoInteractions(outboxService);
+        assertThat(personRepository.count()).isZero();
+    }
+
+    @Test
+    void orphanedKeycloakUserIsDeletedViaOutbox() {
+        when(keycloakService.signIn(any(), anyString(), anyString()))
+            .thenThrow(new SignUpException("User registration failed: Rolle fehlt", "kc-orphan"));
+        doThrow(new IllegalStateException("Keycloak antwortet mit 503")).when(keycloakService).deleteUser("kc-orphan", "neu");
+
+        assertThatThrownBy(() -> service.createCustomer(newCustomer("neu"), PASSWORD))
+            .isInstanceOf(SignUpException.class);
+
+        verify(outboxService).enqueue(argThat(person -> "kc-orphan".equals(person.getKeycloakId())), eq(KEYCLOAK_DELETE_USER));
+        assertThat(personRepository.count()).isZero();
+    }
+
+    @Test
+    void failedSignInWithoutKeycloakUserOnlyRemovesPerson() {
+        when(keycloakService.signIn(any(), anyString(), anyString()))
+            .thenThrow(new SignUpException("User registration failed: 409 Conflict"));
+
+        assertThatThrownBy(() -> service.createCustomer(newCustomer("neu"), PASSWORD))
+            .isInstanceOf(SignUpException.class);
+
+        verify(keycloakService, never()).deleteUser(any(), any());
+        verifyNoInteractions(outboxService);
+        assertThat(personRepository.count()).isZero();
+    }
+
+    @Test
+    void duplicateKeyFieldIsIndependentOfIndexName() {
+        assertThat(PersonWriteService.duplicateKeyField(
+            "E11000 duplicate key error collection: person.persons index: email_1 dup key: { email: \"max@omnixys.com\" }"))
+            .isEqualTo("email");
+        assertThat(PersonWriteService.duplicateKeyField(
+            "E11000 duplicate key error collection: person.persons index: username dup key: { username: \"max\" }"))
+            .isEqualTo("username");
+        // Ältere Server liefern den Schlüssel ohne Feldnamen: dann zählt der Indexname ohne Endung
+        assertThat(PersonWriteService.duplicateKeyField(
+            "E11000 duplicate key error collection: person.persons index: username_1 dup key: { : \"max\" }"))
+            .isEqualTo("username");
+        assertThat(PersonWriteService.duplicateKeyField("E11000 duplicate key error")).isNull();
+    }
+
+    @Test
+    void duplicateEmailIsReportedAsEmailExists() {
+        insertCustomer("kc-max");
+
+        assertThatThrownBy(() -> service.createCustomer(newCustomer("moritz").toBuilder().email("max@omnixys.com").build(), PASSWORD))
+            .isInstanceOf(EmailExistsException.class);
+    }
+
+    private static Person newCustomer(final String username) {
+        return Person.builder()
+            .username(username)
+            .email(username + "@omnixys.com")
+            .lastName("Neu")
+            .customer(Customer.builder().tierLevel(1).contactIds(new ArrayList<>()).build())
+            .build();
+    }
+
+    private UUID insertCustomer(final String keycloakId) {
+        return personRepository.insert(Person.builder()
+            .id(UUID.randomUUID())
+            .version(0)
+            .username("max")
+            .email("max@omnixys.com")
+            .lastName("Alt")
+            .firstName("Max")
+            .personType(PersonType.CUSTOMER)
+            .keycloakId(keycloakId)
+            .customer(Customer.builder().tierLevel(1).contactIds(new ArrayList<>()).build())
+            .build()).getId();
+    }
+
+    private static Person input(final String lastName) {
+        return Person.builder().lastName(lastName).build();
+    }
+}
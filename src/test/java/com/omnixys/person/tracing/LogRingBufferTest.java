@@ -0,0 +1,120 @@
+package com.omnixys.person.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new LogRingBuffer<>(1).capacity()).isEqualTo(2);
+        assertThat(new LogRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new LogRingBuffer<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void offerFailsWhenFullAndPollReturnsNullWhenEmpty() {
+        final var buffer = new LogRingBuffer<Integer>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void keepsFifoOrderAcrossWrapAround() {
+        final var buffer = new LogRingBuffer<Integer>(4);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            assertThat(buffer.offer(i + 1000)).isTrue();
+            assertThat(buffer.poll()).isEqualTo(i);
+            assertThat(buffer.poll()).isEqualTo(i + 1000);
+        }
+    }
+
+    @Test
+    void deliversEveryElementExactlyOnceWithConcurrentProducersAndConsumers() throws Exception {
+        final int producers = 4;
+        final int consumers = 4;
+        final int perProducer = 50_000;
+        final int total = producers * perProducer;
+        final var buffer = new LogRingBuffer<Integer>(256);
+        final var seen = new AtomicIntegerArray(total);
+        final var consumed = new AtomicInteger();
+        final var start = new CountDownLatch(1);
+        final var outOfOrder = new ConcurrentLinkedQueue<String>();
+
+        final var executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            final var futures = new ArrayList<Future<?>>();
+            for (int p = 0; p < producers; p++) {
+                final int offset = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(offset + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // Ein einzelner Konsument sieht die Elemente eines Produzenten in dessen Reihenfolge
+                    final var last = new int[producers];
+                    Arrays.fill(last, -1);
+                    while (consumed.get() < total) {
+                        final var value = buffer.poll();
+                        if (value == null) {
+                            Thread.onSpinWait();
+                            continue;
+                        }
+                        seen.incrementAndGet(value);
+                        consumed.incrementAndGet();
+                        final int producer = value / perProducer;
+                        if (value <= last[producer]) {
+                            outOfOrder.add(value + " nach " + last[producer]);
+                        }
+                        last[producer] = value;
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (final var future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < total; i++) {
+            assertThat(seen.get(i)).as("Element %d", i).isEqualTo(1);
+        }
+        assertThat(outOfOrder).isEmpty();
+        assertThat(buffer.poll()).isNull();
+    }
+}